@@ -0,0 +1,144 @@
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of adaptive steppers advancing a fleet with an integrator up to
+ * its next collision.
+ *
+ * An adaptive stepper takes steps as long as possible: up to the next
+ * collision predicted from the current velocities by Ship.getTimeToCollision
+ * and, while ships thrust, no longer than the maximum step of the stepper.
+ * Without thrust the prediction is exact, so a coasting fleet reaches its
+ * next collision in a single step. With thrust the prediction is refined
+ * at every step, until the ships are closer to touching than the
+ * tolerance of the stepper.
+ *
+ * @invar	The maximum step of each adaptive stepper is strictly positive and finite.
+ * 			| getMaximumStep() > 0.0 && ! Double.isInfinite(getMaximumStep())
+ * @invar	The tolerance of each adaptive stepper is strictly positive and finite.
+ * 			| getTolerance() > 0.0 && ! Double.isInfinite(getTolerance())
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class AdaptiveStepper {
+
+	/**
+	 * Initialize this new adaptive stepper with the given integrator,
+	 * maximum step and tolerance.
+	 *
+	 * @param	integrator
+	 * 			The integrator advancing each step.
+	 * @param	maximumStep
+	 * 			The maximum duration of a step while ships thrust.
+	 * @param	tolerance
+	 * 			The time to collision below which ships are considered to collide.
+	 * @post	| new.getIntegrator() == integrator
+	 * @post	| new.getMaximumStep() == maximumStep
+	 * @post	| new.getTolerance() == tolerance
+	 * @throws	NullPointerException
+	 * 			| integrator == null
+	 * @throws	IllegalDurationException
+	 * 			| ! (maximumStep > 0.0) || Double.isInfinite(maximumStep)
+	 * 			|	|| ! (tolerance > 0.0) || Double.isInfinite(tolerance)
+	 */
+	public AdaptiveStepper(Integrator integrator, double maximumStep, double tolerance)
+			throws NullPointerException, IllegalDurationException {
+		if (integrator == null)
+			throw new NullPointerException();
+		if (! (maximumStep > 0.0) || Double.isInfinite(maximumStep))
+			throw new IllegalDurationException(maximumStep);
+		if (! (tolerance > 0.0) || Double.isInfinite(tolerance))
+			throw new IllegalDurationException(tolerance);
+		this.integrator = integrator;
+		this.maximumStep = maximumStep;
+		this.tolerance = tolerance;
+	}
+
+	/**
+	 * Return the integrator advancing each step.
+	 */
+	@Basic @Immutable
+	public Integrator getIntegrator() {
+		return this.integrator;
+	}
+
+	/**
+	 * Variable referencing the integrator advancing each step.
+	 */
+	private final Integrator integrator;
+
+	/**
+	 * Return the maximum duration of a step while ships thrust.
+	 */
+	@Basic @Immutable
+	public double getMaximumStep() {
+		return this.maximumStep;
+	}
+
+	/**
+	 * Variable registering the maximum duration of a step while ships thrust.
+	 */
+	private final double maximumStep;
+
+	/**
+	 * Return the time to collision below which ships are considered to collide.
+	 */
+	@Basic @Immutable
+	public double getTolerance() {
+		return this.tolerance;
+	}
+
+	/**
+	 * Variable registering the time to collision below which ships are
+	 * considered to collide.
+	 */
+	private final double tolerance;
+
+	/**
+	 * Advance the given fleet with the given thrust rates up to its next
+	 * collision, or over the given duration if no collision happens earlier.
+	 *
+	 * @param	fleet
+	 * 			The fleet to advance.
+	 * @param	rates
+	 * 			The thrust rate of each ship of the fleet, or null if no ship thrusts.
+	 * @param	duration
+	 * 			The maximum duration to advance.
+	 * @return	The next collision, of which the time is the time elapsed in this
+	 * 			invocation when it happens, or null if no collision happens within
+	 * 			the given duration. Ships that already overlap collide at time zero.
+	 * @throws	NullPointerException
+	 * 			| fleet == null
+	 * @throws	IllegalArgumentException
+	 * 			| rates != null && rates.length < fleet.getNbShips()
+	 * @throws	IllegalDurationException
+	 * 			| ! BroadPhase.isValidHorizon(duration)
+	 */
+	public CollisionPair advance(ShipFleet fleet, double[] rates, double duration)
+			throws NullPointerException, IllegalArgumentException, IllegalDurationException {
+		if (! BroadPhase.isValidHorizon(duration))
+			throw new IllegalDurationException(duration);
+		if ((rates != null) && (rates.length < fleet.getNbShips()))
+			throw new IllegalArgumentException("No thrust rate for each ship");
+		BroadPhase broadPhase = new BroadPhase(fleet);
+		boolean thrusting = (rates != null);
+		double elapsed = 0.0;
+		while (true) {
+			double remaining = duration - elapsed;
+			double step = thrusting ? Math.min(remaining, this.maximumStep) : remaining;
+			CollisionPair next = broadPhase.getEarliestCollision(step);
+			if ((next != null) && (next.getTime() < this.tolerance))
+				return new CollisionPair(next.getShipA(), next.getShipB(), elapsed + next.getTime());
+			if (next != null)
+				step = next.getTime();
+			this.integrator.integrate(fleet, rates, step);
+			elapsed = (step < remaining) ? elapsed + step : duration;
+			if ((next != null) && ! thrusting)
+				return new CollisionPair(next.getShipA(), next.getShipB(), elapsed);
+			if (elapsed >= duration)
+				return null;
+		}
+	}
+
+}
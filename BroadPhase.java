@@ -0,0 +1,355 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of broad-phase collision detectors for fleets of ships.
+ *
+ * A broad phase sweeps the bounding boxes of the ships of its fleet along
+ * the X-axis (sweep and prune). The bounding box of a ship encloses its
+ * circle over the whole time horizon of a query, so two ships can only
+ * collide within that horizon if their boxes overlap. Only for those
+ * candidate pairs the exact quadratic of Ship.getTimeToCollision is solved.
+ *
+ * A broad phase reuses its internal buffers from one query to the next and
+ * is not safe for use by several threads at once.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class BroadPhase {
+
+	/**
+	 * Initialize this new broad phase for the given fleet.
+	 *
+	 * @param	fleet
+	 * 			The fleet for this new broad phase.
+	 * @post	| new.getFleet() == fleet
+	 * @throws	NullPointerException
+	 * 			| fleet == null
+	 */
+	public BroadPhase(ShipFleet fleet) throws NullPointerException {
+		if (fleet == null)
+			throw new NullPointerException();
+		this.fleet = fleet;
+	}
+
+	/**
+	 * Return the fleet of this broad phase.
+	 */
+	@Basic @Immutable
+	public ShipFleet getFleet() {
+		return this.fleet;
+	}
+
+	/**
+	 * Variable referencing the fleet of this broad phase.
+	 */
+	private final ShipFleet fleet;
+
+	/**
+	 * An interface for consumers of pairs of ship indices.
+	 */
+	public interface PairConsumer {
+
+		/**
+		 * Accept the pair of ships with the given indices.
+		 */
+		void accept(int shipA, int shipB);
+
+	}
+
+	/**
+	 * Check whether the given horizon is a valid horizon for queries.
+	 *
+	 * @param	horizon
+	 * 			The horizon to check.
+	 * @return	True if and only if the given horizon is a valid, finite duration.
+	 * 			| result == (Ship.isValidDuration(horizon) && ! Double.isInfinite(horizon))
+	 */
+	public static boolean isValidHorizon(double horizon) {
+		return Ship.isValidDuration(horizon) && ! Double.isInfinite(horizon);
+	}
+
+	/**
+	 * Pass every pair of ships whose bounding boxes overlap within the given
+	 * horizon to the given consumer.
+	 *
+	 * @param	horizon
+	 * 			The time horizon over which ships are swept.
+	 * @param	consumer
+	 * 			The consumer of the candidate pairs.
+	 * @post	Each pair of ships that collides or overlaps within the given
+	 * 			horizon is passed exactly once to the given consumer, with the
+	 * 			smallest index first. Other pairs may be passed too.
+	 * @throws	IllegalDurationException
+	 * 			| ! isValidHorizon(horizon)
+	 * @throws	NullPointerException
+	 * 			| consumer == null
+	 */
+	public void forEachCandidatePair(double horizon, PairConsumer consumer)
+			throws IllegalDurationException, NullPointerException {
+		if (! isValidHorizon(horizon))
+			throw new IllegalDurationException(horizon);
+		if (consumer == null)
+			throw new NullPointerException();
+		int n = sweep(horizon);
+		final int[] order = this.order;
+		final double[] minX = this.minX, maxX = this.maxX, minY = this.minY, maxY = this.maxY;
+		for (int k = 0; k < n; k++) {
+			int a = order[k];
+			for (int l = k + 1; l < n; l++) {
+				int b = order[l];
+				if (minX[b] > maxX[a])
+					break;
+				if ((minY[b] <= maxY[a]) && (minY[a] <= maxY[b]))
+					consumer.accept(Math.min(a, b), Math.max(a, b));
+			}
+		}
+	}
+
+	/**
+	 * Return all candidate pairs of ships within the given horizon.
+	 *
+	 * @param	horizon
+	 * 			The time horizon over which ships are swept.
+	 * @return	An array holding, two by two, the indices of the ships of
+	 * 			each pair passed by forEachCandidatePair(horizon, consumer).
+	 * @throws	IllegalDurationException
+	 * 			| ! isValidHorizon(horizon)
+	 */
+	public int[] getCandidatePairs(double horizon) throws IllegalDurationException {
+		final int[][] pairs = { new int[32] };
+		final int[] size = { 0 };
+		forEachCandidatePair(horizon, (a, b) -> {
+			if (size[0] + 2 > pairs[0].length)
+				pairs[0] = Arrays.copyOf(pairs[0], 2 * pairs[0].length);
+			pairs[0][size[0]++] = a;
+			pairs[0][size[0]++] = b;
+		});
+		return Arrays.copyOf(pairs[0], size[0]);
+	}
+
+	/**
+	 * Return the pair of ships that collides first within the given horizon.
+	 *
+	 * @param	horizon
+	 * 			The time horizon over which ships are swept.
+	 * @return	The collision pair with the smallest time to collision not
+	 * 			above the given horizon, or null if no ships collide within
+	 * 			that horizon. Ships that already overlap collide at time zero.
+	 * @throws	IllegalDurationException
+	 * 			| ! isValidHorizon(horizon)
+	 */
+	public CollisionPair getEarliestCollision(double horizon) throws IllegalDurationException {
+		final double[] x = this.fleet.getPositionsX(), y = this.fleet.getPositionsY();
+		final double[] vx = this.fleet.getVelocitiesX(), vy = this.fleet.getVelocitiesY();
+		final double[] r = this.fleet.getRadii();
+		final double[] best = { Double.POSITIVE_INFINITY };
+		final int[] bestPair = { -1, -1 };
+		forEachCandidatePair(horizon, (a, b) -> {
+			double time = Ship.getTimeToCollision(x[b]-x[a], y[b]-y[a], vx[b]-vx[a], vy[b]-vy[a], r[a]+r[b]);
+			if (time < best[0]) {
+				best[0] = time;
+				bestPair[0] = a;
+				bestPair[1] = b;
+			}
+		});
+		if (best[0] > horizon)
+			return null;
+		return new CollisionPair(bestPair[0], bestPair[1], best[0]);
+	}
+
+	/**
+	 * Check whether any two ships of the fleet overlap.
+	 *
+	 * @return	True if and only if some pair of ships of the fleet overlaps.
+	 * 			| result == (for some a, b in 0..getFleet().getNbShips()-1 with a < b:
+	 * 			|	getFleet().getShip(a).toShip().overlap(getFleet().getShip(b).toShip()))
+	 */
+	public boolean overlapsAny() {
+		final int n = sweep(0.0);
+		final double[] x = this.fleet.getPositionsX(), y = this.fleet.getPositionsY(), r = this.fleet.getRadii();
+		final int[] order = this.order;
+		final double[] minX = this.minX, maxX = this.maxX;
+		for (int k = 0; k < n; k++) {
+			int a = order[k];
+			for (int l = k + 1; (l < n) && (minX[order[l]] <= maxX[a]); l++) {
+				int b = order[l];
+				if (Ship.overlap(x[b]-x[a], y[b]-y[a], r[a]+r[b]))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return all impacts between ships of the fleet within the given horizon,
+	 * sorted by time.
+	 *
+	 * @param	horizon
+	 * 			The time horizon over which ships are swept.
+	 * @return	A new list holding an impact for each pair of ships that do not
+	 * 			overlap now and collide within the given horizon, in the order
+	 * 			of their times and, for equal times, of their ships. The position
+	 * 			of each impact is the collision position of both ships.
+	 * @throws	IllegalDurationException
+	 * 			| ! isValidHorizon(horizon)
+	 */
+	public List<Impact> getCollisionsWithin(double horizon) throws IllegalDurationException {
+		final double[] x = this.fleet.getPositionsX(), y = this.fleet.getPositionsY();
+		final double[] vx = this.fleet.getVelocitiesX(), vy = this.fleet.getVelocitiesY();
+		final double[] r = this.fleet.getRadii();
+		final double[] position = new double[2];
+		final List<Impact> impacts = new ArrayList<Impact>();
+		forEachCandidatePair(horizon, (a, b) -> {
+			double dx = x[b]-x[a], dy = y[b]-y[a], dvx = vx[b]-vx[a], dvy = vy[b]-vy[a];
+			double time = Ship.getTimeToCollision(dx, dy, dvx, dvy, r[a]+r[b]);
+			if ((time > horizon) || (time == 0.0))
+				return;
+			Ship.getCollisionPosition(x[a]+time*vx[a], y[a]+time*vy[a], r[a],
+					dx+time*dvx, dy+time*dvy, position);
+			impacts.add(new Impact(a, b, time, position[0], position[1]));
+		});
+		Collections.sort(impacts);
+		return impacts;
+	}
+
+	/**
+	 * Return all impacts between ships of the given fleet within the given
+	 * horizon, sorted by time.
+	 *
+	 * @param	fleet
+	 * 			The fleet to query.
+	 * @param	horizon
+	 * 			The time horizon over which ships are swept.
+	 * @return	| result == new BroadPhase(fleet).getCollisionsWithin(horizon).stream()
+	 * @throws	NullPointerException
+	 * 			| fleet == null
+	 * @throws	IllegalDurationException
+	 * 			| ! isValidHorizon(horizon)
+	 */
+	public static Stream<Impact> collisionsWithin(ShipFleet fleet, double horizon)
+			throws NullPointerException, IllegalDurationException {
+		return new BroadPhase(fleet).getCollisionsWithin(horizon).stream();
+	}
+
+	/**
+	 * Compute the swept bounding boxes of all ships of the fleet over the
+	 * given horizon and sort the ships by the lower X-bound of their box.
+	 *
+	 * @return	The number of ships in the fleet.
+	 */
+	private int sweep(double horizon) {
+		final int n = this.fleet.getNbShips();
+		if (this.order.length < n) {
+			int capacity = Math.max(n, 2 * this.order.length);
+			this.order = new int[capacity];
+			this.minX = new double[capacity];
+			this.maxX = new double[capacity];
+			this.minY = new double[capacity];
+			this.maxY = new double[capacity];
+		}
+		final double[] x = this.fleet.getPositionsX(), y = this.fleet.getPositionsY();
+		final double[] vx = this.fleet.getVelocitiesX(), vy = this.fleet.getVelocitiesY();
+		final double[] r = this.fleet.getRadii();
+		for (int i = 0; i < n; i++) {
+			double dx = horizon * vx[i], dy = horizon * vy[i];
+			this.minX[i] = x[i] + Math.min(0.0, dx) - r[i];
+			this.maxX[i] = x[i] + Math.max(0.0, dx) + r[i];
+			this.minY[i] = y[i] + Math.min(0.0, dy) - r[i];
+			this.maxY[i] = y[i] + Math.max(0.0, dy) + r[i];
+			this.order[i] = i;
+		}
+		sort(this.order, this.minX, 0, n - 1);
+		return n;
+	}
+
+	/**
+	 * Copy the swept bounding boxes of the ships computed by the last query
+	 * into the given arrays, by index of the ship, and the indices of the
+	 * ships sorted by the lower X-bound of their box into the given order.
+	 *
+	 * @return	The number of ships swept by the last query.
+	 */
+	int copySweptBoxes(double[] minX, double[] maxX, double[] minY, double[] maxY, int[] order) {
+		final int n = Math.min(this.fleet.getNbShips(), this.order.length);
+		System.arraycopy(this.minX, 0, minX, 0, n);
+		System.arraycopy(this.maxX, 0, maxX, 0, n);
+		System.arraycopy(this.minY, 0, minY, 0, n);
+		System.arraycopy(this.maxY, 0, maxY, 0, n);
+		System.arraycopy(this.order, 0, order, 0, n);
+		return n;
+	}
+
+	/**
+	 * Sort the given indices between the given bounds, both inclusive, by
+	 * the value of the given keys at those indices.
+	 */
+	static void sort(int[] order, double[] key, int low, int high) {
+		while (high - low > INSERTION_SORT_THRESHOLD) {
+			int mid = (low + high) >>> 1;
+			double pivot = median(key[order[low]], key[order[mid]], key[order[high]]);
+			int i = low, j = high;
+			while (i <= j) {
+				while (key[order[i]] < pivot)
+					i++;
+				while (key[order[j]] > pivot)
+					j--;
+				if (i <= j) {
+					int swap = order[i];
+					order[i++] = order[j];
+					order[j--] = swap;
+				}
+			}
+			// Recurse into the smaller part to bound the depth of the recursion.
+			if (j - low < high - i) {
+				sort(order, key, low, j);
+				low = i;
+			}
+			else {
+				sort(order, key, i, high);
+				high = j;
+			}
+		}
+		for (int i = low + 1; i <= high; i++) {
+			int current = order[i];
+			double value = key[current];
+			int j = i - 1;
+			while ((j >= low) && (key[order[j]] > value)) {
+				order[j + 1] = order[j];
+				j--;
+			}
+			order[j + 1] = current;
+		}
+	}
+
+	/**
+	 * Return the median of the three given values.
+	 */
+	private static double median(double a, double b, double c) {
+		return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+	}
+
+	/**
+	 * Variable registering the indices of the ships sorted by the lower
+	 * X-bound of their swept bounding box.
+	 */
+	private int[] order = new int[0];
+
+	/**
+	 * Variables registering the bounds of the swept bounding boxes of the ships.
+	 */
+	private double[] minX = new double[0], maxX = new double[0], minY = new double[0], maxY = new double[0];
+
+	/**
+	 * Variable registering the size of the ranges sorted by insertion sort.
+	 */
+	private static final int INSERTION_SORT_THRESHOLD = 16;
+
+}
@@ -0,0 +1,177 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of pools of byte buffers, reused to avoid allocating a buffer
+ * for each packet.
+ *
+ * A buffer pool hands out little-endian buffers with a capacity that is a
+ * power of two. Buffers returned to the pool are kept by capacity, up to a
+ * maximum number per capacity, and handed out again by later requests for
+ * that capacity; buffers beyond that maximum are left to the garbage
+ * collector.
+ *
+ * A buffer pool is safe for use by several threads at once. A buffer must
+ * not be used after it has been released.
+ *
+ * @invar	The maximum number of pooled buffers per capacity is not negative.
+ * 			| getMaximumPooled() >= 0
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class BufferPool {
+
+	/**
+	 * Initialize this new buffer pool.
+	 *
+	 * @param	direct
+	 * 			Whether the buffers of this pool are direct buffers.
+	 * @param	maximumPooled
+	 * 			The maximum number of buffers kept per capacity.
+	 * @post	| new.isDirect() == direct && new.getMaximumPooled() == maximumPooled
+	 * @throws	IllegalArgumentException
+	 * 			| maximumPooled < 0
+	 */
+	public BufferPool(boolean direct, int maximumPooled) throws IllegalArgumentException {
+		if (maximumPooled < 0)
+			throw new IllegalArgumentException("Negative number of buffers: " + maximumPooled);
+		this.direct = direct;
+		this.maximumPooled = maximumPooled;
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		ConcurrentLinkedQueue<ByteBuffer>[] buckets = new ConcurrentLinkedQueue[BUCKETS];
+		for (int bucket = 0; bucket < BUCKETS; bucket++)
+			buckets[bucket] = new ConcurrentLinkedQueue<ByteBuffer>();
+		this.buckets = buckets;
+	}
+
+	/**
+	 * Check whether the buffers of this pool are direct buffers.
+	 */
+	@Basic @Immutable
+	public boolean isDirect() {
+		return this.direct;
+	}
+
+	/**
+	 * Variable registering whether the buffers of this pool are direct buffers.
+	 */
+	private final boolean direct;
+
+	/**
+	 * Return the maximum number of buffers kept per capacity.
+	 */
+	@Basic @Immutable
+	public int getMaximumPooled() {
+		return this.maximumPooled;
+	}
+
+	/**
+	 * Variable registering the maximum number of buffers kept per capacity.
+	 */
+	private final int maximumPooled;
+
+	/**
+	 * Return a cleared little-endian buffer with at least the given capacity.
+	 *
+	 * @param	capacity
+	 * 			The minimum capacity of the buffer.
+	 * @return	| result.capacity() >= capacity && result.position() == 0
+	 * 			|	&& result.limit() == result.capacity()
+	 * 			|	&& result.order() == ByteOrder.LITTLE_ENDIAN
+	 * @throws	IllegalArgumentException
+	 * 			| capacity < 0 || capacity > MAX_CAPACITY
+	 */
+	public ByteBuffer acquire(int capacity) throws IllegalArgumentException {
+		if ((capacity < 0) || (capacity > MAX_CAPACITY))
+			throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		int bucket = getBucket(capacity);
+		ByteBuffer buffer = this.buckets[bucket].poll();
+		if (buffer != null) {
+			this.sizes.decrementAndGet(bucket);
+			this.reuses.increment();
+			buffer.clear();
+			// A released buffer may have been left in another byte order.
+			return buffer.order(ByteOrder.LITTLE_ENDIAN);
+		}
+		this.allocations.increment();
+		buffer = this.direct ? ByteBuffer.allocateDirect(1 << bucket) : ByteBuffer.allocate(1 << bucket);
+		return buffer.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Return the given buffer, acquired from this pool, to this pool.
+	 *
+	 * @param	buffer
+	 * 			The buffer to return.
+	 * @throws	NullPointerException
+	 * 			| buffer == null
+	 */
+	public void release(ByteBuffer buffer) throws NullPointerException {
+		int capacity = buffer.capacity();
+		// Buffers that were not handed out by a pool of this kind are not kept.
+		if ((Integer.bitCount(capacity) != 1) || (buffer.isDirect() != this.direct))
+			return;
+		int bucket = Integer.numberOfTrailingZeros(capacity);
+		if (this.sizes.incrementAndGet(bucket) > this.maximumPooled) {
+			this.sizes.decrementAndGet(bucket);
+			return;
+		}
+		this.buckets[bucket].offer(buffer);
+	}
+
+	/**
+	 * Return the index of the bucket of buffers with the smallest power of
+	 * two not below the given capacity.
+	 */
+	private static int getBucket(int capacity) {
+		return (capacity <= 1) ? 0 : 32 - Integer.numberOfLeadingZeros(capacity - 1);
+	}
+
+	/**
+	 * Return the number of buffers this pool has allocated.
+	 */
+	public long getNbAllocations() {
+		return this.allocations.sum();
+	}
+
+	/**
+	 * Return the number of times this pool handed out a released buffer again.
+	 */
+	public long getNbReuses() {
+		return this.reuses.sum();
+	}
+
+	/**
+	 * Variables registering the statistics of this pool.
+	 */
+	private final LongAdder allocations = new LongAdder(), reuses = new LongAdder();
+
+	/**
+	 * Variable referencing the released buffers of this pool, by the
+	 * logarithm of their capacity.
+	 */
+	private final ConcurrentLinkedQueue<ByteBuffer>[] buckets;
+
+	/**
+	 * Variable registering the number of released buffers of each bucket.
+	 */
+	private final AtomicIntegerArray sizes = new AtomicIntegerArray(BUCKETS);
+
+	/**
+	 * Variable registering the number of buckets of a pool.
+	 */
+	private static final int BUCKETS = 31;
+
+	/**
+	 * Variable registering the largest capacity a buffer of a pool can be asked for.
+	 */
+	public static final int MAX_CAPACITY = 1 << (BUCKETS - 1);
+
+}
@@ -0,0 +1,118 @@
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of predicted collisions between two ships of a fleet.
+ * Each collision pair involves the indices of both ships and the time
+ * until they collide.
+ *
+ * @invar	The index of the first ship is below the index of the second ship.
+ * 			| getShipA() < getShipB()
+ * @invar	The time of each collision pair is not negative.
+ * 			| getTime() >= 0.0
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+@Value
+public class CollisionPair {
+
+	/**
+	 * Initialize this new collision pair with the given ships and given time.
+	 *
+	 * @param	shipA
+	 * 			The index of one of the colliding ships.
+	 * @param	shipB
+	 * 			The index of the other colliding ship.
+	 * @param	time
+	 * 			The time until both ships collide.
+	 * @post	The first ship of this collision pair is the ship with the smallest index.
+	 * 			| new.getShipA() == Math.min(shipA, shipB)
+	 * @post	The second ship of this collision pair is the ship with the largest index.
+	 * 			| new.getShipB() == Math.max(shipA, shipB)
+	 * @post	| new.getTime() == time
+	 * @throws	IllegalArgumentException
+	 * 			Both indices are equal or the given time is negative or NaN.
+	 * 			| shipA == shipB || ! (time >= 0.0)
+	 */
+	public CollisionPair(int shipA, int shipB, double time) throws IllegalArgumentException {
+		if (shipA == shipB)
+			throw new IllegalArgumentException("A ship cannot collide with itself");
+		if (! (time >= 0.0))
+			throw new IllegalArgumentException("Illegal collision time: " + time);
+		this.shipA = Math.min(shipA, shipB);
+		this.shipB = Math.max(shipA, shipB);
+		this.time = time;
+	}
+
+	/**
+	 * Return the index of the first ship of this collision pair.
+	 */
+	@Basic @Immutable
+	public int getShipA() {
+		return this.shipA;
+	}
+
+	/**
+	 * Variable registering the index of the first ship of this collision pair.
+	 */
+	private final int shipA;
+
+	/**
+	 * Return the index of the second ship of this collision pair.
+	 */
+	@Basic @Immutable
+	public int getShipB() {
+		return this.shipB;
+	}
+
+	/**
+	 * Variable registering the index of the second ship of this collision pair.
+	 */
+	private final int shipB;
+
+	/**
+	 * Return the time until the ships of this collision pair collide.
+	 */
+	@Basic @Immutable
+	public double getTime() {
+		return this.time;
+	}
+
+	/**
+	 * Variable registering the time until the ships of this collision pair collide.
+	 */
+	private final double time;
+
+	/**
+	 * Check whether this collision pair is equal to the given object.
+	 *
+	 * @return	True if and only if the given object is a collision pair
+	 * 			with the same ships and the same time.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (! (other instanceof CollisionPair))
+			return false;
+		CollisionPair pair = (CollisionPair) other;
+		return (this.shipA == pair.shipA) && (this.shipB == pair.shipB)
+				&& (Double.compare(this.time, pair.time) == 0);
+	}
+
+	/**
+	 * Return the hash code for this collision pair.
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * (31 * this.shipA + this.shipB) + Double.hashCode(this.time);
+	}
+
+	/**
+	 * Return a textual representation of this collision pair.
+	 */
+	@Override
+	public String toString() {
+		return "(" + this.shipA + ", " + this.shipB + ") at " + this.time;
+	}
+
+}
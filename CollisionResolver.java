@@ -0,0 +1,451 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of resolvers changing the velocities of colliding ships of a
+ * fleet by elastic impulses.
+ *
+ * The mass of each ship is taken to be its radius. When two ships touch and
+ * approach each other, the resolver exchanges momentum between them along
+ * the line through their centres, such that they separate with the same
+ * total momentum and kinetic energy. A velocity that would exceed the
+ * maximum velocity is reduced to it in the same direction, as by thrust.
+ *
+ * Contacts are resolved in batches. The ships of a batch of contacts are
+ * partitioned into islands, ships that touch directly or through other
+ * ships of the batch. Each island is resolved on its own by passes over its
+ * contacts in the order they were given, until no contact of the island
+ * approaches any more or the maximum number of passes is reached. Islands
+ * share no ships, so they are resolved on the workers of the executor at
+ * once; a batch thus produces bit-identical velocities whatever the number
+ * of threads of the executor.
+ *
+ * The ships of each contact are expected to touch, as after a collision
+ * scheduler or an adaptive stepper advanced the fleet to their collision.
+ * Predictions made before the velocities changed are no longer valid; a
+ * collision scheduler must be told so through its invalidate method.
+ *
+ * A collision resolver is not safe for use by several threads at once.
+ *
+ * @invar	The maximum number of passes of each collision resolver is strictly positive.
+ * 			| getMaximumPasses() > 0
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class CollisionResolver {
+
+	/**
+	 * Initialize this new collision resolver for the given fleet with the
+	 * given maximum number of passes, resolving islands on the given executor.
+	 *
+	 * @param	fleet
+	 * 			The fleet for this new resolver.
+	 * @param	maximumPasses
+	 * 			The maximum number of passes over the contacts of an island.
+	 * @param	executor
+	 * 			The executor resolving the islands.
+	 * @post	| new.getFleet() == fleet && new.getMaximumPasses() == maximumPasses
+	 * @post	| new.getExecutor() == executor
+	 * @throws	NullPointerException
+	 * 			| fleet == null || executor == null
+	 * @throws	IllegalArgumentException
+	 * 			| maximumPasses <= 0
+	 */
+	public CollisionResolver(ShipFleet fleet, int maximumPasses, ExecutorService executor)
+			throws NullPointerException, IllegalArgumentException {
+		if ((fleet == null) || (executor == null))
+			throw new NullPointerException();
+		if (maximumPasses <= 0)
+			throw new IllegalArgumentException("Illegal number of passes: " + maximumPasses);
+		this.fleet = fleet;
+		this.maximumPasses = maximumPasses;
+		this.executor = executor;
+	}
+
+	/**
+	 * Return the fleet of this collision resolver.
+	 */
+	@Basic @Immutable
+	public ShipFleet getFleet() {
+		return this.fleet;
+	}
+
+	/**
+	 * Variable referencing the fleet of this collision resolver.
+	 */
+	private final ShipFleet fleet;
+
+	/**
+	 * Return the maximum number of passes over the contacts of an island.
+	 */
+	@Basic @Immutable
+	public int getMaximumPasses() {
+		return this.maximumPasses;
+	}
+
+	/**
+	 * Variable registering the maximum number of passes over the contacts of an island.
+	 */
+	private final int maximumPasses;
+
+	/**
+	 * Return the executor resolving the islands of this collision resolver.
+	 */
+	@Basic @Immutable
+	public ExecutorService getExecutor() {
+		return this.executor;
+	}
+
+	/**
+	 * Variable referencing the executor resolving the islands of this collision resolver.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * Exchange an elastic impulse between the given ships, if they approach
+	 * each other.
+	 *
+	 * @param	ship
+	 * 			The first ship.
+	 * @param	other
+	 * 			The second ship.
+	 * @return	True if and only if the ships approached each other along
+	 * 			the line through their centres, and their velocities changed.
+	 * @effect	If the ships approach each other, each ship is given its
+	 * 			velocity after an elastic collision with masses equal to the
+	 * 			radii, reduced to the maximum velocity if it exceeds it.
+	 * 			| if (result)
+	 * 			|	then ship.setVelocity(...) && other.setVelocity(...)
+	 * @throws	NullPointerException
+	 * 			| ship == null || other == null
+	 */
+	public static boolean bounce(Ship ship, Ship other) throws NullPointerException {
+		double[] velocities = { ship.getVelocityX(), ship.getVelocityY(), other.getVelocityX(), other.getVelocityY() };
+		if (! impulse(other.getPositionX() - ship.getPositionX(), other.getPositionY() - ship.getPositionY(),
+				ship.getRadius(), other.getRadius(), velocities))
+			return false;
+		ship.setVelocity(velocities[0], velocities[1]);
+		other.setVelocity(velocities[2], velocities[3]);
+		return true;
+	}
+
+	/**
+	 * Exchange an elastic impulse between the ships at the given indices,
+	 * if they approach each other.
+	 *
+	 * @param	a
+	 * 			The index of the first ship.
+	 * @param	b
+	 * 			The index of the second ship.
+	 * @return	True if and only if the ships approached each other along
+	 * 			the line through their centres, and their velocities changed.
+	 * @effect	As by bounce on both ships.
+	 * 			| result == bounce(getFleet().toShip(a), getFleet().toShip(b))
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! getFleet().isValidIndex(a) || ! getFleet().isValidIndex(b)
+	 */
+	public boolean resolve(int a, int b) throws IndexOutOfBoundsException {
+		checkIndex(a);
+		checkIndex(b);
+		return resolve(a, b, new double[4]);
+	}
+
+	/**
+	 * Resolve the collisions of the given impacts, in their order within
+	 * each island.
+	 *
+	 * @param	impacts
+	 * 			The impacts to resolve.
+	 * @return	The number of impulses exchanged.
+	 * 			| result == resolveAll(shipsA, shipsB, impacts.size())
+	 * 			| 	with shipsA[i] == impacts.get(i).getShipA()
+	 * 			| 	and shipsB[i] == impacts.get(i).getShipB()
+	 * @throws	NullPointerException
+	 * 			| impacts == null
+	 */
+	public int resolveAll(List<Impact> impacts)
+			throws NullPointerException, IndexOutOfBoundsException, InterruptedException {
+		int count = impacts.size();
+		int[] shipsA = new int[count], shipsB = new int[count];
+		for (int i = 0; i < count; i++) {
+			shipsA[i] = impacts.get(i).getShipA();
+			shipsB[i] = impacts.get(i).getShipB();
+		}
+		return resolveAll(shipsA, shipsB, count);
+	}
+
+	/**
+	 * Resolve the given number of contacts between the ships at the given
+	 * indices, island by island.
+	 *
+	 * @param	shipsA
+	 * 			The index of the first ship of each contact.
+	 * @param	shipsB
+	 * 			The index of the second ship of each contact.
+	 * @param	count
+	 * 			The number of contacts.
+	 * @effect	The contacts of each island are passed over in their order,
+	 * 			resolving each, until a pass exchanges no impulse or until
+	 * 			getMaximumPasses() passes have been made.
+	 * 			| for each island:
+	 * 			|	for pass in 1..getMaximumPasses() while an impulse was exchanged:
+	 * 			|		for each contact (a, b) of the island: resolve(a, b)
+	 * @return	The number of impulses exchanged.
+	 * @throws	NullPointerException
+	 * 			| shipsA == null || shipsB == null
+	 * @throws	IllegalArgumentException
+	 * 			| count < 0 || shipsA.length < count || shipsB.length < count
+	 * @throws	IndexOutOfBoundsException
+	 * 			A contact involves an index at which the fleet has no ship.
+	 * @throws	InterruptedException
+	 * 			The calling thread was interrupted while waiting for the islands.
+	 */
+	public int resolveAll(int[] shipsA, int[] shipsB, int count)
+			throws NullPointerException, IllegalArgumentException, IndexOutOfBoundsException, InterruptedException {
+		if ((count < 0) || (shipsA.length < count) || (shipsB.length < count))
+			throw new IllegalArgumentException("Illegal number of contacts: " + count);
+		for (int i = 0; i < count; i++) {
+			checkIndex(shipsA[i]);
+			checkIndex(shipsB[i]);
+		}
+		int[] contacts = islands(shipsA, shipsB, count);
+		int nbIslands = this.nbIslands;
+		if (nbIslands == 0)
+			return 0;
+		// Islands are grouped into tasks of about equal numbers of contacts.
+		int nbTasks = Math.min(nbIslands, MAX_TASKS);
+		List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>(nbTasks);
+		int first = 0;
+		for (int task = 0; task < nbTasks; task++) {
+			long end = (long) count * (task + 1) / nbTasks;
+			int last = first + 1;
+			while ((last < nbIslands) && (this.islandStart[last] < end))
+				last++;
+			if (task == nbTasks - 1)
+				last = nbIslands;
+			final int low = first, high = last;
+			tasks.add(() -> resolveIslands(shipsA, shipsB, contacts, low, high));
+			first = last;
+			if (first == nbIslands)
+				break;
+		}
+		int impulses = 0;
+		for (Future<Integer> future : this.executor.invokeAll(tasks)) {
+			try {
+				impulses += future.get();
+			}
+			catch (ExecutionException exc) {
+				Throwable cause = exc.getCause();
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw new AssertionError(cause);
+			}
+		}
+		return impulses;
+	}
+
+	/**
+	 * Partition the given contacts into islands and return the indices of
+	 * the contacts island by island, in their order within each island.
+	 * The islands are ordered by their first contact; the index of the
+	 * first contact of each island is registered in islandStart.
+	 */
+	private int[] islands(int[] shipsA, int[] shipsB, int count) {
+		int n = this.fleet.getNbShips();
+		if (this.parent.length < n) {
+			this.parent = new int[n];
+			Arrays.fill(this.parent, -1);
+		}
+		final int[] parent = this.parent;
+		for (int i = 0; i < count; i++) {
+			int a = shipsA[i], b = shipsB[i];
+			if (parent[a] < 0)
+				parent[a] = a;
+			if (parent[b] < 0)
+				parent[b] = b;
+			int rootA = find(a), rootB = find(b);
+			// The smaller root is kept, such that the islands do not depend on hashing or timing.
+			if (rootA < rootB)
+				parent[rootB] = rootA;
+			else if (rootB < rootA)
+				parent[rootA] = rootB;
+		}
+		// Number the islands in the order of their first contact and count their contacts.
+		int[] island = new int[count];
+		int[] sizes = new int[count];
+		int nbIslands = 0;
+		for (int i = 0; i < count; i++) {
+			int root = find(shipsA[i]);
+			int number = -1;
+			if (parent[root] == root) {
+				// The root is marked with the number of its island, encoded below -1.
+				number = nbIslands++;
+				parent[root] = -2 - number;
+			}
+			else
+				number = -2 - parent[root];
+			island[i] = number;
+			sizes[number]++;
+		}
+		this.nbIslands = nbIslands;
+		this.islandStart = new int[nbIslands + 1];
+		for (int k = 0; k < nbIslands; k++)
+			this.islandStart[k + 1] = this.islandStart[k] + sizes[k];
+		int[] next = Arrays.copyOf(this.islandStart, nbIslands);
+		int[] contacts = new int[count];
+		for (int i = 0; i < count; i++)
+			contacts[next[island[i]]++] = i;
+		// Leave the forest clear for the next batch.
+		for (int i = 0; i < count; i++) {
+			parent[shipsA[i]] = -1;
+			parent[shipsB[i]] = -1;
+		}
+		return contacts;
+	}
+
+	/**
+	 * Return the root of the ship at the given index in the current forest
+	 * of islands, halving the path to it.
+	 */
+	private int find(int i) {
+		final int[] parent = this.parent;
+		while ((parent[i] >= 0) && (parent[i] != i)) {
+			if (parent[parent[i]] >= 0)
+				parent[i] = parent[parent[i]];
+			else
+				return parent[i];
+			i = parent[i];
+		}
+		return i;
+	}
+
+	/**
+	 * Resolve the islands between the given bounds and return the number of
+	 * impulses exchanged.
+	 */
+	private int resolveIslands(int[] shipsA, int[] shipsB, int[] contacts, int low, int high) {
+		double[] velocities = new double[4];
+		int impulses = 0;
+		for (int island = low; island < high; island++) {
+			int start = this.islandStart[island], end = this.islandStart[island + 1];
+			for (int pass = 0; pass < this.maximumPasses; pass++) {
+				int exchanged = 0;
+				for (int k = start; k < end; k++) {
+					int contact = contacts[k];
+					if (resolve(shipsA[contact], shipsB[contact], velocities))
+						exchanged++;
+				}
+				impulses += exchanged;
+				if (exchanged == 0)
+					break;
+			}
+		}
+		return impulses;
+	}
+
+	/**
+	 * Exchange an elastic impulse between the ships at the given indices,
+	 * using the given array as scratch space.
+	 */
+	private boolean resolve(int a, int b, double[] velocities) {
+		final double[] x = this.fleet.getPositionsX(), y = this.fleet.getPositionsY();
+		final double[] vx = this.fleet.getVelocitiesX(), vy = this.fleet.getVelocitiesY();
+		final double[] r = this.fleet.getRadii();
+		velocities[0] = vx[a];
+		velocities[1] = vy[a];
+		velocities[2] = vx[b];
+		velocities[3] = vy[b];
+		if (! impulse(x[b]-x[a], y[b]-y[a], r[a], r[b], velocities))
+			return false;
+		vx[a] = velocities[0];
+		vy[a] = velocities[1];
+		vx[b] = velocities[2];
+		vy[b] = velocities[3];
+		return true;
+	}
+
+	/**
+	 * Exchange an elastic impulse between two ships with the given distance
+	 * between their centres and the given radii, of which the velocities
+	 * are stored in the given array as xa, ya, xb, yb, and return whether
+	 * they approached each other.
+	 */
+	static boolean impulse(double dx, double dy, double ra, double rb, double[] velocities) {
+		double distance = Math.sqrt(dx*dx + dy*dy);
+		if (! (distance > 0.0))
+			return false;
+		double nx = dx / distance, ny = dy / distance;
+		double approach = (velocities[2]-velocities[0])*nx + (velocities[3]-velocities[1])*ny;
+		if (! (approach < 0.0))
+			return false;
+		// For an elastic collision the impulse is 2 * approach / (1/ra + 1/rb).
+		double impulse = -2.0 * approach * ra * rb / (ra + rb);
+		velocities[0] -= impulse / ra * nx;
+		velocities[1] -= impulse / ra * ny;
+		velocities[2] += impulse / rb * nx;
+		velocities[3] += impulse / rb * ny;
+		limit(velocities, 0);
+		limit(velocities, 2);
+		return true;
+	}
+
+	/**
+	 * Reduce the velocity stored in the given array at the given offset to
+	 * the maximum velocity, in the same direction, if it exceeds it. The
+	 * result is a valid velocity even where scaling by the ratio of the
+	 * maximum to the magnitude rounds above the maximum.
+	 */
+	private static void limit(double[] velocities, int offset) {
+		double scale = Ship.getVelocityScale(velocities[offset], velocities[offset + 1], 1.0);
+		if (scale < 1.0) {
+			velocities[offset] *= scale;
+			velocities[offset + 1] *= scale;
+		}
+	}
+
+	/**
+	 * Check whether the fleet of this resolver has a ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! getFleet().isValidIndex(index)
+	 */
+	private void checkIndex(int index) throws IndexOutOfBoundsException {
+		if (! this.fleet.isValidIndex(index))
+			throw new IndexOutOfBoundsException("No ship at index " + index);
+	}
+
+	/**
+	 * Variable registering, for each ship, its parent in the forest of
+	 * islands, or -1 if it is not part of the current batch.
+	 */
+	private int[] parent = new int[0];
+
+	/**
+	 * Variable registering the number of islands of the current batch.
+	 */
+	private int nbIslands;
+
+	/**
+	 * Variable registering, for each island of the current batch, the
+	 * index of its first contact; the last element registers the number
+	 * of contacts.
+	 */
+	private int[] islandStart = new int[1];
+
+	/**
+	 * Variable registering the maximum number of tasks of a batch.
+	 */
+	private static final int MAX_TASKS = 64;
+
+}
@@ -0,0 +1,611 @@
+import java.util.PriorityQueue;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of event-driven simulations of fleets of ships.
+ *
+ * A collision scheduler predicts the times at which the ships of its fleet
+ * collide and keeps those predictions in a priority queue. Instead of moving
+ * the fleet in fixed steps, it moves the fleet straight to the next predicted
+ * collision.
+ *
+ * Each ship has a version that is incremented whenever its motion changes.
+ * Every prediction records the versions of both ships at the time it was
+ * made; a prediction whose versions no longer match is stale and is skipped
+ * when it reaches the head of the queue. After a collision or a change of
+ * velocity only the predictions of the ships involved are recomputed.
+ *
+ * Predictions are only made up to the horizon of the scheduler. When the
+ * simulation reaches the end of the current horizon, all predictions are
+ * rebuilt for the next one by a broad phase.
+ *
+ * Between rebuilds the scheduler keeps, for each ship, a bounding box of its
+ * path up to the end of the horizon. When the motion of a ship changes, its
+ * box is swept again from its current position, and its collisions are only
+ * predicted with ships whose boxes overlap that box. Boxes are kept sorted
+ * by their lower X-bound as of the last rebuild; boxes swept since then are
+ * checked one by one, and are sorted in again once there are many of them.
+ * An event thus costs time logarithmic in the number of ships plus the
+ * number of ships near the path of the ships involved.
+ *
+ * A scheduler may confine its fleet to a world. The times at which ships
+ * reach the walls of the world are then predicted as well and kept in the
+ * same queue. When a ship reaches a wall, the scheduler bounces it off that
+ * wall and continues; such collisions are counted but not returned.
+ *
+ * @invar	The time of each collision scheduler is not negative.
+ * 			| getTime() >= 0.0
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class CollisionScheduler {
+
+	/**
+	 * Initialize this new collision scheduler for the given fleet with
+	 * the given horizon.
+	 *
+	 * @param	fleet
+	 * 			The fleet to simulate.
+	 * @param	horizon
+	 * 			The duration over which collisions are predicted at once.
+	 * @post	| new.getFleet() == fleet
+	 * @post	| new.getHorizon() == horizon
+	 * @post	| new.getTime() == 0.0
+	 * @throws	NullPointerException
+	 * 			| fleet == null
+	 * @throws	IllegalDurationException
+	 * 			The given horizon is not a valid, strictly positive horizon.
+	 * 			| ! BroadPhase.isValidHorizon(horizon) || horizon == 0.0
+	 */
+	public CollisionScheduler(ShipFleet fleet, double horizon)
+			throws NullPointerException, IllegalDurationException {
+		this(fleet, horizon, null);
+	}
+
+	/**
+	 * Initialize this new collision scheduler for the given fleet with
+	 * the given horizon, confining the fleet to the given world.
+	 *
+	 * @param	fleet
+	 * 			The fleet to simulate, of which all ships are expected to lie
+	 * 			within the given world.
+	 * @param	horizon
+	 * 			The duration over which collisions are predicted at once.
+	 * @param	world
+	 * 			The world to confine the fleet to, or null if the fleet moves
+	 * 			in an unbounded plane.
+	 * @post	| new.getFleet() == fleet
+	 * @post	| new.getHorizon() == horizon
+	 * @post	| new.getWorld() == world
+	 * @post	| new.getTime() == 0.0 && new.getNbWallCollisions() == 0
+	 * @throws	NullPointerException
+	 * 			| fleet == null
+	 * @throws	IllegalDurationException
+	 * 			The given horizon is not a valid, strictly positive horizon.
+	 * 			| ! BroadPhase.isValidHorizon(horizon) || horizon == 0.0
+	 * @throws	IllegalArgumentException
+	 * 			Some ship of the fleet does not fit in the given world.
+	 * 			| world != null && for some index in 0..fleet.getNbShips()-1:
+	 * 			|	! world.canContain(fleet.getRadius(index))
+	 */
+	public CollisionScheduler(ShipFleet fleet, double horizon, World world)
+			throws NullPointerException, IllegalDurationException, IllegalArgumentException {
+		if (! BroadPhase.isValidHorizon(horizon) || (horizon == 0.0))
+			throw new IllegalDurationException(horizon);
+		this.broadPhase = new BroadPhase(fleet);
+		this.horizon = horizon;
+		this.world = world;
+		rebuild();
+	}
+
+	/**
+	 * Return the fleet of this collision scheduler.
+	 */
+	@Basic @Immutable
+	public ShipFleet getFleet() {
+		return this.broadPhase.getFleet();
+	}
+
+	/**
+	 * Variable referencing the broad phase used to rebuild all predictions.
+	 */
+	private final BroadPhase broadPhase;
+
+	/**
+	 * Return the horizon of this collision scheduler.
+	 */
+	@Basic @Immutable
+	public double getHorizon() {
+		return this.horizon;
+	}
+
+	/**
+	 * Variable registering the horizon of this collision scheduler.
+	 */
+	private final double horizon;
+
+	/**
+	 * Return the world to which the fleet of this collision scheduler is
+	 * confined, or null if it moves in an unbounded plane.
+	 */
+	@Basic @Immutable
+	public World getWorld() {
+		return this.world;
+	}
+
+	/**
+	 * Variable referencing the world to which the fleet is confined.
+	 */
+	private final World world;
+
+	/**
+	 * Return the number of times a ship bounced off a wall of the world.
+	 */
+	@Basic
+	public long getNbWallCollisions() {
+		return this.nbWallCollisions;
+	}
+
+	/**
+	 * Variable registering the number of times a ship bounced off a wall.
+	 */
+	private long nbWallCollisions;
+
+	/**
+	 * Return the current time of this collision scheduler.
+	 */
+	@Basic
+	public double getTime() {
+		return this.time;
+	}
+
+	/**
+	 * Variable registering the current time of this collision scheduler.
+	 */
+	private double time;
+
+	/**
+	 * Variable registering the time up to which collisions are predicted.
+	 */
+	private double horizonEnd;
+
+	/**
+	 * Advance the fleet of this collision scheduler to its next collision,
+	 * or by the given duration if no collision happens within that duration.
+	 *
+	 * @param	duration
+	 * 			The maximum duration to advance.
+	 * @effect	The fleet is moved up to the time of the next collision or
+	 * 			up to the given duration, whichever comes first. Ships that
+	 * 			reach a wall of the world on the way are bounced off it.
+	 * @return	The next collision, of which the time is the time of this
+	 * 			scheduler at which it happens, or null if no collision happens
+	 * 			within the given duration. The caller is expected to resolve a
+	 * 			returned collision by changing the velocity of its ships; the
+	 * 			predictions of both ships are recomputed on the next advance.
+	 * 			A collision that is not resolved is reported again immediately.
+	 * @throws	IllegalDurationException
+	 * 			The given duration is not a valid duration.
+	 * 			| ! Ship.isValidDuration(duration)
+	 * @throws	IllegalArgumentException
+	 * 			Some ship of the fleet does not fit in the world of this
+	 * 			scheduler when all predictions are recomputed, as by rebuild().
+	 */
+	public CollisionPair advance(double duration) throws IllegalDurationException, IllegalArgumentException {
+		if (! Ship.isValidDuration(duration))
+			throw new IllegalDurationException(duration);
+		if (getFleet().getNbShips() != this.versions.length)
+			rebuild();
+		repredictCollided();
+		double target = this.time + duration;
+		while (true) {
+			Event event = pollValidEvent(Math.min(target, this.horizonEnd));
+			if ((event != null) && (event.shipB < 0)) {
+				moveTo(event.time);
+				bounce(event.shipA, WALLS[-1 - event.shipB]);
+				continue;
+			}
+			if (event != null) {
+				moveTo(event.time);
+				this.collidedA = event.shipA;
+				this.collidedB = event.shipB;
+				return new CollisionPair(event.shipA, event.shipB, event.time);
+			}
+			if (target <= this.horizonEnd) {
+				moveTo(target);
+				return null;
+			}
+			moveTo(this.horizonEnd);
+			rebuild();
+		}
+	}
+
+	/**
+	 * Accelerate the ship at the given index and recompute its predictions.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @param	a
+	 * 			The amount to accelerate.
+	 * @effect	| getFleet().thrust(index, a)
+	 * @effect	| invalidate(index)
+	 */
+	public void thrust(int index, double a) throws IndexOutOfBoundsException {
+		getFleet().thrust(index, a);
+		invalidate(index);
+	}
+
+	/**
+	 * Discard the predictions of the ship at the given index and recompute
+	 * them from its current motion. This method must be invoked whenever the
+	 * velocity or position of that ship is changed outside this scheduler.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! getFleet().isValidIndex(index)
+	 * @throws	IllegalArgumentException
+	 * 			Ships were added to the fleet, of which some does not fit in
+	 * 			the world of this scheduler, as by rebuild().
+	 */
+	public void invalidate(int index) throws IndexOutOfBoundsException, IllegalArgumentException {
+		if (! getFleet().isValidIndex(index))
+			throw new IndexOutOfBoundsException("No ship at index " + index);
+		if (getFleet().getNbShips() != this.versions.length) {
+			rebuild();
+			return;
+		}
+		this.versions[index]++;
+		sweep(index);
+		predict(index, -1);
+		predictWall(index);
+	}
+
+	/**
+	 * Discard all predictions and recompute them for the current horizon.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			Some ship of the fleet does not fit in the world of this scheduler.
+	 * 			| getWorld() != null && for some index in 0..getFleet().getNbShips()-1:
+	 * 			|	! getWorld().canContain(getFleet().getRadius(index))
+	 */
+	public void rebuild() throws IllegalArgumentException {
+		if (this.world != null)
+			for (int index = 0; index < getFleet().getNbShips(); index++)
+				if (! this.world.canContain(getFleet().getRadius(index)))
+					throw new IllegalArgumentException("Ship too large for " + this.world + ": " + index);
+		this.versions = new int[getFleet().getNbShips()];
+		this.events.clear();
+		this.collidedA = this.collidedB = -1;
+		this.horizonEnd = this.time + this.horizon;
+		try {
+			this.broadPhase.forEachCandidatePair(this.horizon, this::predictPair);
+		} catch (IllegalDurationException exc) {
+			// The horizon has been checked on construction.
+			throw new AssertionError(exc);
+		}
+		int n = this.versions.length;
+		if (this.order.length < n) {
+			int capacity = Math.max(n, 2 * this.order.length);
+			this.minX = new double[capacity];
+			this.maxX = new double[capacity];
+			this.minY = new double[capacity];
+			this.maxY = new double[capacity];
+			this.order = new int[capacity];
+			this.sortedMinX = new double[capacity];
+			this.swept = new boolean[capacity];
+			this.sweptShips = new int[capacity];
+		}
+		this.broadPhase.copySweptBoxes(this.minX, this.maxX, this.minY, this.maxY, this.order);
+		sortBoxes();
+		for (int index = 0; index < n; index++)
+			predictWall(index);
+	}
+
+	/**
+	 * Recompute the predictions of the ships of the last reported collision.
+	 */
+	private void repredictCollided() {
+		if (this.collidedA >= 0) {
+			this.versions[this.collidedA]++;
+			this.versions[this.collidedB]++;
+			// Both boxes are swept first, such that the pair itself is not missed.
+			sweep(this.collidedA);
+			sweep(this.collidedB);
+			predict(this.collidedA, -1);
+			predict(this.collidedB, this.collidedA);
+			predictWall(this.collidedA);
+			predictWall(this.collidedB);
+			this.collidedA = this.collidedB = -1;
+		}
+	}
+
+	/**
+	 * Predict the collisions of the ship at the given index with all other
+	 * ships of the fleet within the current horizon, except for the ship
+	 * at the given index to skip. Only ships whose boxes overlap the box of
+	 * the given ship can collide with it within the horizon.
+	 */
+	private void predict(int index, int skip) {
+		final double[] minX = this.minX, maxX = this.maxX, minY = this.minY, maxY = this.maxY;
+		final int[] order = this.order;
+		final double[] sortedMinX = this.sortedMinX;
+		final int n = this.versions.length;
+		// No sorted box ending at or after the lower bound starts before it minus the widest box.
+		for (int k = lowerBound(minX[index] - this.maxWidth); (k < n) && (sortedMinX[k] <= maxX[index]); k++) {
+			int other = order[k];
+			if (! this.swept[other] && (other != index) && (other != skip) && overlap(index, other))
+				predictPair(index, other);
+		}
+		for (int k = 0; k < this.nbSwept; k++) {
+			int other = this.sweptShips[k];
+			if ((other != index) && (other != skip) && overlap(index, other))
+				predictPair(index, other);
+		}
+	}
+
+	/**
+	 * Check whether the boxes of the ships at the given indices overlap.
+	 */
+	private boolean overlap(int shipA, int shipB) {
+		return (this.minX[shipB] <= this.maxX[shipA]) && (this.minX[shipA] <= this.maxX[shipB])
+				&& (this.minY[shipB] <= this.maxY[shipA]) && (this.minY[shipA] <= this.maxY[shipB]);
+	}
+
+	/**
+	 * Return the position of the first sorted box whose lower X-bound is
+	 * not below the given bound.
+	 */
+	private int lowerBound(double bound) {
+		int low = 0, high = this.versions.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (this.sortedMinX[mid] < bound)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
+	}
+
+	/**
+	 * Sweep the box of the ship at the given index from its current position
+	 * up to the end of the current horizon, and check it one by one from now
+	 * on. Once many boxes are checked one by one, all boxes are sorted again.
+	 */
+	private void sweep(int index) {
+		ShipFleet fleet = getFleet();
+		double remaining = this.horizonEnd - this.time;
+		double x = fleet.getPositionsX()[index], y = fleet.getPositionsY()[index];
+		double dx = remaining * fleet.getVelocitiesX()[index], dy = remaining * fleet.getVelocitiesY()[index];
+		double r = fleet.getRadii()[index];
+		this.minX[index] = x + Math.min(0.0, dx) - r;
+		this.maxX[index] = x + Math.max(0.0, dx) + r;
+		this.minY[index] = y + Math.min(0.0, dy) - r;
+		this.maxY[index] = y + Math.max(0.0, dy) + r;
+		if (! this.swept[index]) {
+			this.swept[index] = true;
+			this.sweptShips[this.nbSwept++] = index;
+			if (this.nbSwept > Math.max(MIN_UNSORTED, this.versions.length / 16))
+				sortBoxes();
+		}
+	}
+
+	/**
+	 * Sort the boxes of all ships by their lower X-bound, starting from the
+	 * order of the last sort.
+	 */
+	private void sortBoxes() {
+		final int n = this.versions.length;
+		BroadPhase.sort(this.order, this.minX, 0, n - 1);
+		double maxWidth = 0.0;
+		for (int k = 0; k < n; k++) {
+			int index = this.order[k];
+			this.sortedMinX[k] = this.minX[index];
+			maxWidth = Math.max(maxWidth, this.maxX[index] - this.minX[index]);
+			this.swept[index] = false;
+		}
+		this.maxWidth = maxWidth;
+		this.nbSwept = 0;
+	}
+
+	/**
+	 * Predict the collision of the ships at the given indices and add it
+	 * to the queue if it happens within the current horizon.
+	 */
+	private void predictPair(int shipA, int shipB) {
+		ShipFleet fleet = getFleet();
+		double[] x = fleet.getPositionsX(), y = fleet.getPositionsY();
+		double[] vx = fleet.getVelocitiesX(), vy = fleet.getVelocitiesY();
+		double dx = x[shipB]-x[shipA], dy = y[shipB]-y[shipA];
+		double dvx = vx[shipB]-vx[shipA], dvy = vy[shipB]-vy[shipA];
+		double dt = Ship.getTimeToCollision(dx, dy, dvx, dvy, fleet.getRadii()[shipA]+fleet.getRadii()[shipB]);
+		// Overlapping ships that already move apart do not collide again.
+		if ((dt == 0.0) && (dx*dvx + dy*dvy >= 0.0))
+			return;
+		if (this.time + dt <= this.horizonEnd)
+			this.events.add(new Event(this.time + dt, shipA, shipB,
+					this.versions[shipA], this.versions[shipB]));
+	}
+
+	/**
+	 * Predict the collision of the ship at the given index with the walls
+	 * of the world and add it to the queue if it happens within the current
+	 * horizon. The wall is registered as the second ship of the event, as
+	 * -1 - wall.ordinal().
+	 */
+	private void predictWall(int index) {
+		if (this.world == null)
+			return;
+		ShipFleet fleet = getFleet();
+		double x = fleet.getPositionsX()[index], y = fleet.getPositionsY()[index];
+		double vx = fleet.getVelocitiesX()[index], vy = fleet.getVelocitiesY()[index];
+		double r = fleet.getRadii()[index];
+		World.Wall wall = this.world.getWallCollision(x, y, vx, vy, r);
+		if (wall == null)
+			return;
+		double dt = this.world.getTimeToWallCollision(x, y, vx, vy, r);
+		if (this.time + dt <= this.horizonEnd)
+			this.events.add(new Event(this.time + dt, index, -1 - wall.ordinal(), this.versions[index], 0));
+	}
+
+	/**
+	 * Bounce the ship at the given index off the given wall and recompute
+	 * its predictions.
+	 */
+	private void bounce(int index, World.Wall wall) {
+		ShipFleet fleet = getFleet();
+		double[] vx = fleet.getVelocitiesX(), vy = fleet.getVelocitiesY();
+		if (wall.isVertical())
+			vx[index] = World.bounce(vx[index], wall);
+		else
+			vy[index] = World.bounce(vy[index], wall);
+		this.nbWallCollisions++;
+		this.versions[index]++;
+		sweep(index);
+		predict(index, -1);
+		predictWall(index);
+	}
+
+	/**
+	 * Remove stale events from the head of the queue and remove and return
+	 * the first valid event if it happens no later than the given time.
+	 *
+	 * @return	The first valid event, or null if there is none up to the given time.
+	 */
+	private Event pollValidEvent(double until) {
+		Event event;
+		while (((event = this.events.peek()) != null) && (event.time <= until)) {
+			this.events.poll();
+			if ((event.versionA == this.versions[event.shipA])
+					&& ((event.shipB < 0) || (event.versionB == this.versions[event.shipB])))
+				return event;
+		}
+		return null;
+	}
+
+	/**
+	 * Move the fleet of this scheduler to the given time.
+	 */
+	private void moveTo(double time) {
+		if (time > this.time) {
+			try {
+				getFleet().moveAll(time - this.time);
+			} catch (IllegalDurationException exc) {
+				// The duration is positive and finite.
+				throw new AssertionError(exc);
+			}
+			this.time = time;
+		}
+	}
+
+	/**
+	 * Variable referencing the queue of predicted collisions, ordered by time.
+	 */
+	private final PriorityQueue<Event> events = new PriorityQueue<Event>();
+
+	/**
+	 * Variable referencing the walls of a world by their ordinal.
+	 */
+	private static final World.Wall[] WALLS = World.Wall.values();
+
+	/**
+	 * Variable registering the version of each ship of the fleet.
+	 */
+	private int[] versions;
+
+	/**
+	 * Variables registering the bounds of the box of the path of each ship
+	 * up to the end of the current horizon.
+	 */
+	private double[] minX = new double[0], maxX = new double[0], minY = new double[0], maxY = new double[0];
+
+	/**
+	 * Variable registering the indices of the ships sorted by the lower
+	 * X-bound of their box as of the last sort.
+	 */
+	private int[] order = new int[0];
+
+	/**
+	 * Variable registering the lower X-bounds of the boxes as of the last
+	 * sort, in sorted order.
+	 */
+	private double[] sortedMinX = new double[0];
+
+	/**
+	 * Variable registering the largest width along the X-axis of the boxes
+	 * as of the last sort.
+	 */
+	private double maxWidth;
+
+	/**
+	 * Variable registering whether the box of each ship has been swept
+	 * since the last sort.
+	 */
+	private boolean[] swept = new boolean[0];
+
+	/**
+	 * Variables registering the ships whose box has been swept since the
+	 * last sort, and their number.
+	 */
+	private int[] sweptShips = new int[0];
+
+	private int nbSwept;
+
+	/**
+	 * Variable registering the number of boxes swept since the last sort
+	 * below which they are always checked one by one.
+	 */
+	private static final int MIN_UNSORTED = 32;
+
+	/**
+	 * Variables registering the ships of the last reported collision, or -1
+	 * if their predictions have been recomputed.
+	 */
+	private int collidedA = -1, collidedB = -1;
+
+	/**
+	 * A class of predicted collisions in the queue of a scheduler.
+	 */
+	private static final class Event implements Comparable<Event> {
+
+		private Event(double time, int shipA, int shipB, int versionA, int versionB) {
+			this.time = time;
+			this.shipA = shipA;
+			this.shipB = shipB;
+			this.versionA = versionA;
+			this.versionB = versionB;
+		}
+
+		/**
+		 * Variable registering the time of the scheduler at which this event happens.
+		 */
+		private final double time;
+
+		/**
+		 * Variables registering the ships of this event and their versions
+		 * at the time this event was predicted. For a collision with a
+		 * wall the second ship registers the wall, as -1 - wall.ordinal().
+		 */
+		private final int shipA, shipB, versionA, versionB;
+
+		/**
+		 * Compare this event with the given event by time, and then by ships
+		 * such that simultaneous events are handled in a fixed order.
+		 */
+		@Override
+		public int compareTo(Event other) {
+			int result = Double.compare(this.time, other.time);
+			if (result == 0)
+				result = Integer.compare(Math.min(this.shipA, this.shipB), Math.min(other.shipA, other.shipB));
+			if (result == 0)
+				result = Integer.compare(Math.max(this.shipA, this.shipB), Math.max(other.shipA, other.shipB));
+			return result;
+		}
+
+	}
+
+}
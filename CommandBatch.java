@@ -0,0 +1,167 @@
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of reusable batches of ship commands read from a command log.
+ *
+ * A command batch stores its commands column by column, such that a batch
+ * of any size is three arrays and reading a log allocates nothing per
+ * command. A batch is refilled by each read.
+ *
+ * @invar	The number of commands in each batch does not exceed its capacity.
+ * 			| 0 <= getSize() && getSize() <= getCapacity()
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class CommandBatch {
+
+	/**
+	 * Initialize this new command batch with the given capacity.
+	 *
+	 * @param	capacity
+	 * 			The maximum number of commands in this new batch.
+	 * @post	| new.getCapacity() == capacity && new.getSize() == 0
+	 * @throws	IllegalArgumentException
+	 * 			| capacity <= 0
+	 */
+	public CommandBatch(int capacity) throws IllegalArgumentException {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		this.codes = new byte[capacity];
+		this.ships = new int[capacity];
+		this.values = new double[capacity];
+	}
+
+	/**
+	 * Return the maximum number of commands in this batch.
+	 */
+	@Basic @Immutable
+	public int getCapacity() {
+		return this.codes.length;
+	}
+
+	/**
+	 * Return the number of commands in this batch.
+	 */
+	@Basic
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Return the command at the given position in this batch.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| i < 0 || i >= getSize()
+	 */
+	public ShipCommand getCommand(int i) throws IndexOutOfBoundsException {
+		checkPosition(i);
+		return ShipCommand.fromCode(this.codes[i]);
+	}
+
+	/**
+	 * Return the index of the ship of the command at the given position in this batch.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| i < 0 || i >= getSize()
+	 */
+	public int getShip(int i) throws IndexOutOfBoundsException {
+		checkPosition(i);
+		return this.ships[i];
+	}
+
+	/**
+	 * Return the argument of the command at the given position in this
+	 * batch: a duration, an angle or an amount.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| i < 0 || i >= getSize()
+	 */
+	public double getValue(int i) throws IndexOutOfBoundsException {
+		checkPosition(i);
+		return this.values[i];
+	}
+
+	/**
+	 * Check the given position and throw an exception if it does not refer
+	 * to a command in this batch.
+	 */
+	private void checkPosition(int i) throws IndexOutOfBoundsException {
+		if ((i < 0) || (i >= this.size))
+			throw new IndexOutOfBoundsException("No command at " + i);
+	}
+
+	/**
+	 * Apply the commands of this batch, in order, to the given fleet.
+	 * Commands that would throw an exception, because their ship does not
+	 * exist or their argument or the resulting position is illegal, are
+	 * rejected and leave the fleet unchanged, as they did when they were issued.
+	 *
+	 * @param	fleet
+	 * 			The fleet to apply the commands to.
+	 * @return	The number of rejected commands.
+	 * @throws	NullPointerException
+	 * 			| fleet == null
+	 */
+	public int applyTo(ShipFleet fleet) throws NullPointerException {
+		int rejected = 0;
+		for (int i = 0; i < this.size; i++) {
+			int ship = this.ships[i];
+			double value = this.values[i];
+			if (! fleet.isValidIndex(ship)) {
+				rejected++;
+				continue;
+			}
+			try {
+				switch (ShipCommand.fromCode(this.codes[i])) {
+					case MOVE:
+						fleet.move(ship, value);
+						break;
+					case TURN:
+						fleet.turn(ship, value);
+						break;
+					case THRUST:
+						fleet.thrust(ship, value);
+						break;
+				}
+			}
+			catch (IllegalDurationException | IllegalValueException exc) {
+				rejected++;
+			}
+		}
+		return rejected;
+	}
+
+	/**
+	 * Remove all commands from this batch.
+	 */
+	void clear() {
+		this.size = 0;
+	}
+
+	/**
+	 * Add the command with the given code, ship and value to this batch,
+	 * which is not full.
+	 */
+	void add(byte code, int ship, double value) {
+		this.codes[this.size] = code;
+		this.ships[this.size] = ship;
+		this.values[this.size] = value;
+		this.size++;
+	}
+
+	/**
+	 * Variable registering the number of commands in this batch.
+	 */
+	private int size;
+
+	/**
+	 * Variables registering the codes, ship indices and arguments of the
+	 * commands in this batch.
+	 */
+	private final byte[] codes;
+	private final int[] ships;
+	private final double[] values;
+
+}
@@ -0,0 +1,169 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of readers of command logs written by a CommandLogWriter.
+ *
+ * A reader reads its log in chunks of fixed size into command batches,
+ * such that its memory use does not depend on the size of the log. It can
+ * be positioned at any command of the log in constant time.
+ *
+ * @invar	The position of each reader lies within its log.
+ * 			| 0 <= getPosition() && getPosition() <= getNbCommands()
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class CommandLogReader implements Closeable {
+
+	/**
+	 * Initialize this new reader on the command log at the given path,
+	 * positioned at its first command.
+	 *
+	 * @param	path
+	 * 			The path of the command log.
+	 * @post	| new.getPosition() == 0
+	 * @throws	IOException
+	 * 			The file could not be read or is not a command log of a
+	 * 			supported version.
+	 */
+	public CommandLogReader(Path path) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(CommandLogWriter.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining())
+				if (this.channel.read(header) < 0)
+					throw new IOException("Not a command log: " + path);
+			if (header.getInt(0) != CommandLogWriter.MAGIC)
+				throw new IOException("Not a command log: " + path);
+			if (header.getInt(4) != CommandLogWriter.VERSION)
+				throw new IOException("Unsupported command log version " + header.getInt(4) + ": " + path);
+		}
+		catch (IOException exc) {
+			this.channel.close();
+			throw exc;
+		}
+		this.buffer.limit(0);
+	}
+
+	/**
+	 * Variable referencing the channel to the file of this reader.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * Variable referencing the buffer holding the records read but not yet returned.
+	 */
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(CommandLogWriter.CHUNK_SIZE)
+			.order(ByteOrder.LITTLE_ENDIAN);
+
+	/**
+	 * Return the number of commands in the log of this reader. Commands
+	 * still being written to the log are not counted until their record
+	 * is complete.
+	 *
+	 * @throws	IOException
+	 * 			The size of the file could not be read.
+	 */
+	public long getNbCommands() throws IOException {
+		return (this.channel.size() - CommandLogWriter.HEADER_SIZE) / CommandLogWriter.RECORD_SIZE;
+	}
+
+	/**
+	 * Return the index of the next command read by this reader.
+	 */
+	@Basic
+	public long getPosition() {
+		return this.position;
+	}
+
+	/**
+	 * Variable registering the index of the next command read by this reader.
+	 */
+	private long position;
+
+	/**
+	 * Position this reader at the command with the given index.
+	 *
+	 * @param	position
+	 * 			The index of the next command to read.
+	 * @post	| new.getPosition() == position
+	 * @throws	IllegalArgumentException
+	 * 			| position < 0 || position > getNbCommands()
+	 * @throws	IOException
+	 * 			The size of the file could not be read.
+	 */
+	public void seek(long position) throws IllegalArgumentException, IOException {
+		if ((position < 0) || (position > getNbCommands()))
+			throw new IllegalArgumentException("No command at " + position);
+		this.position = position;
+		this.buffer.limit(0);
+		this.channel.position(CommandLogWriter.HEADER_SIZE + position * CommandLogWriter.RECORD_SIZE);
+	}
+
+	/**
+	 * Read the next commands of the log into the given batch.
+	 *
+	 * @param	batch
+	 * 			The batch to fill.
+	 * @param	max
+	 * 			The maximum number of commands to read.
+	 * @post	The batch holds the next commands of the log, as many as fit
+	 * 			in the batch, but not more than the given maximum nor more
+	 * 			than remain in the log.
+	 * 			| new.getPosition() == getPosition() + batch.getSize()
+	 * @return	The number of commands read, zero at the end of the log.
+	 * 			| result == batch.getSize()
+	 * @throws	NullPointerException
+	 * 			| batch == null
+	 * @throws	IOException
+	 * 			The commands could not be read, or the log holds an unknown command.
+	 */
+	public int read(CommandBatch batch, long max) throws NullPointerException, IOException {
+		batch.clear();
+		int count = (int) Math.min(batch.getCapacity(), Math.max(max, 0L));
+		while (batch.getSize() < count) {
+			if ((this.buffer.remaining() < CommandLogWriter.RECORD_SIZE) && ! fill())
+				break;
+			byte code = this.buffer.get();
+			try {
+				ShipCommand.fromCode(code);
+			}
+			catch (IllegalArgumentException exc) {
+				throw new IOException("Unknown command code " + code + " at command " + this.position);
+			}
+			batch.add(code, this.buffer.getInt(), this.buffer.getDouble());
+			this.position++;
+		}
+		return batch.getSize();
+	}
+
+	/**
+	 * Read the next chunk of the log into the buffer, keeping the bytes of
+	 * an incomplete record, and return whether a complete record is available.
+	 */
+	private boolean fill() throws IOException {
+		this.buffer.compact();
+		while ((this.buffer.position() < CommandLogWriter.RECORD_SIZE) && (this.channel.read(this.buffer) > 0))
+			;
+		this.buffer.flip();
+		return this.buffer.remaining() >= CommandLogWriter.RECORD_SIZE;
+	}
+
+	/**
+	 * Close the file of this reader.
+	 */
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+}
@@ -0,0 +1,188 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of writers of command logs, recording the commands clients
+ * issue to the ships of a fleet.
+ *
+ * A command log starts with a header of 8 bytes: the magic number "SCMD"
+ * and the version of the format as an int. The header is followed by one
+ * record of 13 bytes per command, holding the code of the command as a
+ * byte, the index of its ship as an int and its argument as a double. All
+ * values are stored in little-endian byte order. Since all records have
+ * the same size, the n-th command of a log starts at byte
+ * HEADER_SIZE + n * RECORD_SIZE.
+ *
+ * Commands are collected in a buffer of fixed size and written to the file
+ * whenever it is full, when the writer is flushed and when it is closed.
+ *
+ * @invar	The number of commands written by each writer is not negative.
+ * 			| getNbCommands() >= 0
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class CommandLogWriter implements Closeable {
+
+	/**
+	 * Initialize this new writer on a new command log at the given path,
+	 * replacing any existing file.
+	 *
+	 * @param	path
+	 * 			The path of the command log.
+	 * @post	| new.getNbCommands() == 0
+	 * @throws	IOException
+	 * 			The file could not be created.
+	 */
+	public CommandLogWriter(Path path) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		this.buffer.putInt(MAGIC).putInt(VERSION);
+	}
+
+	/**
+	 * Variable referencing the channel to the file of this writer.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * Variable referencing the buffer collecting the records not yet written.
+	 */
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+	/**
+	 * Return the number of commands recorded by this writer.
+	 */
+	@Basic
+	public long getNbCommands() {
+		return this.nbCommands;
+	}
+
+	/**
+	 * Variable registering the number of commands recorded by this writer.
+	 */
+	private long nbCommands;
+
+	/**
+	 * Record a move of the ship at the given index over the given duration.
+	 *
+	 * @effect	| write(ShipCommand.MOVE, ship, duration)
+	 */
+	public void move(int ship, double duration) throws IOException {
+		write(ShipCommand.MOVE, ship, duration);
+	}
+
+	/**
+	 * Record a turn of the ship at the given index over the given angle.
+	 *
+	 * @effect	| write(ShipCommand.TURN, ship, angle)
+	 */
+	public void turn(int ship, double angle) throws IOException {
+		write(ShipCommand.TURN, ship, angle);
+	}
+
+	/**
+	 * Record a thrust of the ship at the given index with the given amount.
+	 *
+	 * @effect	| write(ShipCommand.THRUST, ship, a)
+	 */
+	public void thrust(int ship, double a) throws IOException {
+		write(ShipCommand.THRUST, ship, a);
+	}
+
+	/**
+	 * Record the given command for the ship at the given index with the
+	 * given argument.
+	 *
+	 * @param	command
+	 * 			The command to record.
+	 * @param	ship
+	 * 			The index of the ship of the command.
+	 * @param	value
+	 * 			The argument of the command.
+	 * @post	| new.getNbCommands() == getNbCommands() + 1
+	 * @throws	NullPointerException
+	 * 			| command == null
+	 * @throws	IOException
+	 * 			The buffer was full and could not be written.
+	 */
+	public void write(ShipCommand command, int ship, double value) throws NullPointerException, IOException {
+		byte code = command.getCode();
+		if (this.buffer.remaining() < RECORD_SIZE)
+			drain();
+		this.buffer.put(code).putInt(ship).putDouble(value);
+		this.nbCommands++;
+	}
+
+	/**
+	 * Write all recorded commands to the file of this writer.
+	 *
+	 * @throws	IOException
+	 * 			The commands could not be written.
+	 */
+	public void flush() throws IOException {
+		drain();
+		this.channel.force(false);
+	}
+
+	/**
+	 * Write the contents of the buffer to the file of this writer and empty it.
+	 */
+	private void drain() throws IOException {
+		this.buffer.flip();
+		while (this.buffer.hasRemaining())
+			this.channel.write(this.buffer);
+		this.buffer.clear();
+	}
+
+	/**
+	 * Write all recorded commands and close the file of this writer.
+	 *
+	 * @throws	IOException
+	 * 			The commands could not be written or the file could not be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			drain();
+		}
+		finally {
+			this.channel.close();
+		}
+	}
+
+	/**
+	 * Variable registering the magic number at the start of each command log.
+	 */
+	static final int MAGIC = 0x444D4353; // "SCMD" in little-endian order
+
+	/**
+	 * Variable registering the version of the format of command logs.
+	 */
+	static final int VERSION = 1;
+
+	/**
+	 * Variable registering the size of the header of a command log in bytes.
+	 */
+	public static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+	/**
+	 * Variable registering the size of the record of a command in bytes.
+	 */
+	public static final int RECORD_SIZE = 1 + Integer.BYTES + Double.BYTES;
+
+	/**
+	 * Variable registering the size of the chunks in which command logs are
+	 * written and read, in bytes.
+	 */
+	static final int CHUNK_SIZE = 4096 * RECORD_SIZE;
+
+}
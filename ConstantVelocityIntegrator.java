@@ -0,0 +1,27 @@
+/**
+ * A class of analytical integrators for ships moving at constant velocity.
+ *
+ * Without thrust, ships move along straight lines and a single step over
+ * any duration is exact. Thrust rates are ignored: this integrator is meant
+ * for coasting fleets, such as between two events of a collision scheduler.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class ConstantVelocityIntegrator implements Integrator {
+
+	/**
+	 * Advance the given fleet over the given duration at constant velocity.
+	 *
+	 * @effect	| fleet.moveAll(duration)
+	 */
+	@Override
+	public void integrate(ShipFleet fleet, double[] rates, double duration)
+			throws NullPointerException, IllegalArgumentException, IllegalDurationException {
+		if ((rates != null) && (rates.length < fleet.getNbShips()))
+			throw new IllegalArgumentException("No thrust rate for each ship");
+		fleet.moveAll(duration);
+	}
+
+}
@@ -0,0 +1,32 @@
+/**
+ * A class of explicit Euler integrators.
+ *
+ * An explicit Euler step first moves each ship with its velocity at the
+ * start of the step, and then applies the thrust of the whole step to its
+ * velocity. This is the step taken by Ship.move followed by Ship.thrust.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class EulerIntegrator implements Integrator {
+
+	/**
+	 * Advance the given fleet over the given duration with a single
+	 * explicit Euler step.
+	 *
+	 * @effect	| fleet.moveAll(duration)
+	 * @effect	| if (rates != null)
+	 * 			|	then fleet.thrustAll(rates, duration)
+	 */
+	@Override
+	public void integrate(ShipFleet fleet, double[] rates, double duration)
+			throws NullPointerException, IllegalArgumentException, IllegalDurationException {
+		if ((rates != null) && (rates.length < fleet.getNbShips()))
+			throw new IllegalArgumentException("No thrust rate for each ship");
+		fleet.moveAll(duration);
+		if (rates != null)
+			fleet.thrustAll(rates, duration);
+	}
+
+}
@@ -0,0 +1,113 @@
+/**
+ * A class of approximations of the sine and cosine by table lookup.
+ *
+ * The sine is tabulated at SIZE equally spaced angles over a full turn and
+ * interpolated linearly in between. For a step h = 2*PI / SIZE, the error
+ * of linear interpolation of a function with second derivative bounded by
+ * one is at most h*h/8, so that any result differs from Math.sin or
+ * Math.cos by at most MAX_ERROR, about 3e-7 radians of heading. The cosine
+ * is read from the same table a quarter turn further.
+ *
+ * Ships and fleets compute the heading of a ship with these approximations
+ * instead of Math.sin and Math.cos if the system property "ship.fastTrig"
+ * is true when this class is loaded. Both are then consistent with each
+ * other, but no longer bit-identical to the exact path.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public final class FastTrig {
+
+	/**
+	 * This class has no instances.
+	 */
+	private FastTrig() {
+	}
+
+	/**
+	 * Variable registering whether ships compute their heading with the
+	 * approximations of this class.
+	 */
+	public static final boolean ENABLED = Boolean.getBoolean("ship.fastTrig");
+
+	/**
+	 * Return an approximation of the sine of the given angle.
+	 *
+	 * @param	angle
+	 * 			The angle in radians.
+	 * @return	For angles below 1e4 radians in magnitude, which includes all
+	 * 			valid orientations and turns of ships:
+	 * 			| Math.abs(result - Math.sin(angle)) <= MAX_ERROR
+	 * @return	| if (Double.isNaN(angle) || Double.isInfinite(angle))
+	 * 			|	then Double.isNaN(result)
+	 */
+	public static double sin(double angle) {
+		double position = angle * STEPS_PER_RADIAN;
+		if (! (Math.abs(position) < Long.MAX_VALUE))
+			return Double.NaN;
+		// Truncating and correcting negative positions is cheaper than Math.floor.
+		long floor = (long) position;
+		if (position < floor)
+			floor--;
+		int index = (int) (floor & (SIZE - 1));
+		double fraction = position - floor;
+		return TABLE[index] + fraction * (TABLE[index + 1] - TABLE[index]);
+	}
+
+	/**
+	 * Return an approximation of the cosine of the given angle.
+	 *
+	 * @param	angle
+	 * 			The angle in radians.
+	 * @return	For angles below 1e4 radians in magnitude:
+	 * 			| Math.abs(result - Math.cos(angle)) <= MAX_ERROR
+	 */
+	public static double cos(double angle) {
+		return sin(angle + 0.5 * Math.PI);
+	}
+
+	/**
+	 * Return the cosine of the given angle, approximated if ENABLED.
+	 */
+	static double headingX(double angle) {
+		return ENABLED ? cos(angle) : Math.cos(angle);
+	}
+
+	/**
+	 * Return the sine of the given angle, approximated if ENABLED.
+	 */
+	static double headingY(double angle) {
+		return ENABLED ? sin(angle) : Math.sin(angle);
+	}
+
+	/**
+	 * Variable registering the number of intervals of the table per full turn.
+	 */
+	private static final int SIZE = 1 << 12;
+
+	/**
+	 * Variable registering the number of intervals of the table per radian.
+	 */
+	private static final double STEPS_PER_RADIAN = SIZE / (2.0 * Math.PI);
+
+	/**
+	 * Variable registering the largest difference between the results of
+	 * this class and the exact sine or cosine: the interpolation error
+	 * h*h/8, plus a margin for the rounding of the table and of the
+	 * reduction of the angle.
+	 */
+	public static final double MAX_ERROR = Math.pow(2.0 * Math.PI / SIZE, 2.0) / 8.0 + 1e-12;
+
+	/**
+	 * Variable registering the sine at each step of the table, one step
+	 * beyond the full turn to interpolate in the last interval.
+	 */
+	private static final double[] TABLE = new double[SIZE + 1];
+
+	static {
+		for (int i = 0; i <= SIZE; i++)
+			TABLE[i] = Math.sin(2.0 * Math.PI * i / SIZE);
+	}
+
+}
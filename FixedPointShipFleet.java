@@ -0,0 +1,543 @@
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of fleets of ships with positions stored in fixed point.
+ *
+ * A fixed-point fleet stores the position of each ship as two ints, counting
+ * steps of a fixed resolution from the origin, and its velocity, orientation
+ * and radius as floats. A ship takes 24 bytes instead of 64. Unlike floats,
+ * fixed-point positions are equally precise everywhere: each position is
+ * within half a step of the position it was given, however far from the
+ * origin, up to the largest coordinate getMaximumCoordinate(). Differences
+ * between positions are exact, such that distances and times to collision
+ * are computed in double precision without any cancellation.
+ *
+ * Moves, distances and times to collision have the same semantics as for
+ * ships. Each move is computed in double precision and rounded once to the
+ * nearest step; a ship that would move beyond the range of positions stops
+ * at its edge. The conversion of each displacement to steps makes moving
+ * a fixed-point fleet slower than moving a float fleet; it is meant for
+ * fleets that are stored or sent more often than they are moved.
+ * Velocities, orientations and radii are rounded as by a float fleet.
+ *
+ * A fixed-point fleet is not safe for use by several threads at once.
+ *
+ * @invar	Each ship in a fixed-point fleet satisfies the invariants of ships.
+ * 			| for each index in 0..getNbShips()-1:
+ * 			|	Ship.isValidPosition(getPositionX(index), getPositionY(index))
+ * 			|	&& Ship.isValidOrientation(getOrientation(index))
+ * 			|	&& Ship.isValidRadius(getRadius(index))
+ * @invar	The resolution of each fixed-point fleet is a valid resolution.
+ * 			| isValidResolution(getResolution())
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class FixedPointShipFleet {
+
+	/**
+	 * Initialize this new fixed-point fleet without any ships and with the
+	 * given initial capacity and resolution.
+	 *
+	 * @param	capacity
+	 * 			The number of ships this fleet can store before it grows.
+	 * @param	resolution
+	 * 			The distance between two successive positions, for instance
+	 * 			1/1024 for positions within two million units of the origin.
+	 * @post	| new.getNbShips() == 0
+	 * @post	| new.getCapacity() == capacity && new.getResolution() == resolution
+	 * @throws	IllegalArgumentException
+	 * 			| capacity < 0 || ! isValidResolution(resolution)
+	 */
+	public FixedPointShipFleet(int capacity, double resolution) throws IllegalArgumentException {
+		if (capacity < 0)
+			throw new IllegalArgumentException("Negative capacity: " + capacity);
+		if (! isValidResolution(resolution))
+			throw new IllegalArgumentException("Illegal resolution: " + resolution);
+		this.resolution = resolution;
+		this.xposition = new int[capacity];
+		this.yposition = new int[capacity];
+		this.xvelocity = new float[capacity];
+		this.yvelocity = new float[capacity];
+		this.orientation = new float[capacity];
+		this.radius = new float[capacity];
+	}
+
+	/**
+	 * Check whether the given resolution is a valid resolution for a fixed-point fleet.
+	 *
+	 * @return	| result == (resolution > 0.0) && (resolution < Double.POSITIVE_INFINITY)
+	 */
+	public static boolean isValidResolution(double resolution) {
+		return (resolution > 0.0) && (resolution < Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Return the distance between two successive positions in this fleet.
+	 */
+	@Basic @Immutable
+	public double getResolution() {
+		return this.resolution;
+	}
+
+	/**
+	 * Variable registering the distance between two successive positions in this fleet.
+	 */
+	private final double resolution;
+
+	/**
+	 * Return the largest coordinate of a position in this fleet.
+	 *
+	 * @return	| result == Integer.MAX_VALUE * getResolution()
+	 */
+	public double getMaximumCoordinate() {
+		return Integer.MAX_VALUE * this.resolution;
+	}
+
+	/**
+	 * Check whether the given position can be stored in this fleet.
+	 *
+	 * @return	| result == Ship.isValidPosition(xposition, yposition)
+	 * 			|	&& Math.abs(xposition) <= getMaximumCoordinate()
+	 * 			|	&& Math.abs(yposition) <= getMaximumCoordinate()
+	 */
+	public boolean canHavePosition(double xposition, double yposition) {
+		return Ship.isValidPosition(xposition, yposition) && (Math.abs(xposition) <= getMaximumCoordinate())
+				&& (Math.abs(yposition) <= getMaximumCoordinate());
+	}
+
+	/**
+	 * Return the number of ships in this fleet.
+	 */
+	@Basic
+	public int getNbShips() {
+		return this.nbShips;
+	}
+
+	/**
+	 * Return the number of ships this fleet can store before it grows.
+	 */
+	@Basic
+	public int getCapacity() {
+		return this.xposition.length;
+	}
+
+	/**
+	 * Return the number of bytes taken by the state of the ships this fleet
+	 * can store.
+	 *
+	 * @return	| result == (long) getCapacity() * BYTES_PER_SHIP
+	 */
+	public long getMemoryUsage() {
+		return (long) getCapacity() * BYTES_PER_SHIP;
+	}
+
+	/**
+	 * Add a new ship with the given position, velocity, orientation and
+	 * radius to this fleet, rounded to the resolution of this fleet and to
+	 * single precision.
+	 *
+	 * @param 	xposition
+	 * 			The X-coordinate of the position for the new ship.
+	 * @param 	yposition
+	 * 			The Y-coordinate of the position for the new ship.
+	 * @param 	xvelocity
+	 * 			The X-coordinate of the velocity for the new ship.
+	 * @param 	yvelocity
+	 * 			The Y-coordinate of the velocity for the new ship.
+	 * @param 	orientation
+	 * 			The orientation for the new ship.
+	 * @param 	radius
+	 * 			The radius for the new ship.
+	 * @pre		| Ship.isValidOrientation(orientation)
+	 * @post	The new ship has the given position, rounded to the nearest
+	 * 			step, and the given orientation and radius, rounded to single
+	 * 			precision. If the given velocity is a valid velocity, the new
+	 * 			ship has the given velocity rounded to single precision,
+	 * 			otherwise it does not move.
+	 * @return	The index of the new ship.
+	 * 			| result == getNbShips()
+	 * @throws	IllegalValueException
+	 * 			| ! canHavePosition(xposition, yposition)
+	 * @throws	IllegalRadiusException
+	 * 			| ! Ship.isValidRadius(radius)
+	 */
+	public int add(double xposition, double yposition, double xvelocity, double yvelocity,
+			double orientation, double radius) throws IllegalValueException, IllegalRadiusException {
+		assert Ship.isValidOrientation(orientation);
+		if (! canHavePosition(xposition, yposition))
+			throw new IllegalValueException(xposition, yposition);
+		if (! Ship.isValidRadius(radius))
+			throw new IllegalRadiusException(radius, null);
+		if (this.nbShips == getCapacity())
+			grow();
+		int index = this.nbShips++;
+		this.xposition[index] = toSteps(xposition);
+		this.yposition[index] = toSteps(yposition);
+		storeVelocity(index, xvelocity, yvelocity);
+		this.orientation[index] = FloatShipFleet.toOrientation(orientation);
+		this.radius[index] = FloatShipFleet.toRadius(radius);
+		return index;
+	}
+
+	/**
+	 * Add a copy of the given ship to this fleet, rounded as by add.
+	 *
+	 * @param	ship
+	 * 			The ship to copy into this fleet.
+	 * @return	The index of the new ship.
+	 * 			| result == add(ship.getPositionX(), ship.getPositionY(),
+	 * 			|	ship.getVelocityX(), ship.getVelocityY(),
+	 * 			|	ship.getOrientation(), ship.getRadius())
+	 * @throws	NullPointerException
+	 * 			| ship == null
+	 * @throws	IllegalValueException
+	 * 			| ! canHavePosition(ship.getPositionX(), ship.getPositionY())
+	 */
+	public int add(Ship ship) throws NullPointerException, IllegalValueException {
+		try {
+			return add(ship.getPositionX(), ship.getPositionY(), ship.getVelocityX(), ship.getVelocityY(),
+					ship.getOrientation(), ship.getRadius());
+		} catch (IllegalRadiusException exc) {
+			// Every ship satisfies the invariants of ships.
+			throw new AssertionError(exc);
+		}
+	}
+
+	/**
+	 * Add a copy of all ships of the given fleet to this fleet, in the order
+	 * of their indices, rounded as by add.
+	 *
+	 * @param	fleet
+	 * 			The fleet to copy into this fleet.
+	 * @throws	NullPointerException
+	 * 			| fleet == null
+	 * @throws	IllegalValueException
+	 * 			A ship of the given fleet has a position that cannot be stored
+	 * 			in this fleet. The ships before it have been added.
+	 */
+	public void addAll(ShipFleet fleet) throws NullPointerException, IllegalValueException {
+		int n = fleet.getNbShips();
+		double[] x = fleet.getPositionsX(), y = fleet.getPositionsY();
+		double[] vx = fleet.getVelocitiesX(), vy = fleet.getVelocitiesY();
+		double[] orientation = fleet.getOrientations(), radius = fleet.getRadii();
+		try {
+			for (int i = 0; i < n; i++)
+				add(x[i], y[i], vx[i], vy[i], orientation[i], radius[i]);
+		} catch (IllegalRadiusException exc) {
+			// Every ship in a fleet satisfies the invariants of ships.
+			throw new AssertionError(exc);
+		}
+	}
+
+	/**
+	 * Remove all ships from this fleet. The capacity is kept for new ships.
+	 *
+	 * @post	| new.getNbShips() == 0
+	 */
+	public void clear() {
+		this.nbShips = 0;
+	}
+
+	/**
+	 * Double the capacity of this fleet.
+	 */
+	private void grow() {
+		int capacity = Math.max(DEF_CAPACITY, 2 * getCapacity());
+		this.xposition = Arrays.copyOf(this.xposition, capacity);
+		this.yposition = Arrays.copyOf(this.yposition, capacity);
+		this.xvelocity = Arrays.copyOf(this.xvelocity, capacity);
+		this.yvelocity = Arrays.copyOf(this.yvelocity, capacity);
+		this.orientation = Arrays.copyOf(this.orientation, capacity);
+		this.radius = Arrays.copyOf(this.radius, capacity);
+	}
+
+	/**
+	 * Check whether the given index refers to a ship in this fleet.
+	 *
+	 * @param	index
+	 * 			The index to check.
+	 * @return	| result == (0 <= index && index < getNbShips())
+	 */
+	public boolean isValidIndex(int index) {
+		return (0 <= index) && (index < this.nbShips);
+	}
+
+	/**
+	 * Check the given index and throw an exception if it does not refer
+	 * to a ship in this fleet.
+	 */
+	private void checkIndex(int index) throws IndexOutOfBoundsException {
+		if (! isValidIndex(index))
+			throw new IndexOutOfBoundsException("No ship at index " + index);
+	}
+
+	/**
+	 * Return the given coordinate as the nearest number of steps, which is
+	 * within the range of an int.
+	 */
+	private int toSteps(double coordinate) {
+		return (int) Math.rint(coordinate / this.resolution);
+	}
+
+	/**
+	 * Return the X-coordinate of the position of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getPositionX(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.xposition[index] * this.resolution;
+	}
+
+	/**
+	 * Return the Y-coordinate of the position of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getPositionY(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.yposition[index] * this.resolution;
+	}
+
+	/**
+	 * Return the X-coordinate of the velocity of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getVelocityX(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.xvelocity[index];
+	}
+
+	/**
+	 * Return the Y-coordinate of the velocity of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getVelocityY(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.yvelocity[index];
+	}
+
+	/**
+	 * Return the orientation of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getOrientation(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.orientation[index];
+	}
+
+	/**
+	 * Return the radius of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getRadius(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.radius[index];
+	}
+
+	/**
+	 * Set the position of the ship at the given index to the given position,
+	 * rounded to the nearest step.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 * @throws	IllegalValueException
+	 * 			| ! canHavePosition(xposition, yposition)
+	 */
+	public void setPosition(int index, double xposition, double yposition)
+			throws IndexOutOfBoundsException, IllegalValueException {
+		checkIndex(index);
+		if (! canHavePosition(xposition, yposition))
+			throw new IllegalValueException(xposition, yposition);
+		this.xposition[index] = toSteps(xposition);
+		this.yposition[index] = toSteps(yposition);
+	}
+
+	/**
+	 * Set the velocity of the ship at the given index to the given velocity,
+	 * rounded to single precision, if it is a valid velocity.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public void setVelocity(int index, double xvelocity, double yvelocity) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		if (Ship.isValidVelocity(xvelocity, yvelocity))
+			storeVelocity(index, xvelocity, yvelocity);
+	}
+
+	/**
+	 * Store the given velocity for the ship at the given index, or no
+	 * velocity if it is not a valid velocity, rounded toward zero if the
+	 * nearest floats would exceed the maximum velocity.
+	 */
+	private void storeVelocity(int index, double xvelocity, double yvelocity) {
+		if (! Ship.isValidVelocity(xvelocity, yvelocity)) {
+			xvelocity = 0.0;
+			yvelocity = 0.0;
+		}
+		float x = (float) xvelocity, y = (float) yvelocity;
+		if (! Ship.isValidVelocity(x, y)) {
+			// One step toward zero makes each coordinate no larger than the given one.
+			x = Math.nextAfter(x, 0.0);
+			y = Math.nextAfter(y, 0.0);
+		}
+		this.xvelocity[index] = x;
+		this.yvelocity[index] = y;
+	}
+
+	/**
+	 * Change the position of every ship in this fleet with the given duration,
+	 * based on the current position and velocity of each ship.
+	 *
+	 * @param 	duration
+	 * 			The duration over which all ships move.
+	 * @effect	Each ship is moved as if by Ship.move(duration), and its new
+	 * 			position is rounded to the nearest step and limited to the
+	 * 			range of positions.
+	 * 			| for each index in 0..getNbShips()-1:
+	 * 			|	setPosition(index,
+	 * 			|		getPositionX(index) + duration*getVelocityX(index),
+	 * 			|		getPositionY(index) + duration*getVelocityY(index))
+	 * @throws 	IllegalDurationException
+	 * 			| ! Ship.isValidDuration(duration) || Double.isInfinite(duration)
+	 */
+	public void moveAll(double duration) throws IllegalDurationException {
+		if (! Ship.isValidDuration(duration) || Double.isInfinite(duration))
+			throw new IllegalDurationException(duration);
+		// The displacement is computed in steps, such that no position is converted back and forth.
+		final double steps = duration / this.resolution;
+		final int[] x = this.xposition, y = this.yposition;
+		final float[] vx = this.xvelocity, vy = this.yvelocity;
+		final int n = this.nbShips;
+		for (int i = 0; i < n; i++) {
+			x[i] = (int) Math.rint(x[i] + steps * vx[i]);
+			y[i] = (int) Math.rint(y[i] + steps * vy[i]);
+		}
+	}
+
+	/**
+	 * Change the position of the ship at the given index with the given duration.
+	 *
+	 * @effect	As by moveAll(duration), for the ship at the given index only.
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 * @throws 	IllegalDurationException
+	 * 			| ! Ship.isValidDuration(duration) || Double.isInfinite(duration)
+	 */
+	public void move(int index, double duration) throws IndexOutOfBoundsException, IllegalDurationException {
+		checkIndex(index);
+		if (! Ship.isValidDuration(duration) || Double.isInfinite(duration))
+			throw new IllegalDurationException(duration);
+		final double steps = duration / this.resolution;
+		this.xposition[index] = (int) Math.rint(this.xposition[index] + steps * this.xvelocity[index]);
+		this.yposition[index] = (int) Math.rint(this.yposition[index] + steps * this.yvelocity[index]);
+	}
+
+	/**
+	 * Return the distance between the ships at the given indices.
+	 *
+	 * @return	| result == toShip(shipA).getDistanceBetween(toShip(shipB))
+	 * 			|	|| (shipA == shipB && result == 0.0)
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(shipA) || ! isValidIndex(shipB)
+	 */
+	public double getDistanceBetween(int shipA, int shipB) throws IndexOutOfBoundsException {
+		checkIndex(shipA);
+		checkIndex(shipB);
+		if (shipA == shipB)
+			return 0.0;
+		double xdelta = ((long) this.xposition[shipA] - this.xposition[shipB]) * this.resolution;
+		double ydelta = ((long) this.yposition[shipA] - this.yposition[shipB]) * this.resolution;
+		double distance = Math.sqrt(xdelta*xdelta + ydelta*ydelta);
+		if (distance < (double) this.radius[shipA] + this.radius[shipB])
+			distance = -distance;
+		return distance;
+	}
+
+	/**
+	 * Return the time until the ships at the given indices collide.
+	 *
+	 * @return	| result == toShip(shipA).getTimeToCollision(toShip(shipB))
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(shipA) || ! isValidIndex(shipB)
+	 */
+	public double getTimeToCollision(int shipA, int shipB) throws IndexOutOfBoundsException {
+		checkIndex(shipA);
+		checkIndex(shipB);
+		return Ship.getTimeToCollision(((long) this.xposition[shipB] - this.xposition[shipA]) * this.resolution,
+				((long) this.yposition[shipB] - this.yposition[shipA]) * this.resolution,
+				(double) this.xvelocity[shipB] - this.xvelocity[shipA],
+				(double) this.yvelocity[shipB] - this.yvelocity[shipA],
+				(double) this.radius[shipA] + this.radius[shipB]);
+	}
+
+	/**
+	 * Return a new ship with the state of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public Ship toShip(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		try {
+			return new Ship(this.xposition[index] * this.resolution, this.yposition[index] * this.resolution,
+					this.xvelocity[index], this.yvelocity[index], this.orientation[index], this.radius[index]);
+		} catch (IllegalRadiusException | IllegalValueException exc) {
+			// Every ship in a fleet satisfies the invariants of ships.
+			throw new AssertionError(exc);
+		}
+	}
+
+	/**
+	 * Variable registering the number of ships in this fleet.
+	 */
+	private int nbShips;
+
+	/**
+	 * Variables registering the X-coordinate and Y-coordinate of the
+	 * position of the ships in this fleet, in steps of the resolution.
+	 */
+	private int[] xposition, yposition;
+
+	/**
+	 * Variables registering the X-coordinate and Y-coordinate of the
+	 * velocity of the ships in this fleet.
+	 */
+	private float[] xvelocity, yvelocity;
+
+	/**
+	 * Variable registering the orientation of the ships in this fleet.
+	 */
+	private float[] orientation;
+
+	/**
+	 * Variable registering the radius of the ships in this fleet.
+	 */
+	private float[] radius;
+
+	/**
+	 * Variable registering the default capacity of a fixed-point fleet.
+	 */
+	private static final int DEF_CAPACITY = 16;
+
+	/**
+	 * Variable registering the number of bytes of state per ship.
+	 */
+	public static final int BYTES_PER_SHIP = 2 * Integer.BYTES + 4 * Float.BYTES;
+
+}
@@ -0,0 +1,152 @@
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of immutable snapshots of the state of all ships of a fleet at
+ * a given tick.
+ *
+ * A fleet state copies the arrays of its fleet on construction and never
+ * changes afterwards, so it can be read by any number of threads without
+ * locking while the fleet itself moves on.
+ *
+ * @invar	The tick of each fleet state is not negative.
+ * 			| getTick() >= 0
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+@Value
+public final class FleetState {
+
+	/**
+	 * Initialize this new fleet state with the current state of the given
+	 * fleet and the given tick.
+	 *
+	 * @param	fleet
+	 * 			The fleet to take a snapshot of.
+	 * @param	tick
+	 * 			The tick of this new fleet state.
+	 * @post	| new.getNbShips() == fleet.getNbShips()
+	 * @post	Each ship of this new fleet state has the state of the ship of
+	 * 			the given fleet at the same index.
+	 * @post	| new.getTick() == tick
+	 * @throws	NullPointerException
+	 * 			| fleet == null
+	 * @throws	IllegalArgumentException
+	 * 			| tick < 0
+	 */
+	public FleetState(ShipFleet fleet, long tick) throws NullPointerException, IllegalArgumentException {
+		if (tick < 0)
+			throw new IllegalArgumentException("Negative tick: " + tick);
+		int n = fleet.getNbShips();
+		this.xposition = Arrays.copyOf(fleet.getPositionsX(), n);
+		this.yposition = Arrays.copyOf(fleet.getPositionsY(), n);
+		this.xvelocity = Arrays.copyOf(fleet.getVelocitiesX(), n);
+		this.yvelocity = Arrays.copyOf(fleet.getVelocitiesY(), n);
+		this.orientation = Arrays.copyOf(fleet.getOrientations(), n);
+		this.radius = Arrays.copyOf(fleet.getRadii(), n);
+		this.tick = tick;
+	}
+
+	/**
+	 * Return the tick of this fleet state.
+	 */
+	@Basic @Immutable
+	public long getTick() {
+		return this.tick;
+	}
+
+	/**
+	 * Variable registering the tick of this fleet state.
+	 */
+	private final long tick;
+
+	/**
+	 * Return the number of ships in this fleet state.
+	 */
+	@Basic @Immutable
+	public int getNbShips() {
+		return this.xposition.length;
+	}
+
+	/**
+	 * Return the X-coordinate of the position of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getPositionX(int index) throws IndexOutOfBoundsException {
+		return this.xposition[index];
+	}
+
+	/**
+	 * Return the Y-coordinate of the position of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getPositionY(int index) throws IndexOutOfBoundsException {
+		return this.yposition[index];
+	}
+
+	/**
+	 * Return the X-coordinate of the velocity of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getVelocityX(int index) throws IndexOutOfBoundsException {
+		return this.xvelocity[index];
+	}
+
+	/**
+	 * Return the Y-coordinate of the velocity of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getVelocityY(int index) throws IndexOutOfBoundsException {
+		return this.yvelocity[index];
+	}
+
+	/**
+	 * Return the orientation of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getOrientation(int index) throws IndexOutOfBoundsException {
+		return this.orientation[index];
+	}
+
+	/**
+	 * Return the radius of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getRadius(int index) throws IndexOutOfBoundsException {
+		return this.radius[index];
+	}
+
+	/**
+	 * Return the state of the ship at the given index.
+	 *
+	 * @return	A ship state with the position, velocity, orientation and
+	 * 			radius of the ship at the given index.
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public ShipState getShipState(int index) throws IndexOutOfBoundsException {
+		return new ShipState(this.xposition[index], this.yposition[index], this.xvelocity[index],
+				this.yvelocity[index], this.orientation[index], this.radius[index]);
+	}
+
+	/**
+	 * Variables registering the state of the ships of this fleet state.
+	 */
+	private final double[] xposition, yposition, xvelocity, yvelocity, orientation, radius;
+
+}
@@ -0,0 +1,81 @@
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of publishers of the state of a fleet to concurrent readers.
+ *
+ * The simulation thread owns the fleet and publishes a new immutable fleet
+ * state at the end of each tick. Readers, such as renderers or AI threads,
+ * obtain the latest published state through a single volatile read: they
+ * never lock and never see a tick that is half applied, and the simulation
+ * thread never waits for them. A reader that keeps a state keeps a
+ * consistent view of that tick for as long as it needs.
+ *
+ * Only one thread may publish; any number of threads may read.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class FleetStatePublisher {
+
+	/**
+	 * Initialize this new publisher for the given fleet and publish its
+	 * current state as tick zero.
+	 *
+	 * @param	fleet
+	 * 			The fleet for this new publisher.
+	 * @post	| new.getFleet() == fleet
+	 * @post	| new.getLatest().getTick() == 0
+	 * @throws	NullPointerException
+	 * 			| fleet == null
+	 */
+	public FleetStatePublisher(ShipFleet fleet) throws NullPointerException {
+		this.fleet = fleet;
+		this.latest = new FleetState(fleet, 0L);
+	}
+
+	/**
+	 * Return the fleet of this publisher.
+	 */
+	@Basic @Immutable
+	public ShipFleet getFleet() {
+		return this.fleet;
+	}
+
+	/**
+	 * Variable referencing the fleet of this publisher.
+	 */
+	private final ShipFleet fleet;
+
+	/**
+	 * Return the latest fleet state published by this publisher.
+	 */
+	@Basic
+	public FleetState getLatest() {
+		return this.latest;
+	}
+
+	/**
+	 * Variable referencing the latest fleet state published by this publisher.
+	 * The state is fully constructed before it is written, and the volatile
+	 * write makes all of its contents visible to readers of the reference.
+	 */
+	private volatile FleetState latest;
+
+	/**
+	 * Publish the current state of the fleet of this publisher as the next tick.
+	 * This method may only be invoked by the thread that changes the fleet.
+	 *
+	 * @post	The latest state of this publisher is a snapshot of the fleet
+	 * 			with a tick one higher than the previous one.
+	 * 			| new.getLatest().getTick() == getLatest().getTick() + 1
+	 * @return	The published state.
+	 * 			| result == new.getLatest()
+	 */
+	public FleetState publish() {
+		FleetState state = new FleetState(this.fleet, this.latest.getTick() + 1);
+		this.latest = state;
+		return state;
+	}
+
+}
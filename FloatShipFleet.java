@@ -0,0 +1,499 @@
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of fleets of ships stored in single precision.
+ *
+ * A float fleet stores the state of its ships column by column, like a
+ * ShipFleet, but in arrays of floats. A ship takes 24 bytes instead of 64,
+ * which halves the memory and the bandwidth of a pass over the fleet at the
+ * cost of precision: a float holds about seven significant digits, so a
+ * ship a thousand units from the origin is positioned to within about
+ * three hundredths of a unit. This is meant for ships that are only drawn.
+ *
+ * Moves, distances and times to collision have the same semantics as for
+ * ships. Moves are computed in single precision, with the duration rounded
+ * to a float; mixing floats and doubles in the loop over all ships would
+ * make it several times slower. Distances and times to collision are
+ * computed in double precision from the differences between the stored
+ * floats, such that the rounding of the stored state is the only error
+ * they carry.
+ *
+ * Radii and orientations are rounded such that they remain valid: a radius
+ * is never rounded down and an orientation never rounded up to two pi. A
+ * velocity is rounded toward zero if rounding would exceed the maximum
+ * velocity.
+ *
+ * A float fleet is not safe for use by several threads at once.
+ *
+ * @invar	Each ship in a float fleet satisfies the invariants of ships.
+ * 			| for each index in 0..getNbShips()-1:
+ * 			|	Ship.isValidPosition(getPositionX(index), getPositionY(index))
+ * 			|	&& Ship.isValidOrientation(getOrientation(index))
+ * 			|	&& Ship.isValidRadius(getRadius(index))
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class FloatShipFleet {
+
+	/**
+	 * Initialize this new float fleet without any ships and with the given
+	 * initial capacity.
+	 *
+	 * @param	capacity
+	 * 			The number of ships this fleet can store before it grows.
+	 * @post	| new.getNbShips() == 0
+	 * @post	| new.getCapacity() == capacity
+	 * @throws	IllegalArgumentException
+	 * 			| capacity < 0
+	 */
+	public FloatShipFleet(int capacity) throws IllegalArgumentException {
+		if (capacity < 0)
+			throw new IllegalArgumentException("Negative capacity: " + capacity);
+		this.xposition = new float[capacity];
+		this.yposition = new float[capacity];
+		this.xvelocity = new float[capacity];
+		this.yvelocity = new float[capacity];
+		this.orientation = new float[capacity];
+		this.radius = new float[capacity];
+	}
+
+	/**
+	 * Return the number of ships in this fleet.
+	 */
+	@Basic
+	public int getNbShips() {
+		return this.nbShips;
+	}
+
+	/**
+	 * Return the number of ships this fleet can store before it grows.
+	 */
+	@Basic
+	public int getCapacity() {
+		return this.xposition.length;
+	}
+
+	/**
+	 * Return the number of bytes taken by the state of the ships this fleet
+	 * can store.
+	 *
+	 * @return	| result == (long) getCapacity() * BYTES_PER_SHIP
+	 */
+	public long getMemoryUsage() {
+		return (long) getCapacity() * BYTES_PER_SHIP;
+	}
+
+	/**
+	 * Add a new ship with the given position, velocity, orientation and
+	 * radius to this fleet, rounded to single precision.
+	 *
+	 * @param 	xposition
+	 * 			The X-coordinate of the position for the new ship.
+	 * @param 	yposition
+	 * 			The Y-coordinate of the position for the new ship.
+	 * @param 	xvelocity
+	 * 			The X-coordinate of the velocity for the new ship.
+	 * @param 	yvelocity
+	 * 			The Y-coordinate of the velocity for the new ship.
+	 * @param 	orientation
+	 * 			The orientation for the new ship.
+	 * @param 	radius
+	 * 			The radius for the new ship.
+	 * @pre		| Ship.isValidOrientation(orientation)
+	 * @post	The new ship has the given position, orientation and radius,
+	 * 			rounded to single precision. If the given velocity is a valid
+	 * 			velocity, the new ship has the given velocity rounded to single
+	 * 			precision, otherwise it does not move.
+	 * @return	The index of the new ship.
+	 * 			| result == getNbShips()
+	 * @throws	IllegalValueException
+	 * 			| ! Ship.isValidPosition(xposition, yposition)
+	 * @throws	IllegalRadiusException
+	 * 			| ! Ship.isValidRadius(radius)
+	 */
+	public int add(double xposition, double yposition, double xvelocity, double yvelocity,
+			double orientation, double radius) throws IllegalValueException, IllegalRadiusException {
+		assert Ship.isValidOrientation(orientation);
+		if (! Ship.isValidPosition(xposition, yposition))
+			throw new IllegalValueException(xposition, yposition);
+		if (! Ship.isValidRadius(radius))
+			throw new IllegalRadiusException(radius, null);
+		return append(xposition, yposition, xvelocity, yvelocity, orientation, radius);
+	}
+
+	/**
+	 * Add a copy of the given ship to this fleet, rounded to single precision.
+	 *
+	 * @param	ship
+	 * 			The ship to copy into this fleet.
+	 * @return	The index of the new ship.
+	 * 			| result == add(ship.getPositionX(), ship.getPositionY(),
+	 * 			|	ship.getVelocityX(), ship.getVelocityY(),
+	 * 			|	ship.getOrientation(), ship.getRadius())
+	 * @throws	NullPointerException
+	 * 			| ship == null
+	 */
+	public int add(Ship ship) throws NullPointerException {
+		return append(ship.getPositionX(), ship.getPositionY(), ship.getVelocityX(), ship.getVelocityY(),
+				ship.getOrientation(), ship.getRadius());
+	}
+
+	/**
+	 * Add a copy of all ships of the given fleet to this fleet, in the order
+	 * of their indices, rounded to single precision.
+	 *
+	 * @param	fleet
+	 * 			The fleet to copy into this fleet.
+	 * @throws	NullPointerException
+	 * 			| fleet == null
+	 */
+	public void addAll(ShipFleet fleet) throws NullPointerException {
+		int n = fleet.getNbShips();
+		double[] x = fleet.getPositionsX(), y = fleet.getPositionsY();
+		double[] vx = fleet.getVelocitiesX(), vy = fleet.getVelocitiesY();
+		double[] orientation = fleet.getOrientations(), radius = fleet.getRadii();
+		for (int i = 0; i < n; i++)
+			append(x[i], y[i], vx[i], vy[i], orientation[i], radius[i]);
+	}
+
+	/**
+	 * Store a new ship with the given state, whose position, orientation and
+	 * radius satisfy the invariants of ships, at the end of this fleet. The
+	 * ship does not move if the given velocity is not a valid velocity.
+	 */
+	private int append(double xposition, double yposition, double xvelocity, double yvelocity,
+			double orientation, double radius) {
+		if (this.nbShips == getCapacity())
+			grow();
+		int index = this.nbShips++;
+		this.xposition[index] = (float) xposition;
+		this.yposition[index] = (float) yposition;
+		storeVelocity(index, xvelocity, yvelocity);
+		this.orientation[index] = toOrientation(orientation);
+		this.radius[index] = toRadius(radius);
+		return index;
+	}
+
+	/**
+	 * Remove all ships from this fleet. The capacity is kept for new ships.
+	 *
+	 * @post	| new.getNbShips() == 0
+	 */
+	public void clear() {
+		this.nbShips = 0;
+	}
+
+	/**
+	 * Double the capacity of this fleet.
+	 */
+	private void grow() {
+		int capacity = Math.max(DEF_CAPACITY, 2 * getCapacity());
+		this.xposition = Arrays.copyOf(this.xposition, capacity);
+		this.yposition = Arrays.copyOf(this.yposition, capacity);
+		this.xvelocity = Arrays.copyOf(this.xvelocity, capacity);
+		this.yvelocity = Arrays.copyOf(this.yvelocity, capacity);
+		this.orientation = Arrays.copyOf(this.orientation, capacity);
+		this.radius = Arrays.copyOf(this.radius, capacity);
+	}
+
+	/**
+	 * Check whether the given index refers to a ship in this fleet.
+	 *
+	 * @param	index
+	 * 			The index to check.
+	 * @return	| result == (0 <= index && index < getNbShips())
+	 */
+	public boolean isValidIndex(int index) {
+		return (0 <= index) && (index < this.nbShips);
+	}
+
+	/**
+	 * Check the given index and throw an exception if it does not refer
+	 * to a ship in this fleet.
+	 */
+	private void checkIndex(int index) throws IndexOutOfBoundsException {
+		if (! isValidIndex(index))
+			throw new IndexOutOfBoundsException("No ship at index " + index);
+	}
+
+	/**
+	 * Return the X-coordinate of the position of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getPositionX(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.xposition[index];
+	}
+
+	/**
+	 * Return the Y-coordinate of the position of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getPositionY(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.yposition[index];
+	}
+
+	/**
+	 * Return the X-coordinate of the velocity of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getVelocityX(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.xvelocity[index];
+	}
+
+	/**
+	 * Return the Y-coordinate of the velocity of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getVelocityY(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.yvelocity[index];
+	}
+
+	/**
+	 * Return the orientation of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getOrientation(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.orientation[index];
+	}
+
+	/**
+	 * Return the radius of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getRadius(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.radius[index];
+	}
+
+	/**
+	 * Set the position of the ship at the given index to the given position,
+	 * rounded to single precision.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 * @throws	IllegalValueException
+	 * 			| ! Ship.isValidPosition(xposition, yposition)
+	 */
+	public void setPosition(int index, double xposition, double yposition)
+			throws IndexOutOfBoundsException, IllegalValueException {
+		checkIndex(index);
+		if (! Ship.isValidPosition(xposition, yposition))
+			throw new IllegalValueException(xposition, yposition);
+		this.xposition[index] = (float) xposition;
+		this.yposition[index] = (float) yposition;
+	}
+
+	/**
+	 * Set the velocity of the ship at the given index to the given velocity,
+	 * rounded to single precision, if it is a valid velocity.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public void setVelocity(int index, double xvelocity, double yvelocity) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		if (Ship.isValidVelocity(xvelocity, yvelocity))
+			storeVelocity(index, xvelocity, yvelocity);
+	}
+
+	/**
+	 * Store the given velocity for the ship at the given index, or no
+	 * velocity if it is not a valid velocity, rounded toward zero if the
+	 * nearest floats would exceed the maximum velocity.
+	 */
+	private void storeVelocity(int index, double xvelocity, double yvelocity) {
+		if (! Ship.isValidVelocity(xvelocity, yvelocity)) {
+			xvelocity = 0.0;
+			yvelocity = 0.0;
+		}
+		float x = (float) xvelocity, y = (float) yvelocity;
+		if (! Ship.isValidVelocity(x, y)) {
+			// One step toward zero makes each coordinate no larger than the given one.
+			x = Math.nextAfter(x, 0.0);
+			y = Math.nextAfter(y, 0.0);
+		}
+		this.xvelocity[index] = x;
+		this.yvelocity[index] = y;
+	}
+
+	/**
+	 * Return the given valid orientation rounded to a float that is still
+	 * a valid orientation.
+	 */
+	static float toOrientation(double orientation) {
+		float result = (float) orientation;
+		if (result >= 2.0*Math.PI)
+			result = Math.nextDown(result);
+		return result;
+	}
+
+	/**
+	 * Return the given valid radius rounded to a float that is not below it,
+	 * and thus still a valid radius.
+	 */
+	static float toRadius(double radius) {
+		float result = (float) radius;
+		if (result < radius)
+			result = Math.nextUp(result);
+		return result;
+	}
+
+	/**
+	 * Change the position of every ship in this fleet with the given duration,
+	 * based on the current position and velocity of each ship.
+	 *
+	 * @param 	duration
+	 * 			The duration over which all ships move.
+	 * @effect	Each ship is moved as if by Ship.move(duration), computed in
+	 * 			single precision.
+	 * 			| for each index in 0..getNbShips()-1:
+	 * 			|	setPosition(index,
+	 * 			|		getPositionX(index) + duration*getVelocityX(index),
+	 * 			|		getPositionY(index) + duration*getVelocityY(index))
+	 * @throws 	IllegalDurationException
+	 * 			| ! Ship.isValidDuration(duration) || Double.isInfinite(duration)
+	 */
+	public void moveAll(double duration) throws IllegalDurationException {
+		if (! Ship.isValidDuration(duration) || Double.isInfinite(duration))
+			throw new IllegalDurationException(duration);
+		final float[] x = this.xposition, y = this.yposition, vx = this.xvelocity, vy = this.yvelocity;
+		final float d = (float) duration;
+		final int n = this.nbShips;
+		for (int i = 0; i < n; i++) {
+			x[i] += d * vx[i];
+			y[i] += d * vy[i];
+		}
+	}
+
+	/**
+	 * Change the position of the ship at the given index with the given duration.
+	 *
+	 * @effect	As by moveAll(duration), for the ship at the given index only.
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 * @throws 	IllegalDurationException
+	 * 			| ! Ship.isValidDuration(duration) || Double.isInfinite(duration)
+	 */
+	public void move(int index, double duration) throws IndexOutOfBoundsException, IllegalDurationException {
+		checkIndex(index);
+		if (! Ship.isValidDuration(duration) || Double.isInfinite(duration))
+			throw new IllegalDurationException(duration);
+		final float d = (float) duration;
+		this.xposition[index] += d * this.xvelocity[index];
+		this.yposition[index] += d * this.yvelocity[index];
+	}
+
+	/**
+	 * Return the distance between the ships at the given indices.
+	 *
+	 * @return	| result == toShip(shipA).getDistanceBetween(toShip(shipB))
+	 * 			|	|| (shipA == shipB && result == 0.0)
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(shipA) || ! isValidIndex(shipB)
+	 */
+	public double getDistanceBetween(int shipA, int shipB) throws IndexOutOfBoundsException {
+		checkIndex(shipA);
+		checkIndex(shipB);
+		if (shipA == shipB)
+			return 0.0;
+		double xdelta = (double) this.xposition[shipA] - this.xposition[shipB];
+		double ydelta = (double) this.yposition[shipA] - this.yposition[shipB];
+		double distance = Math.sqrt(xdelta*xdelta + ydelta*ydelta);
+		if (distance < (double) this.radius[shipA] + this.radius[shipB])
+			distance = -distance;
+		return distance;
+	}
+
+	/**
+	 * Return the time until the ships at the given indices collide.
+	 *
+	 * @return	| result == toShip(shipA).getTimeToCollision(toShip(shipB))
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(shipA) || ! isValidIndex(shipB)
+	 */
+	public double getTimeToCollision(int shipA, int shipB) throws IndexOutOfBoundsException {
+		checkIndex(shipA);
+		checkIndex(shipB);
+		return Ship.getTimeToCollision((double) this.xposition[shipB] - this.xposition[shipA],
+				(double) this.yposition[shipB] - this.yposition[shipA],
+				(double) this.xvelocity[shipB] - this.xvelocity[shipA],
+				(double) this.yvelocity[shipB] - this.yvelocity[shipA],
+				(double) this.radius[shipA] + this.radius[shipB]);
+	}
+
+	/**
+	 * Return a new ship with the state of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public Ship toShip(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		try {
+			return new Ship(this.xposition[index], this.yposition[index], this.xvelocity[index],
+					this.yvelocity[index], this.orientation[index], this.radius[index]);
+		} catch (IllegalRadiusException | IllegalValueException exc) {
+			// Every ship in a fleet satisfies the invariants of ships.
+			throw new AssertionError(exc);
+		}
+	}
+
+	/**
+	 * Variable registering the number of ships in this fleet.
+	 */
+	private int nbShips;
+
+	/**
+	 * Variables registering the X-coordinate and Y-coordinate of the
+	 * position of the ships in this fleet.
+	 */
+	private float[] xposition, yposition;
+
+	/**
+	 * Variables registering the X-coordinate and Y-coordinate of the
+	 * velocity of the ships in this fleet.
+	 */
+	private float[] xvelocity, yvelocity;
+
+	/**
+	 * Variable registering the orientation of the ships in this fleet.
+	 */
+	private float[] orientation;
+
+	/**
+	 * Variable registering the radius of the ships in this fleet.
+	 */
+	private float[] radius;
+
+	/**
+	 * Variable registering the default capacity of a float fleet.
+	 */
+	private static final int DEF_CAPACITY = 16;
+
+	/**
+	 * Variable registering the number of bytes of state per ship.
+	 */
+	public static final int BYTES_PER_SHIP = 6 * Float.BYTES;
+
+}
@@ -23,8 +23,15 @@ public class IllegalDurationException extends Exception {
 	 * @post   The value of this new illegal duration exception is equal
 	 *         to the given value.
 	 *       | new.getValue() == value
+	 * @effect This new illegal duration exception is further
+	 *         initialized as a new exception involving
+	 *         no diagnostic message, no cause and no stack trace.
+	 *       | super(null, null, false, false)
 	 */
 	public IllegalDurationException(double value) {
+		super(null, null, false, false);
+		if (ShipMetrics.ENABLED)
+			ShipMetrics.ILLEGAL_DURATIONS.increment();
 		this.value = value;
 	}
 
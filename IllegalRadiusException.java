@@ -23,7 +23,8 @@ public class IllegalRadiusException extends Exception {
 	 * @param 	radius
 	 * 			The radius for this new illegal radius exception
 	 * @param 	ship
-	 * 			The ship for this new illegal radius exception
+	 * 			The ship for this new illegal radius exception, or null
+	 * 			if the radius was given to initialize a new ship.
 	 * @post 	The radius for this new illegal radius exception
 	 * 			is equal to the given radius
 	 * 			| new.getRadius() == radius			// moeten dit nog schrijven (getradius())
@@ -31,13 +32,16 @@ public class IllegalRadiusException extends Exception {
 	 * 			is the same as the given ship.
 	 * 			| new.getShip() == ship
 	 * @effect	This new illegal radius exception is further
-	 * 			initialized as a new runtime exception involving
-	 * 			no dianostic message and no cuase.
-	 * 			| super()
+	 * 			initialized as a new exception involving
+	 * 			no dianostic message and no cause, without
+	 * 			capturing its stack trace.
+	 * 			| super(null, null, false, false)
 	 */
 	
 	public IllegalRadiusException (double radius, Ship ship) {  
-		
+		super(null, null, false, false);
+		if (ShipMetrics.ENABLED)
+			ShipMetrics.ILLEGAL_RADIUSES.increment();
 		this.radius = radius;
 		this.ship = ship;
 	}
@@ -35,13 +35,16 @@ public class IllegalValueException extends Exception {
 	 * 			is equal to the y-coordinate.
 	 * 			| new.getPositionY() == yposition
 	 * @effect	This new illegal value exception is further
-	 * 			initialized as a new runtime exception involving
-	 * 			no dianostic message and no cuase.
-	 * 			| super()
+	 * 			initialized as a new exception involving
+	 * 			no dianostic message and no cause, without
+	 * 			capturing its stack trace.
+	 * 			| super(null, null, false, false)
 	 */
 	
 	public IllegalValueException (double xposition, double yposition) {  
-		
+		super(null, null, false, false);
+		if (ShipMetrics.ENABLED)
+			ShipMetrics.ILLEGAL_VALUES.increment();
 		this.xposition = xposition;
 		this.yposition = yposition;
 	}
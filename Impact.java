@@ -0,0 +1,157 @@
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of predicted impacts between two ships of a fleet. Each impact
+ * involves the indices of both ships, the time until they collide and the
+ * position where they touch.
+ *
+ * @invar	The index of the first ship is below the index of the second ship.
+ * 			| getShipA() < getShipB()
+ * @invar	The time of each impact is not negative.
+ * 			| getTime() >= 0.0
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+@Value
+public final class Impact implements Comparable<Impact> {
+
+	/**
+	 * Initialize this new impact with the given ships, time and position.
+	 *
+	 * @param	shipA
+	 * 			The index of the first ship.
+	 * @param	shipB
+	 * 			The index of the second ship.
+	 * @param	time
+	 * 			The time until both ships collide.
+	 * @param	xposition
+	 * 			The X-coordinate of the position where both ships touch.
+	 * @param	yposition
+	 * 			The Y-coordinate of the position where both ships touch.
+	 * @post	| new.getShipA() == shipA && new.getShipB() == shipB
+	 * @post	| new.getTime() == time
+	 * @post	| new.getPositionX() == xposition && new.getPositionY() == yposition
+	 * @throws	IllegalArgumentException
+	 * 			The first index is not below the second index or the given
+	 * 			time is negative or NaN.
+	 * 			| shipA >= shipB || ! (time >= 0.0)
+	 */
+	public Impact(int shipA, int shipB, double time, double xposition, double yposition)
+			throws IllegalArgumentException {
+		if (shipA >= shipB)
+			throw new IllegalArgumentException("Illegal ships: " + shipA + ", " + shipB);
+		if (! (time >= 0.0))
+			throw new IllegalArgumentException("Illegal impact time: " + time);
+		this.shipA = shipA;
+		this.shipB = shipB;
+		this.time = time;
+		this.xposition = xposition;
+		this.yposition = yposition;
+	}
+
+	/**
+	 * Return the index of the first ship of this impact.
+	 */
+	@Basic @Immutable
+	public int getShipA() {
+		return this.shipA;
+	}
+
+	/**
+	 * Return the index of the second ship of this impact.
+	 */
+	@Basic @Immutable
+	public int getShipB() {
+		return this.shipB;
+	}
+
+	/**
+	 * Variables registering the indices of the ships of this impact.
+	 */
+	private final int shipA, shipB;
+
+	/**
+	 * Return the time until the ships of this impact collide.
+	 */
+	@Basic @Immutable
+	public double getTime() {
+		return this.time;
+	}
+
+	/**
+	 * Variable registering the time until the ships of this impact collide.
+	 */
+	private final double time;
+
+	/**
+	 * Return the X-coordinate of the position where the ships of this impact touch.
+	 */
+	@Basic @Immutable
+	public double getPositionX() {
+		return this.xposition;
+	}
+
+	/**
+	 * Return the Y-coordinate of the position where the ships of this impact touch.
+	 */
+	@Basic @Immutable
+	public double getPositionY() {
+		return this.yposition;
+	}
+
+	/**
+	 * Variables registering the position where the ships of this impact touch.
+	 */
+	private final double xposition, yposition;
+
+	/**
+	 * Compare this impact with the given impact by time, and then by ships.
+	 */
+	@Override
+	public int compareTo(Impact other) {
+		int result = Double.compare(this.time, other.time);
+		if (result == 0)
+			result = Integer.compare(this.shipA, other.shipA);
+		if (result == 0)
+			result = Integer.compare(this.shipB, other.shipB);
+		return result;
+	}
+
+	/**
+	 * Check whether this impact is equal to the given object.
+	 *
+	 * @return	True if and only if the given object is an impact with the
+	 * 			same ships, time and position.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (! (other instanceof Impact))
+			return false;
+		Impact impact = (Impact) other;
+		return (compareTo(impact) == 0) && (Double.compare(this.xposition, impact.xposition) == 0)
+				&& (Double.compare(this.yposition, impact.yposition) == 0);
+	}
+
+	/**
+	 * Return the hash code for this impact.
+	 */
+	@Override
+	public int hashCode() {
+		int result = 31 * this.shipA + this.shipB;
+		result = 31 * result + Double.hashCode(this.time);
+		result = 31 * result + Double.hashCode(this.xposition);
+		return 31 * result + Double.hashCode(this.yposition);
+	}
+
+	/**
+	 * Return a textual representation of this impact.
+	 */
+	@Override
+	public String toString() {
+		return "(" + this.shipA + ", " + this.shipB + ") at " + this.time
+				+ " in (" + this.xposition + ", " + this.yposition + ")";
+	}
+
+}
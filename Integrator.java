@@ -0,0 +1,36 @@
+/**
+ * An interface for numerical integrators advancing the ships of a fleet
+ * over a duration.
+ *
+ * During the duration each ship moves with its velocity and, if thrust
+ * rates are given, accelerates continuously along its orientation with its
+ * thrust rate, as if Ship.thrust(rate*dt) were applied over each small dt.
+ * Integrators differ in how they combine both over a single step.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public interface Integrator {
+
+	/**
+	 * Advance the given fleet over the given duration with the given thrust rates.
+	 *
+	 * @param	fleet
+	 * 			The fleet to advance.
+	 * @param	rates
+	 * 			The thrust rate of each ship of the fleet, as an amount per unit
+	 * 			of time, or null if no ship thrusts.
+	 * @param	duration
+	 * 			The duration to advance.
+	 * @throws	NullPointerException
+	 * 			| fleet == null
+	 * @throws	IllegalArgumentException
+	 * 			| rates != null && rates.length < fleet.getNbShips()
+	 * @throws	IllegalDurationException
+	 * 			| ! Ship.isValidDuration(duration) || Double.isInfinite(duration)
+	 */
+	void integrate(ShipFleet fleet, double[] rates, double duration)
+			throws NullPointerException, IllegalArgumentException, IllegalDurationException;
+
+}
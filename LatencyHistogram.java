@@ -0,0 +1,212 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of histograms of latencies in nanoseconds, safe for concurrent
+ * recording by several threads.
+ *
+ * A latency histogram counts values in buckets of logarithmically growing
+ * width, in the manner of HdrHistogram: each power of two is split in
+ * SUB_BUCKETS linear sub-buckets, such that any latency is registered with
+ * a relative error below 1 / SUB_BUCKETS, while all latencies up to the
+ * largest long fit in less than a thousand buckets. Recording a latency
+ * takes a handful of instructions and one atomic increment, and never
+ * allocates.
+ *
+ * @invar	The number of recorded latencies is not negative.
+ * 			| getCount() >= 0
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class LatencyHistogram {
+
+	/**
+	 * Initialize this new latency histogram with the given name and no
+	 * recorded latencies.
+	 *
+	 * @param	name
+	 * 			The name of this new histogram.
+	 * @post	| new.getName() == name
+	 * @post	| new.getCount() == 0
+	 */
+	public LatencyHistogram(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Return the name of this latency histogram.
+	 */
+	@Basic @Immutable
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Variable registering the name of this latency histogram.
+	 */
+	private final String name;
+
+	/**
+	 * Record the given latency in this histogram.
+	 *
+	 * @param	nanos
+	 * 			The latency to record, in nanoseconds.
+	 * @post	The number of recorded latencies is incremented by one;
+	 * 			negative latencies are recorded as zero.
+	 * 			| new.getCount() == getCount() + 1
+	 */
+	public void record(long nanos) {
+		if (nanos < 0L)
+			nanos = 0L;
+		this.counts.getAndIncrement(getBucket(nanos));
+		this.max.accumulate(nanos);
+	}
+
+	/**
+	 * Return the number of latencies recorded in this histogram.
+	 */
+	public long getCount() {
+		long count = 0L;
+		for (int i = 0; i < BUCKETS; i++)
+			count += this.counts.get(i);
+		return count;
+	}
+
+	/**
+	 * Return the largest latency recorded in this histogram, or zero if
+	 * no latencies are recorded.
+	 */
+	public long getMax() {
+		return this.max.get();
+	}
+
+	/**
+	 * Return the mean of the latencies recorded in this histogram, or zero
+	 * if no latencies are recorded. Each latency counts as the middle of
+	 * its bucket.
+	 */
+	public double getMean() {
+		long count = 0L;
+		double sum = 0.0;
+		for (int i = 0; i < BUCKETS; i++) {
+			long c = this.counts.get(i);
+			if (c != 0L) {
+				count += c;
+				sum += c * (0.5 * (getLowestValue(i) + getHighestValue(i)));
+			}
+		}
+		return (count == 0L) ? 0.0 : sum / count;
+	}
+
+	/**
+	 * Return the latency below or at which the given percentage of the
+	 * latencies recorded in this histogram lie.
+	 *
+	 * @param	percentile
+	 * 			The percentage, between 0 and 100.
+	 * @return	The highest value of the bucket holding the requested latency,
+	 * 			but no more than the largest recorded latency, or zero if no
+	 * 			latencies are recorded.
+	 * @throws	IllegalArgumentException
+	 * 			| ! (percentile >= 0.0 && percentile <= 100.0)
+	 */
+	public long getValueAtPercentile(double percentile) throws IllegalArgumentException {
+		if (! ((percentile >= 0.0) && (percentile <= 100.0)))
+			throw new IllegalArgumentException("Illegal percentile: " + percentile);
+		long[] snapshot = new long[BUCKETS];
+		long count = 0L;
+		for (int i = 0; i < BUCKETS; i++)
+			count += (snapshot[i] = this.counts.get(i));
+		if (count == 0L)
+			return 0L;
+		long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+		long seen = 0L;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= rank)
+				return Math.min(getHighestValue(i), getMax());
+		}
+		return getMax();
+	}
+
+	/**
+	 * Remove all latencies recorded in this histogram. Latencies recorded
+	 * concurrently with this method may or may not be removed.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++)
+			this.counts.set(i, 0L);
+		this.max.reset();
+	}
+
+	/**
+	 * Return a textual representation of this latency histogram.
+	 */
+	@Override
+	public String toString() {
+		return String.format("%s: count=%d mean=%.1fns p50=%dns p90=%dns p99=%dns p99.9=%dns max=%dns",
+				this.name, getCount(), getMean(), getValueAtPercentile(50.0), getValueAtPercentile(90.0),
+				getValueAtPercentile(99.0), getValueAtPercentile(99.9), getMax());
+	}
+
+	/**
+	 * Return the index of the bucket holding the given non-negative value.
+	 */
+	static int getBucket(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int shift = exponent - SUB_BUCKET_BITS;
+		return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+	}
+
+	/**
+	 * Return the lowest value held by the bucket with the given index.
+	 */
+	static long getLowestValue(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+		return (long) (SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+	}
+
+	/**
+	 * Return the highest value held by the bucket with the given index.
+	 */
+	static long getHighestValue(int bucket) {
+		if (bucket < SUB_BUCKETS)
+			return bucket;
+		int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+		return getLowestValue(bucket) + (1L << shift) - 1L;
+	}
+
+	/**
+	 * Variable registering the number of latencies recorded in each bucket.
+	 */
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * Variable registering the largest recorded latency.
+	 */
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+	/**
+	 * Variable registering the number of bits that select a sub-bucket.
+	 */
+	private static final int SUB_BUCKET_BITS = 4;
+
+	/**
+	 * Variable registering the number of sub-buckets per power of two.
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * Variable registering the number of buckets, enough for any non-negative long.
+	 */
+	private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+}
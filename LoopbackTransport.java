@@ -0,0 +1,203 @@
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of in-process transports between a state encoder and its clients,
+ * standing in for the network when testing and benchmarking.
+ *
+ * A loopback transport keeps a queue of packets for each client and a queue
+ * of acknowledgements for the server. It can drop a given fraction of the
+ * packets and acknowledgements it is handed, chosen by a seeded random
+ * generator, such that runs with losses are reproducible. Dropped and
+ * delivered packets are owned by the transport and by the receiving client
+ * respectively; the receiver releases a packet to the pool after decoding.
+ *
+ * A loopback transport is not safe for use by several threads at once.
+ *
+ * @invar	The loss rate of each loopback transport lies between zero and one.
+ * 			| 0.0 <= getLossRate() && getLossRate() <= 1.0
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class LoopbackTransport {
+
+	/**
+	 * Initialize this new loopback transport with the given pool, loss rate
+	 * and seed.
+	 *
+	 * @param	pool
+	 * 			The pool to which dropped packets are released.
+	 * @param	lossRate
+	 * 			The fraction of packets and acknowledgements to drop.
+	 * @param	seed
+	 * 			The seed of the generator choosing what to drop.
+	 * @post	| new.getPool() == pool && new.getLossRate() == lossRate
+	 * @throws	NullPointerException
+	 * 			| pool == null
+	 * @throws	IllegalArgumentException
+	 * 			| ! (0.0 <= lossRate && lossRate <= 1.0)
+	 */
+	public LoopbackTransport(BufferPool pool, double lossRate, long seed)
+			throws NullPointerException, IllegalArgumentException {
+		if (pool == null)
+			throw new NullPointerException();
+		if (! ((0.0 <= lossRate) && (lossRate <= 1.0)))
+			throw new IllegalArgumentException("Illegal loss rate: " + lossRate);
+		this.pool = pool;
+		this.lossRate = lossRate;
+		this.random = new Random(seed);
+	}
+
+	/**
+	 * Return the pool to which dropped packets are released.
+	 */
+	@Basic @Immutable
+	public BufferPool getPool() {
+		return this.pool;
+	}
+
+	/**
+	 * Variable referencing the pool to which dropped packets are released.
+	 */
+	private final BufferPool pool;
+
+	/**
+	 * Return the fraction of packets and acknowledgements dropped by this transport.
+	 */
+	@Basic @Immutable
+	public double getLossRate() {
+		return this.lossRate;
+	}
+
+	/**
+	 * Variable registering the fraction of packets and acknowledgements to drop.
+	 */
+	private final double lossRate;
+
+	/**
+	 * Variable referencing the generator choosing what to drop.
+	 */
+	private final Random random;
+
+	/**
+	 * Check whether the next packet or acknowledgement is dropped.
+	 */
+	private boolean drop() {
+		return (this.lossRate > 0.0) && (this.random.nextDouble() < this.lossRate);
+	}
+
+	/**
+	 * Send the given packet to the given client.
+	 *
+	 * @param	client
+	 * 			The client to send to.
+	 * @param	packet
+	 * 			The packet to send, of which the transport takes ownership.
+	 * @return	True if and only if the packet was not dropped.
+	 * @throws	NullPointerException
+	 * 			| packet == null
+	 * @throws	IllegalArgumentException
+	 * 			| client < 0
+	 */
+	public boolean send(int client, ByteBuffer packet) throws NullPointerException, IllegalArgumentException {
+		if (packet == null)
+			throw new NullPointerException();
+		if (client < 0)
+			throw new IllegalArgumentException("No client " + client);
+		this.nbPackets++;
+		this.nbBytes += packet.remaining();
+		if (drop()) {
+			this.pool.release(packet);
+			return false;
+		}
+		while (this.queues.size() <= client)
+			this.queues.add(new ArrayDeque<ByteBuffer>());
+		this.queues.get(client).add(packet);
+		return true;
+	}
+
+	/**
+	 * Return the next packet for the given client, or null if there is none.
+	 * The caller releases the packet to the pool after decoding it.
+	 */
+	public ByteBuffer receive(int client) {
+		if ((client < 0) || (client >= this.queues.size()))
+			return null;
+		return this.queues.get(client).poll();
+	}
+
+	/**
+	 * Send an acknowledgement of the given tick from the given client.
+	 *
+	 * @return	True if and only if the acknowledgement was not dropped.
+	 */
+	public boolean acknowledge(int client, long tick) {
+		if (drop())
+			return false;
+		this.acknowledgements.add(new long[] { client, tick });
+		return true;
+	}
+
+	/**
+	 * Deliver all pending acknowledgements to the given encoder, skipping
+	 * those of clients it no longer has.
+	 *
+	 * @return	The number of acknowledgements delivered.
+	 * @throws	NullPointerException
+	 * 			| encoder == null
+	 */
+	public int deliverAcknowledgements(StateEncoder encoder) throws NullPointerException {
+		int delivered = 0;
+		long[] acknowledgement;
+		while ((acknowledgement = this.acknowledgements.poll()) != null) {
+			int client = (int) acknowledgement[0];
+			if (encoder.hasClient(client)) {
+				encoder.acknowledge(client, acknowledgement[1]);
+				delivered++;
+			}
+		}
+		return delivered;
+	}
+
+	/**
+	 * Return the number of packets handed to this transport, including
+	 * dropped packets.
+	 */
+	@Basic
+	public long getNbPackets() {
+		return this.nbPackets;
+	}
+
+	/**
+	 * Return the number of bytes of the packets handed to this transport,
+	 * including dropped packets.
+	 */
+	@Basic
+	public long getNbBytes() {
+		return this.nbBytes;
+	}
+
+	/**
+	 * Variables registering the number of packets and bytes handed to this transport.
+	 */
+	private long nbPackets, nbBytes;
+
+	/**
+	 * Variable referencing the queue of packets of each client.
+	 */
+	private final List<ArrayDeque<ByteBuffer>> queues = new ArrayList<ArrayDeque<ByteBuffer>>();
+
+	/**
+	 * Variable referencing the queue of acknowledgements, as pairs of a
+	 * client and a tick.
+	 */
+	private final ArrayDeque<long[]> acknowledgements = new ArrayDeque<long[]>();
+
+}
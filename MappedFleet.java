@@ -0,0 +1,280 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of fleets saved in a binary file and mapped into memory.
+ *
+ * A fleet file starts with a header of 16 bytes: the magic number "SHIP",
+ * the version of the format as an int and the number of ships as a long.
+ * The header is followed by one record of 48 bytes per ship, holding the
+ * X- and Y-coordinate of its position, the X- and Y-coordinate of its
+ * velocity, its orientation and its radius as six doubles. All values are
+ * stored in little-endian byte order.
+ *
+ * Opening a fleet file maps it into memory without reading it: the
+ * records are only read when they are accessed, and a ship is only built
+ * for a record when it is asked for.
+ *
+ * @invar	The number of ships of each mapped fleet is not negative.
+ * 			| getNbShips() >= 0
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class MappedFleet {
+
+	/**
+	 * Save the given fleet to the file at the given path, replacing
+	 * any existing file.
+	 *
+	 * @param	fleet
+	 * 			The fleet to save.
+	 * @param	path
+	 * 			The path of the file to save to.
+	 * @post	The file at the given path holds the header and one record for
+	 * 			each ship of the given fleet, in the order of their indices.
+	 * 			| open(path).getNbShips() == fleet.getNbShips()
+	 * @throws	IllegalArgumentException
+	 * 			The fleet is too large to be mapped into memory at once.
+	 * 			| HEADER_SIZE + fleet.getNbShips() * RECORD_SIZE > Integer.MAX_VALUE
+	 * @throws	IOException
+	 * 			The file could not be written.
+	 */
+	public static void write(ShipFleet fleet, Path path) throws IllegalArgumentException, IOException {
+		int n = fleet.getNbShips();
+		long size = HEADER_SIZE + (long) n * RECORD_SIZE;
+		if (size > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Fleet too large to map: " + n + " ships");
+		double[] x = fleet.getPositionsX(), y = fleet.getPositionsY();
+		double[] vx = fleet.getVelocitiesX(), vy = fleet.getVelocitiesY();
+		double[] orientation = fleet.getOrientations(), radius = fleet.getRadii();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(MAGIC).putInt(VERSION).putLong(n);
+			for (int i = 0; i < n; i++)
+				buffer.putDouble(x[i]).putDouble(y[i]).putDouble(vx[i]).putDouble(vy[i])
+						.putDouble(orientation[i]).putDouble(radius[i]);
+			buffer.force();
+		}
+	}
+
+	/**
+	 * Open the fleet file at the given path.
+	 *
+	 * @param	path
+	 * 			The path of the file to open.
+	 * @return	A mapped fleet on the file at the given path.
+	 * @throws	IOException
+	 * 			The file could not be read, or it is not a fleet file of a
+	 * 			supported version, or its size does not match its header.
+	 */
+	public static MappedFleet open(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < HEADER_SIZE)
+				throw new IOException("Not a fleet file: " + path);
+			if (size > Integer.MAX_VALUE)
+				throw new IOException("Fleet file too large to map: " + path);
+			// A mapping stays valid after its channel is closed.
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			if (buffer.getInt(0) != MAGIC)
+				throw new IOException("Not a fleet file: " + path);
+			if (buffer.getInt(4) != VERSION)
+				throw new IOException("Unsupported fleet file version " + buffer.getInt(4) + ": " + path);
+			long n = buffer.getLong(8);
+			if ((n < 0) || (HEADER_SIZE + n * RECORD_SIZE != size))
+				throw new IOException("Corrupt fleet file: " + path);
+			return new MappedFleet(buffer, (int) n);
+		}
+	}
+
+	/**
+	 * Initialize this new mapped fleet with the given buffer and number of ships.
+	 */
+	private MappedFleet(MappedByteBuffer buffer, int nbShips) {
+		this.buffer = buffer;
+		this.nbShips = nbShips;
+	}
+
+	/**
+	 * Variable referencing the buffer mapped onto the file of this fleet.
+	 */
+	private final MappedByteBuffer buffer;
+
+	/**
+	 * Return the number of ships in this mapped fleet.
+	 */
+	@Basic @Immutable
+	public int getNbShips() {
+		return this.nbShips;
+	}
+
+	/**
+	 * Variable registering the number of ships in this mapped fleet.
+	 */
+	private final int nbShips;
+
+	/**
+	 * Return the value of the given field of the record of the ship at the
+	 * given index.
+	 */
+	private double read(int index, int field) throws IndexOutOfBoundsException {
+		if ((index < 0) || (index >= this.nbShips))
+			throw new IndexOutOfBoundsException("No ship at index " + index);
+		return this.buffer.getDouble(HEADER_SIZE + index * RECORD_SIZE + field * Double.BYTES);
+	}
+
+	/**
+	 * Return the X-coordinate of the position of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getPositionX(int index) throws IndexOutOfBoundsException {
+		return read(index, 0);
+	}
+
+	/**
+	 * Return the Y-coordinate of the position of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getPositionY(int index) throws IndexOutOfBoundsException {
+		return read(index, 1);
+	}
+
+	/**
+	 * Return the X-coordinate of the velocity of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getVelocityX(int index) throws IndexOutOfBoundsException {
+		return read(index, 2);
+	}
+
+	/**
+	 * Return the Y-coordinate of the velocity of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getVelocityY(int index) throws IndexOutOfBoundsException {
+		return read(index, 3);
+	}
+
+	/**
+	 * Return the orientation of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getOrientation(int index) throws IndexOutOfBoundsException {
+		return read(index, 4);
+	}
+
+	/**
+	 * Return the radius of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getRadius(int index) throws IndexOutOfBoundsException {
+		return read(index, 5);
+	}
+
+	/**
+	 * Return a new ship with the state recorded for the ship at the given index.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @return	A new ship with the recorded position, velocity, orientation and radius.
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 * @throws	IllegalValueException
+	 * 			The recorded position is not a valid position.
+	 * @throws	IllegalRadiusException
+	 * 			The recorded radius is not a valid radius.
+	 */
+	public Ship getShip(int index) throws IndexOutOfBoundsException, IllegalValueException, IllegalRadiusException {
+		return new Ship(getPositionX(index), getPositionY(index), getVelocityX(index), getVelocityY(index),
+				getOrientation(index), getRadius(index));
+	}
+
+	/**
+	 * Return a new fleet holding all ships of this mapped fleet.
+	 *
+	 * @return	A new fleet of which each ship has the state recorded for the
+	 * 			ship at the same index, bit for bit.
+	 * @throws	IllegalValueException
+	 * 			A recorded position is not a valid position.
+	 * @throws	IllegalRadiusException
+	 * 			A recorded radius is not a valid radius.
+	 */
+	public ShipFleet toFleet() throws IllegalValueException, IllegalRadiusException {
+		ShipFleet fleet = new ShipFleet(this.nbShips);
+		addTo(fleet);
+		return fleet;
+	}
+
+	/**
+	 * Add all ships of this mapped fleet to the given fleet, in the order of
+	 * their indices. The recorded states are copied as they are: a recorded
+	 * velocity is not checked, since it was saved from a fleet.
+	 *
+	 * @param	fleet
+	 * 			The fleet to add the ships to.
+	 * @throws	IllegalValueException
+	 * 			A recorded position is not a valid position. The ships before
+	 * 			it have been added.
+	 * @throws	IllegalRadiusException
+	 * 			A recorded radius is not a valid radius. The ships before it
+	 * 			have been added.
+	 */
+	void addTo(ShipFleet fleet) throws IllegalValueException, IllegalRadiusException {
+		final MappedByteBuffer buffer = this.buffer;
+		for (int i = 0; i < this.nbShips; i++) {
+			int offset = HEADER_SIZE + i * RECORD_SIZE;
+			double x = buffer.getDouble(offset), y = buffer.getDouble(offset + Double.BYTES);
+			double radius = buffer.getDouble(offset + 5 * Double.BYTES);
+			if (! Ship.isValidPosition(x, y))
+				throw new IllegalValueException(x, y);
+			if (! Ship.isValidRadius(radius))
+				throw new IllegalRadiusException(radius, null);
+			fleet.append(x, y, buffer.getDouble(offset + 2 * Double.BYTES), buffer.getDouble(offset + 3 * Double.BYTES),
+					buffer.getDouble(offset + 4 * Double.BYTES), radius);
+		}
+	}
+
+	/**
+	 * Variable registering the magic number at the start of each fleet file.
+	 */
+	private static final int MAGIC = 0x50494853; // "SHIP" in little-endian order
+
+	/**
+	 * Variable registering the version of the format of fleet files.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Variable registering the size of the header of a fleet file in bytes.
+	 */
+	public static final int HEADER_SIZE = 16;
+
+	/**
+	 * Variable registering the size of the record of a ship in bytes.
+	 */
+	public static final int RECORD_SIZE = 6 * Double.BYTES;
+
+}
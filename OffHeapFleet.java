@@ -0,0 +1,714 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of fleets of ships stored outside the Java heap.
+ *
+ * An off-heap fleet stores the state of its ships column by column, like a
+ * ShipFleet, but in direct buffers of native byte order instead of arrays.
+ * A fleet of ten million ships thus takes 480 MB of native memory and only
+ * a handful of objects on the heap, which the garbage collector never has
+ * to copy or scan. Moving all ships and looking for collisions run
+ * directly over the buffers; single ships are reached through flyweight
+ * views, which can be moved from one index to another without allocating.
+ *
+ * The memory of an off-heap fleet is released when the fleet is garbage
+ * collected. An off-heap fleet is not safe for use by several threads at once.
+ *
+ * @invar	Each ship in an off-heap fleet satisfies the invariants of ships.
+ * 			| for each index in 0..getNbShips()-1:
+ * 			|	Ship.isValidPosition(getPositionX(index), getPositionY(index))
+ * 			|	&& Ship.isValidOrientation(getOrientation(index))
+ * 			|	&& Ship.isValidRadius(getRadius(index))
+ * @invar	The capacity of each off-heap fleet does not exceed the maximum capacity.
+ * 			| getCapacity() <= MAX_CAPACITY
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class OffHeapFleet {
+
+	/**
+	 * Initialize this new off-heap fleet without any ships and with the
+	 * given initial capacity.
+	 *
+	 * @param	capacity
+	 * 			The number of ships this fleet can store before it grows.
+	 * @post	| new.getNbShips() == 0
+	 * @post	| new.getCapacity() == capacity
+	 * @throws	IllegalArgumentException
+	 * 			| capacity < 0 || capacity > MAX_CAPACITY
+	 */
+	public OffHeapFleet(int capacity) throws IllegalArgumentException {
+		if ((capacity < 0) || (capacity > MAX_CAPACITY))
+			throw new IllegalArgumentException("Illegal capacity: " + capacity);
+		allocate(capacity);
+	}
+
+	/**
+	 * Return the number of ships in this fleet.
+	 */
+	@Basic
+	public int getNbShips() {
+		return this.nbShips;
+	}
+
+	/**
+	 * Return the number of ships this fleet can store before it grows.
+	 */
+	@Basic
+	public int getCapacity() {
+		return this.xposition.capacity();
+	}
+
+	/**
+	 * Return the number of bytes of native memory taken by this fleet.
+	 *
+	 * @return	| result == (long) getCapacity() * COLUMNS * Double.BYTES
+	 */
+	public long getMemoryUsage() {
+		return (long) getCapacity() * COLUMNS * Double.BYTES;
+	}
+
+	/**
+	 * Add a new ship with the given position, velocity, orientation and
+	 * radius to this fleet.
+	 *
+	 * @param 	xposition
+	 * 			The X-coordinate of the position for the new ship.
+	 * @param 	yposition
+	 * 			The Y-coordinate of the position for the new ship.
+	 * @param 	xvelocity
+	 * 			The X-coordinate of the velocity for the new ship.
+	 * @param 	yvelocity
+	 * 			The Y-coordinate of the velocity for the new ship.
+	 * @param 	orientation
+	 * 			The orientation for the new ship.
+	 * @param 	radius
+	 * 			The radius for the new ship.
+	 * @pre		| Ship.isValidOrientation(orientation)
+	 * @post	The new ship has the given position, orientation and radius.
+	 * 			If the given velocity is a valid velocity, the new ship has the
+	 * 			given velocity, otherwise it does not move.
+	 * @return	The index of the new ship.
+	 * 			| result == getNbShips()
+	 * @throws	IllegalValueException
+	 * 			| ! Ship.isValidPosition(xposition, yposition)
+	 * @throws	IllegalRadiusException
+	 * 			| ! Ship.isValidRadius(radius)
+	 * @throws	IllegalStateException
+	 * 			The fleet holds the maximum number of ships.
+	 * 			| getNbShips() == MAX_CAPACITY
+	 */
+	public int add(double xposition, double yposition, double xvelocity, double yvelocity,
+			double orientation, double radius) throws IllegalValueException, IllegalRadiusException, IllegalStateException {
+		assert Ship.isValidOrientation(orientation);
+		if (! Ship.isValidPosition(xposition, yposition))
+			throw new IllegalValueException(xposition, yposition);
+		if (! Ship.isValidRadius(radius))
+			throw new IllegalRadiusException(radius, null);
+		if (! Ship.isValidVelocity(xvelocity, yvelocity)) {
+			xvelocity = 0.0;
+			yvelocity = 0.0;
+		}
+		return append(xposition, yposition, xvelocity, yvelocity, orientation, radius);
+	}
+
+	/**
+	 * Add a copy of the given ship to this fleet.
+	 *
+	 * @param	ship
+	 * 			The ship to copy into this fleet.
+	 * @return	The index of the new ship.
+	 * 			| result == add(ship.getPositionX(), ship.getPositionY(),
+	 * 			|	ship.getVelocityX(), ship.getVelocityY(),
+	 * 			|	ship.getOrientation(), ship.getRadius())
+	 * @throws	NullPointerException
+	 * 			| ship == null
+	 * @throws	IllegalStateException
+	 * 			| getNbShips() == MAX_CAPACITY
+	 */
+	public int add(Ship ship) throws NullPointerException, IllegalStateException {
+		return append(ship.getPositionX(), ship.getPositionY(), ship.getVelocityX(), ship.getVelocityY(),
+				ship.getOrientation(), ship.getRadius());
+	}
+
+	/**
+	 * Add a copy of all ships of the given fleet to this fleet, in the order
+	 * of their indices.
+	 *
+	 * @param	fleet
+	 * 			The fleet to copy into this fleet.
+	 * @throws	NullPointerException
+	 * 			| fleet == null
+	 * @throws	IllegalStateException
+	 * 			| getNbShips() + fleet.getNbShips() > MAX_CAPACITY
+	 */
+	public void addAll(ShipFleet fleet) throws NullPointerException, IllegalStateException {
+		int n = fleet.getNbShips();
+		if ((long) this.nbShips + n > MAX_CAPACITY)
+			throw new IllegalStateException("Fleet full: " + MAX_CAPACITY + " ships");
+		while (getCapacity() < this.nbShips + n)
+			grow();
+		int offset = this.nbShips;
+		this.xposition.put(offset, fleet.getPositionsX(), 0, n);
+		this.yposition.put(offset, fleet.getPositionsY(), 0, n);
+		this.xvelocity.put(offset, fleet.getVelocitiesX(), 0, n);
+		this.yvelocity.put(offset, fleet.getVelocitiesY(), 0, n);
+		this.orientation.put(offset, fleet.getOrientations(), 0, n);
+		this.radius.put(offset, fleet.getRadii(), 0, n);
+		this.nbShips += n;
+	}
+
+	/**
+	 * Store a new ship with the given state, which satisfies the invariants
+	 * of ships, at the end of this fleet.
+	 */
+	private int append(double xposition, double yposition, double xvelocity, double yvelocity,
+			double orientation, double radius) throws IllegalStateException {
+		if (this.nbShips == getCapacity())
+			grow();
+		int index = this.nbShips++;
+		this.xposition.put(index, xposition);
+		this.yposition.put(index, yposition);
+		this.xvelocity.put(index, xvelocity);
+		this.yvelocity.put(index, yvelocity);
+		this.orientation.put(index, orientation);
+		this.radius.put(index, radius);
+		return index;
+	}
+
+	/**
+	 * Remove all ships from this fleet. The native memory is kept for new ships.
+	 *
+	 * @post	| new.getNbShips() == 0
+	 */
+	public void clear() {
+		this.nbShips = 0;
+	}
+
+	/**
+	 * Double the capacity of this fleet, without exceeding the maximum capacity.
+	 */
+	private void grow() throws IllegalStateException {
+		int capacity = getCapacity();
+		if (capacity == MAX_CAPACITY)
+			throw new IllegalStateException("Fleet full: " + MAX_CAPACITY + " ships");
+		DoubleBuffer[] columns = { this.xposition, this.yposition, this.xvelocity, this.yvelocity,
+				this.orientation, this.radius };
+		allocate((int) Math.min(MAX_CAPACITY, Math.max(DEF_CAPACITY, 2L * capacity)));
+		DoubleBuffer[] copies = { this.xposition, this.yposition, this.xvelocity, this.yvelocity,
+				this.orientation, this.radius };
+		for (int c = 0; c < COLUMNS; c++)
+			copies[c].put(0, columns[c], 0, this.nbShips);
+	}
+
+	/**
+	 * Allocate new columns with the given capacity for this fleet.
+	 */
+	private void allocate(int capacity) {
+		this.xposition = allocateColumn(capacity);
+		this.yposition = allocateColumn(capacity);
+		this.xvelocity = allocateColumn(capacity);
+		this.yvelocity = allocateColumn(capacity);
+		this.orientation = allocateColumn(capacity);
+		this.radius = allocateColumn(capacity);
+	}
+
+	/**
+	 * Return a new column of native memory holding the given number of doubles.
+	 */
+	private static DoubleBuffer allocateColumn(int capacity) {
+		return ByteBuffer.allocateDirect(capacity * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+	}
+
+	/**
+	 * Check whether the given index refers to a ship in this fleet.
+	 *
+	 * @param	index
+	 * 			The index to check.
+	 * @return	| result == (0 <= index && index < getNbShips())
+	 */
+	public boolean isValidIndex(int index) {
+		return (0 <= index) && (index < this.nbShips);
+	}
+
+	/**
+	 * Check the given index and throw an exception if it does not refer
+	 * to a ship in this fleet.
+	 */
+	private void checkIndex(int index) throws IndexOutOfBoundsException {
+		if (! isValidIndex(index))
+			throw new IndexOutOfBoundsException("No ship at index " + index);
+	}
+
+	/**
+	 * Return the X-coordinate of the position of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getPositionX(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.xposition.get(index);
+	}
+
+	/**
+	 * Return the Y-coordinate of the position of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getPositionY(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.yposition.get(index);
+	}
+
+	/**
+	 * Return the X-coordinate of the velocity of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getVelocityX(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.xvelocity.get(index);
+	}
+
+	/**
+	 * Return the Y-coordinate of the velocity of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getVelocityY(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.yvelocity.get(index);
+	}
+
+	/**
+	 * Return the orientation of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getOrientation(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.orientation.get(index);
+	}
+
+	/**
+	 * Return the radius of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getRadius(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.radius.get(index);
+	}
+
+	/**
+	 * Set the position of the ship at the given index to the given position.
+	 *
+	 * @post	| new.getPositionX(index) == xposition
+	 * 			| 	&& new.getPositionY(index) == yposition
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 * @throws 	IllegalValueException(xposition,yposition)
+	 * 			| ! Ship.isValidPosition(xposition,yposition)
+	 */
+	public void setPosition(int index, double xposition, double yposition)
+			throws IndexOutOfBoundsException, IllegalValueException {
+		checkIndex(index);
+		if (! Ship.isValidPosition(xposition, yposition))
+			throw new IllegalValueException(xposition, yposition);
+		this.xposition.put(index, xposition);
+		this.yposition.put(index, yposition);
+	}
+
+	/**
+	 * Set the velocity of the ship at the given index to the given velocity.
+	 *
+	 * @post	If the given velocity is valid, the ship has the given velocity.
+	 * 			| if ( Ship.isValidVelocity(xvelocity, yvelocity) )
+	 * 			|	then ( new.getVelocityX(index) == xvelocity
+	 * 			|		&& new.getVelocityY(index) == yvelocity )
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public void setVelocity(int index, double xvelocity, double yvelocity) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		if (Ship.isValidVelocity(xvelocity, yvelocity)) {
+			this.xvelocity.put(index, xvelocity);
+			this.yvelocity.put(index, yvelocity);
+		}
+	}
+
+	/**
+	 * Set the orientation of the ship at the given index to the given orientation.
+	 *
+	 * @pre		| Ship.isValidOrientation(orientation)
+	 * @post	| new.getOrientation(index) == orientation
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public void setOrientation(int index, double orientation) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		assert Ship.isValidOrientation(orientation);
+		this.orientation.put(index, orientation);
+	}
+
+	/**
+	 * Set the radius of the ship at the given index to the given radius.
+	 *
+	 * @post	| new.getRadius(index) == radius
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 * @throws 	IllegalRadiusException(radius,null)
+	 * 			| ! Ship.isValidRadius(radius)
+	 */
+	public void setRadius(int index, double radius) throws IndexOutOfBoundsException, IllegalRadiusException {
+		checkIndex(index);
+		if (! Ship.isValidRadius(radius))
+			throw new IllegalRadiusException(radius, null);
+		this.radius.put(index, radius);
+	}
+
+	/**
+	 * Change the position of every ship in this fleet with the given duration,
+	 * based on the current position and velocity of each ship.
+	 *
+	 * @param 	duration
+	 * 			The duration over which all ships move.
+	 * @effect	Each ship is moved as if by Ship.move(duration).
+	 * 			| for each index in 0..getNbShips()-1:
+	 * 			|	setPosition(index,
+	 * 			|		getPositionX(index) + duration*getVelocityX(index),
+	 * 			|		getPositionY(index) + duration*getVelocityY(index))
+	 * @throws 	IllegalDurationException
+	 * 			| ! Ship.isValidDuration(duration) || Double.isInfinite(duration)
+	 */
+	public void moveAll(double duration) throws IllegalDurationException {
+		if (! Ship.isValidDuration(duration) || Double.isInfinite(duration))
+			throw new IllegalDurationException(duration);
+		final DoubleBuffer xposition = this.xposition, yposition = this.yposition;
+		final DoubleBuffer xvelocity = this.xvelocity, yvelocity = this.yvelocity;
+		final int n = this.nbShips;
+		for (int i = 0; i < n; i++) {
+			xposition.put(i, xposition.get(i) + duration * xvelocity.get(i));
+			yposition.put(i, yposition.get(i) + duration * yvelocity.get(i));
+		}
+	}
+
+	/**
+	 * Return the time until the ships at the given indices collide.
+	 *
+	 * @return	| result == toShip(shipA).getTimeToCollision(toShip(shipB))
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(shipA) || ! isValidIndex(shipB)
+	 */
+	public double getTimeToCollision(int shipA, int shipB) throws IndexOutOfBoundsException {
+		checkIndex(shipA);
+		checkIndex(shipB);
+		return timeToCollision(shipA, shipB);
+	}
+
+	/**
+	 * Return the time until the ships at the given valid indices collide.
+	 */
+	private double timeToCollision(int a, int b) {
+		return Ship.getTimeToCollision(this.xposition.get(b) - this.xposition.get(a),
+				this.yposition.get(b) - this.yposition.get(a), this.xvelocity.get(b) - this.xvelocity.get(a),
+				this.yvelocity.get(b) - this.yvelocity.get(a), this.radius.get(a) + this.radius.get(b));
+	}
+
+	/**
+	 * Return the pair of ships that collides first within the given horizon.
+	 *
+	 * The ships are swept and pruned along the X-axis as by a BroadPhase.
+	 * The only memory taken on the heap is the sort order and the lower
+	 * X-bounds of the ships, twelve bytes per ship, which are kept for
+	 * later queries; all other bounds are computed from the columns.
+	 *
+	 * @param	horizon
+	 * 			The time horizon over which ships are swept.
+	 * @return	The collision pair with the smallest time to collision not
+	 * 			above the given horizon, or null if no ships collide within
+	 * 			that horizon. Ships that already overlap collide at time zero.
+	 * @throws	IllegalDurationException
+	 * 			| ! BroadPhase.isValidHorizon(horizon)
+	 */
+	public CollisionPair getEarliestCollision(double horizon) throws IllegalDurationException {
+		if (! BroadPhase.isValidHorizon(horizon))
+			throw new IllegalDurationException(horizon);
+		final int n = this.nbShips;
+		if (this.order.length < n) {
+			this.order = new int[n];
+			this.minX = new double[n];
+		}
+		final int[] order = this.order;
+		final double[] minX = this.minX;
+		final DoubleBuffer x = this.xposition, y = this.yposition;
+		final DoubleBuffer vx = this.xvelocity, vy = this.yvelocity, r = this.radius;
+		for (int i = 0; i < n; i++) {
+			minX[i] = x.get(i) + Math.min(0.0, horizon * vx.get(i)) - r.get(i);
+			order[i] = i;
+		}
+		BroadPhase.sort(order, minX, 0, n - 1);
+		double best = Double.POSITIVE_INFINITY;
+		int bestA = -1, bestB = -1;
+		for (int k = 0; k < n; k++) {
+			int a = order[k];
+			double dy = horizon * vy.get(a);
+			double maxXa = x.get(a) + Math.max(0.0, horizon * vx.get(a)) + r.get(a);
+			double minYa = y.get(a) + Math.min(0.0, dy) - r.get(a);
+			double maxYa = y.get(a) + Math.max(0.0, dy) + r.get(a);
+			for (int l = k + 1; (l < n) && (minX[order[l]] <= maxXa); l++) {
+				int b = order[l];
+				double dyb = horizon * vy.get(b);
+				if ((y.get(b) + Math.min(0.0, dyb) - r.get(b) > maxYa) || (y.get(b) + Math.max(0.0, dyb) + r.get(b) < minYa))
+					continue;
+				double time = timeToCollision(a, b);
+				if (time < best) {
+					best = time;
+					bestA = Math.min(a, b);
+					bestB = Math.max(a, b);
+				}
+			}
+		}
+		if (best > horizon)
+			return null;
+		return new CollisionPair(bestA, bestB, best);
+	}
+
+	/**
+	 * Return a new ship with the state of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public Ship toShip(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		try {
+			return new Ship(this.xposition.get(index), this.yposition.get(index), this.xvelocity.get(index),
+					this.yvelocity.get(index), this.orientation.get(index), this.radius.get(index));
+		} catch (IllegalRadiusException | IllegalValueException exc) {
+			// Every ship in a fleet satisfies the invariants of ships.
+			throw new AssertionError(exc);
+		}
+	}
+
+	/**
+	 * Return a view on the ship at the given index.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @return	| result.getFleet() == this && result.getIndex() == index
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public View getShip(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return new View(index);
+	}
+
+	/**
+	 * A class of flyweight views on a single ship of an off-heap fleet.
+	 * A view stores nothing but the index of its ship, which can be changed
+	 * such that a single view can visit every ship of its fleet in turn.
+	 */
+	public class View {
+
+		/**
+		 * Initialize this new view on the ship at the given index.
+		 */
+		private View(int index) {
+			this.index = index;
+		}
+
+		/**
+		 * Return the fleet of this view.
+		 */
+		@Basic @Immutable
+		public OffHeapFleet getFleet() {
+			return OffHeapFleet.this;
+		}
+
+		/**
+		 * Return the index of the ship of this view.
+		 */
+		@Basic
+		public int getIndex() {
+			return this.index;
+		}
+
+		/**
+		 * Move this view to the ship at the given index.
+		 *
+		 * @post	| new.getIndex() == index
+		 * @return	| result == this
+		 * @throws	IndexOutOfBoundsException
+		 * 			| ! getFleet().isValidIndex(index)
+		 */
+		public View at(int index) throws IndexOutOfBoundsException {
+			checkIndex(index);
+			this.index = index;
+			return this;
+		}
+
+		/**
+		 * Variable registering the index of the ship of this view.
+		 */
+		private int index;
+
+		/**
+		 * Return the X-coordinate of the position of the ship of this view.
+		 */
+		public double getPositionX() {
+			return OffHeapFleet.this.getPositionX(this.index);
+		}
+
+		/**
+		 * Return the Y-coordinate of the position of the ship of this view.
+		 */
+		public double getPositionY() {
+			return OffHeapFleet.this.getPositionY(this.index);
+		}
+
+		/**
+		 * Return the X-coordinate of the velocity of the ship of this view.
+		 */
+		public double getVelocityX() {
+			return OffHeapFleet.this.getVelocityX(this.index);
+		}
+
+		/**
+		 * Return the Y-coordinate of the velocity of the ship of this view.
+		 */
+		public double getVelocityY() {
+			return OffHeapFleet.this.getVelocityY(this.index);
+		}
+
+		/**
+		 * Return the orientation of the ship of this view.
+		 */
+		public double getOrientation() {
+			return OffHeapFleet.this.getOrientation(this.index);
+		}
+
+		/**
+		 * Return the radius of the ship of this view.
+		 */
+		public double getRadius() {
+			return OffHeapFleet.this.getRadius(this.index);
+		}
+
+		/**
+		 * Set the position of the ship of this view to the given position.
+		 *
+		 * @effect	| getFleet().setPosition(getIndex(), xposition, yposition)
+		 */
+		public void setPosition(double xposition, double yposition) throws IllegalValueException {
+			OffHeapFleet.this.setPosition(this.index, xposition, yposition);
+		}
+
+		/**
+		 * Set the velocity of the ship of this view to the given velocity.
+		 *
+		 * @effect	| getFleet().setVelocity(getIndex(), xvelocity, yvelocity)
+		 */
+		public void setVelocity(double xvelocity, double yvelocity) {
+			OffHeapFleet.this.setVelocity(this.index, xvelocity, yvelocity);
+		}
+
+		/**
+		 * Set the orientation of the ship of this view to the given orientation.
+		 *
+		 * @effect	| getFleet().setOrientation(getIndex(), orientation)
+		 */
+		public void setOrientation(double orientation) {
+			OffHeapFleet.this.setOrientation(this.index, orientation);
+		}
+
+		/**
+		 * Set the radius of the ship of this view to the given radius.
+		 *
+		 * @effect	| getFleet().setRadius(getIndex(), radius)
+		 */
+		public void setRadius(double radius) throws IllegalRadiusException {
+			OffHeapFleet.this.setRadius(this.index, radius);
+		}
+
+		/**
+		 * Return a new ship with the state of the ship of this view.
+		 *
+		 * @effect	| getFleet().toShip(getIndex())
+		 */
+		public Ship toShip() {
+			return OffHeapFleet.this.toShip(this.index);
+		}
+
+	}
+
+	/**
+	 * Variable registering the number of ships in this fleet.
+	 */
+	private int nbShips;
+
+	/**
+	 * Variables referencing the columns of native memory holding the
+	 * X-coordinate and Y-coordinate of the position of the ships in this fleet.
+	 */
+	private DoubleBuffer xposition, yposition;
+
+	/**
+	 * Variables referencing the columns of native memory holding the
+	 * X-coordinate and Y-coordinate of the velocity of the ships in this fleet.
+	 */
+	private DoubleBuffer xvelocity, yvelocity;
+
+	/**
+	 * Variable referencing the column of native memory holding the
+	 * orientation of the ships in this fleet.
+	 */
+	private DoubleBuffer orientation;
+
+	/**
+	 * Variable referencing the column of native memory holding the radius
+	 * of the ships in this fleet.
+	 */
+	private DoubleBuffer radius;
+
+	/**
+	 * Variable registering the indices of the ships sorted by the lower
+	 * X-bound of their swept bounding box.
+	 */
+	private int[] order = new int[0];
+
+	/**
+	 * Variable registering the lower X-bound of the swept bounding box of the ships.
+	 */
+	private double[] minX = new double[0];
+
+	/**
+	 * Variable registering the number of columns of an off-heap fleet.
+	 */
+	private static final int COLUMNS = 6;
+
+	/**
+	 * Variable registering the default capacity of an off-heap fleet.
+	 */
+	private static final int DEF_CAPACITY = 16;
+
+	/**
+	 * Variable registering the maximum capacity of an off-heap fleet, the
+	 * largest number of doubles a single direct buffer can hold.
+	 */
+	public static final int MAX_CAPACITY = Integer.MAX_VALUE / Double.BYTES;
+
+}
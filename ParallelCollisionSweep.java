@@ -0,0 +1,296 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of parallel sweeps computing the time to collision of all pairs
+ * of a group of ships.
+ *
+ * The pairs (i, j) with i < j are split into ranges of rows, balanced by
+ * the number of pairs they hold, and handed to fork/join tasks. Each task
+ * reduces its pairs to the earliest collision in its range and to the
+ * earliest collision of each ship; the latter is shared between tasks and
+ * updated with a lock-free atomic minimum.
+ *
+ * The ships must not be changed while a sweep runs; a sweep only reads them.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class ParallelCollisionSweep {
+
+	/**
+	 * Initialize this new parallel collision sweep running on the given pool.
+	 *
+	 * @param	pool
+	 * 			The pool for this new sweep.
+	 * @post	| new.getPool() == pool
+	 * @throws	NullPointerException
+	 * 			| pool == null
+	 */
+	public ParallelCollisionSweep(ForkJoinPool pool) throws NullPointerException {
+		if (pool == null)
+			throw new NullPointerException();
+		this.pool = pool;
+	}
+
+	/**
+	 * Initialize this new parallel collision sweep running on the common pool.
+	 *
+	 * @effect	| this(ForkJoinPool.commonPool())
+	 */
+	public ParallelCollisionSweep() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Return the pool of this parallel collision sweep.
+	 */
+	@Basic @Immutable
+	public ForkJoinPool getPool() {
+		return this.pool;
+	}
+
+	/**
+	 * Variable referencing the pool of this parallel collision sweep.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Compute the time to collision of all pairs of the given ships.
+	 *
+	 * @param	ships
+	 * 			The ships to sweep.
+	 * @return	The result of the sweep, of which the time of each ship is the
+	 * 			smallest time to collision of that ship with any other ship.
+	 * 			| for each i in 0..ships.length-1:
+	 * 			|	result.getTime(i) == min { ships[i].getTimeToCollision(ships[j]) | j != i }
+	 * @throws	NullPointerException
+	 * 			The given array or one of its ships is not effective.
+	 * 			| ships == null || for some i: ships[i] == null
+	 */
+	public Result sweep(Ship[] ships) throws NullPointerException {
+		for (Ship ship : ships)
+			if (ship == null)
+				throw new NullPointerException();
+		AtomicLongArray times = new AtomicLongArray(ships.length);
+		for (int i = 0; i < ships.length; i++)
+			times.set(i, INFINITY_BITS);
+		CollisionPair earliest = this.pool.invoke(new RowTask(ships, times, 0, ships.length));
+		double[] result = new double[ships.length];
+		for (int i = 0; i < ships.length; i++)
+			result[i] = Double.longBitsToDouble(times.get(i));
+		return new Result(result, earliest);
+	}
+
+	/**
+	 * A class of results of parallel collision sweeps.
+	 */
+	public static final class Result {
+
+		private Result(double[] times, CollisionPair earliest) {
+			this.times = times;
+			this.earliest = earliest;
+		}
+
+		/**
+		 * Return the number of ships of this result.
+		 */
+		public int getNbShips() {
+			return this.times.length;
+		}
+
+		/**
+		 * Return the smallest time to collision of the ship at the given index
+		 * with any other ship, or positive infinity if it collides with none.
+		 *
+		 * @throws	IndexOutOfBoundsException
+		 * 			| index < 0 || index >= getNbShips()
+		 */
+		public double getTime(int index) throws IndexOutOfBoundsException {
+			return this.times[index];
+		}
+
+		/**
+		 * Return the smallest time to collision of each ship.
+		 *
+		 * @return	A new array of which each element is equal to the time of
+		 * 			the ship at that index.
+		 * 			| for each i in 0..getNbShips()-1: result[i] == getTime(i)
+		 */
+		public double[] getTimes() {
+			return Arrays.copyOf(this.times, this.times.length);
+		}
+
+		/**
+		 * Variable registering the smallest time to collision of each ship.
+		 */
+		private final double[] times;
+
+		/**
+		 * Return the earliest collision of all pairs, or null if no pair collides.
+		 * Of several collisions at the same time, the one with the smallest indices
+		 * is returned.
+		 */
+		@Basic @Immutable
+		public CollisionPair getEarliestCollision() {
+			return this.earliest;
+		}
+
+		/**
+		 * Variable referencing the earliest collision of all pairs.
+		 */
+		private final CollisionPair earliest;
+
+	}
+
+	/**
+	 * A class of tasks sweeping all pairs (i, j) with i in a range of rows
+	 * and i < j.
+	 */
+	private static final class RowTask extends RecursiveTask<CollisionPair> {
+
+		private RowTask(Ship[] ships, AtomicLongArray times, int low, int high) {
+			this.ships = ships;
+			this.times = times;
+			this.low = low;
+			this.high = high;
+		}
+
+		/**
+		 * Variables referencing the ships and the shared times of the sweep.
+		 */
+		private final Ship[] ships;
+		private final AtomicLongArray times;
+
+		/**
+		 * Variables registering the first row and the row after the last row of this task.
+		 */
+		private final int low, high;
+
+		@Override
+		protected CollisionPair compute() {
+			if ((this.high - this.low <= 1) || (pairs(this.low, this.high) <= PAIRS_THRESHOLD))
+				return computeDirectly();
+			int mid = split();
+			RowTask upper = new RowTask(this.ships, this.times, mid, this.high);
+			upper.fork();
+			CollisionPair lower = new RowTask(this.ships, this.times, this.low, mid).compute();
+			return earliest(lower, upper.join());
+		}
+
+		/**
+		 * Sweep the pairs of this task in the current thread.
+		 */
+		private CollisionPair computeDirectly() {
+			final Ship[] ships = this.ships;
+			CollisionPair best = null;
+			for (int i = this.low; i < this.high; i++) {
+				double rowTime = Double.POSITIVE_INFINITY;
+				int rowOther = -1;
+				for (int j = i + 1; j < ships.length; j++) {
+					double time = timeToCollision(ships[i], ships[j]);
+					if (time < rowTime) {
+						rowTime = time;
+						rowOther = j;
+					}
+					if (time != Double.POSITIVE_INFINITY)
+						updateMinimum(j, time);
+				}
+				if (rowOther >= 0) {
+					updateMinimum(i, rowTime);
+					if ((best == null) || (rowTime < best.getTime()))
+						best = new CollisionPair(i, rowOther, rowTime);
+				}
+			}
+			return best;
+		}
+
+		/**
+		 * Lower the shared time of the ship at the given index to the given time,
+		 * if the given time is smaller.
+		 */
+		private void updateMinimum(int index, double time) {
+			// Times are never negative, so their bit patterns are ordered as the times.
+			long bits = Double.doubleToLongBits(time);
+			long current;
+			while (bits < (current = this.times.get(index)))
+				if (this.times.compareAndSet(index, current, bits))
+					return;
+		}
+
+		/**
+		 * Return the row splitting the rows of this task in two ranges with
+		 * about the same number of pairs.
+		 */
+		private int split() {
+			long half = pairs(this.low, this.high) / 2;
+			int lo = this.low + 1, hi = this.high - 1;
+			while (lo < hi) {
+				int mid = (lo + hi) >>> 1;
+				if (pairs(this.low, mid) < half)
+					lo = mid + 1;
+				else
+					hi = mid;
+			}
+			return lo;
+		}
+
+		/**
+		 * Return the number of pairs in the rows from the given first row up to
+		 * the given row after the last row.
+		 */
+		private long pairs(int low, int high) {
+			long n = this.ships.length;
+			// Row i holds n-1-i pairs.
+			return (high - low) * (2 * n - low - high - 1) / 2;
+		}
+
+		private static final long serialVersionUID = 1L;
+
+	}
+
+	/**
+	 * Return the time to collision of the given ships, treating a division
+	 * by zero as a pair that never collides.
+	 */
+	private static double timeToCollision(Ship ship1, Ship ship2) {
+		try {
+			return ship1.getTimeToCollision(ship2);
+		} catch (IllegalDenominatorException exc) {
+			return Double.POSITIVE_INFINITY;
+		}
+	}
+
+	/**
+	 * Return the earliest of both given collisions, preferring the one with
+	 * the smallest indices if both happen at the same time.
+	 */
+	private static CollisionPair earliest(CollisionPair pair1, CollisionPair pair2) {
+		if (pair1 == null)
+			return pair2;
+		if (pair2 == null)
+			return pair1;
+		int result = Double.compare(pair1.getTime(), pair2.getTime());
+		if (result == 0)
+			result = Integer.compare(pair1.getShipA(), pair2.getShipA());
+		if (result == 0)
+			result = Integer.compare(pair1.getShipB(), pair2.getShipB());
+		return (result <= 0) ? pair1 : pair2;
+	}
+
+	/**
+	 * Variable registering the bit pattern of positive infinity.
+	 */
+	private static final long INFINITY_BITS = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+
+	/**
+	 * Variable registering the number of pairs below which a task is not split.
+	 */
+	private static final long PAIRS_THRESHOLD = 1 << 14;
+
+}
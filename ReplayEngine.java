@@ -0,0 +1,258 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of engines replaying a command log onto a fleet.
+ *
+ * A replay engine reads its log in batches and applies each batch to its
+ * fleet, starting from the initial state of the fleet. Every time the
+ * replay reaches a multiple of the checkpoint interval, the state of the
+ * fleet is saved as a fleet file in the checkpoint directory. Seeking to
+ * an earlier command restores the last checkpoint before it and replays
+ * only the commands since, so any command of the log is reached with at
+ * most one checkpoint interval of replay.
+ *
+ * The engine keeps one batch and one chunk of the log in memory, and
+ * remembers the checkpoints it saved by the last one only: all multiples
+ * of the interval up to it have been saved. Its memory use thus does not
+ * depend on the size of the log.
+ *
+ * @invar	The position of each replay engine lies within its log.
+ * 			| 0 <= getPosition() && getPosition() <= getNbCommands()
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class ReplayEngine implements Closeable {
+
+	/**
+	 * Initialize this new replay engine for the command log at the given
+	 * path, starting from the given fleet.
+	 *
+	 * @param	log
+	 * 			The path of the command log to replay.
+	 * @param	fleet
+	 * 			The fleet in its state before the first command of the log.
+	 * @param	checkpoints
+	 * 			The directory in which to save checkpoints.
+	 * @param	interval
+	 * 			The number of commands between two checkpoints.
+	 * @post	| new.getFleet() == fleet && new.getPosition() == 0
+	 * @post	| new.getCheckpointInterval() == interval
+	 * @effect	The initial state of the fleet is saved as the checkpoint at command zero.
+	 * 			| MappedFleet.write(fleet, getCheckpoint(0))
+	 * @throws	NullPointerException
+	 * 			| fleet == null || checkpoints == null
+	 * @throws	IllegalArgumentException
+	 * 			| interval <= 0
+	 * @throws	IOException
+	 * 			The log could not be opened or the checkpoint could not be saved.
+	 */
+	public ReplayEngine(Path log, ShipFleet fleet, Path checkpoints, long interval)
+			throws NullPointerException, IllegalArgumentException, IOException {
+		if ((fleet == null) || (checkpoints == null))
+			throw new NullPointerException();
+		if (interval <= 0)
+			throw new IllegalArgumentException("Illegal checkpoint interval: " + interval);
+		this.fleet = fleet;
+		this.checkpoints = checkpoints;
+		this.interval = interval;
+		Files.createDirectories(checkpoints);
+		this.reader = new CommandLogReader(log);
+		try {
+			MappedFleet.write(fleet, getCheckpoint(0));
+		}
+		catch (IOException | RuntimeException exc) {
+			this.reader.close();
+			throw exc;
+		}
+	}
+
+	/**
+	 * Return the fleet of this replay engine.
+	 */
+	@Basic @Immutable
+	public ShipFleet getFleet() {
+		return this.fleet;
+	}
+
+	/**
+	 * Variable referencing the fleet of this replay engine.
+	 */
+	private final ShipFleet fleet;
+
+	/**
+	 * Return the number of commands between two checkpoints.
+	 */
+	@Basic @Immutable
+	public long getCheckpointInterval() {
+		return this.interval;
+	}
+
+	/**
+	 * Variable registering the number of commands between two checkpoints.
+	 */
+	private final long interval;
+
+	/**
+	 * Return the path of the checkpoint at the given command.
+	 */
+	public Path getCheckpoint(long position) {
+		return this.checkpoints.resolve("checkpoint-" + position + ".fleet");
+	}
+
+	/**
+	 * Variable referencing the directory in which checkpoints are saved.
+	 */
+	private final Path checkpoints;
+
+	/**
+	 * Variable registering the last checkpoint saved by this engine.
+	 */
+	private long lastCheckpoint = 0L;
+
+	/**
+	 * Return the number of commands applied to the fleet, that is the
+	 * index of the next command to apply.
+	 */
+	public long getPosition() {
+		return this.reader.getPosition();
+	}
+
+	/**
+	 * Return the number of commands in the log of this replay engine.
+	 *
+	 * @throws	IOException
+	 * 			The size of the log could not be read.
+	 */
+	public long getNbCommands() throws IOException {
+		return this.reader.getNbCommands();
+	}
+
+	/**
+	 * Return the number of commands rejected, because they would have thrown
+	 * an exception when they were issued, since this engine was created or
+	 * last restored a checkpoint.
+	 */
+	@Basic
+	public long getNbRejected() {
+		return this.nbRejected;
+	}
+
+	/**
+	 * Variable registering the number of commands rejected since this engine
+	 * was created or last restored a checkpoint.
+	 */
+	private long nbRejected;
+
+	/**
+	 * Apply the next commands of the log to the fleet, saving checkpoints
+	 * at each multiple of the checkpoint interval that is passed.
+	 *
+	 * @param	count
+	 * 			The maximum number of commands to apply.
+	 * @return	The number of commands applied, which is less than the given
+	 * 			count only at the end of the log.
+	 * 			| new.getPosition() == getPosition() + result
+	 * @throws	IOException
+	 * 			The log could not be read or a checkpoint could not be saved.
+	 */
+	public long replay(long count) throws IOException {
+		long applied = 0L;
+		while (applied < count) {
+			long position = getPosition();
+			// Stop each batch at the next checkpoint, so it sees the fleet at that command.
+			long next = (position / this.interval + 1) * this.interval;
+			int read = this.reader.read(this.batch, Math.min(count - applied, next - position));
+			if (read == 0)
+				break;
+			this.nbRejected += this.batch.applyTo(this.fleet);
+			applied += read;
+			position = getPosition();
+			if ((position % this.interval == 0) && (position > this.lastCheckpoint)) {
+				MappedFleet.write(this.fleet, getCheckpoint(position));
+				this.lastCheckpoint = position;
+			}
+		}
+		return applied;
+	}
+
+	/**
+	 * Apply all remaining commands of the log to the fleet.
+	 *
+	 * @return	The number of commands applied.
+	 * 			| result == replay(Long.MAX_VALUE)
+	 */
+	public long replayToEnd() throws IOException {
+		return replay(Long.MAX_VALUE);
+	}
+
+	/**
+	 * Bring the fleet in its state just before the command at the given index.
+	 *
+	 * @param	position
+	 * 			The index of the next command to apply.
+	 * @post	| new.getPosition() == position
+	 * @throws	IllegalArgumentException
+	 * 			| position < 0 || position > getNbCommands()
+	 * @throws	IOException
+	 * 			The log or a checkpoint could not be read, or a checkpoint
+	 * 			could not be saved.
+	 */
+	public void seek(long position) throws IllegalArgumentException, IOException {
+		if ((position < 0) || (position > getNbCommands()))
+			throw new IllegalArgumentException("No command at " + position);
+		long checkpoint = Math.min(position / this.interval * this.interval, this.lastCheckpoint);
+		if ((position < getPosition()) || (checkpoint > getPosition())) {
+			restore(checkpoint);
+			this.reader.seek(checkpoint);
+			this.nbRejected = 0L;
+		}
+		replay(position - getPosition());
+	}
+
+	/**
+	 * Replace the state of the fleet by the checkpoint at the given command.
+	 * The checkpoint is loaded bit for bit, such that replaying from it gives
+	 * the same fleet as replaying from the start.
+	 */
+	private void restore(long position) throws IOException {
+		MappedFleet checkpoint = MappedFleet.open(getCheckpoint(position));
+		this.fleet.clear();
+		try {
+			checkpoint.addTo(this.fleet);
+		}
+		catch (IllegalValueException | IllegalRadiusException exc) {
+			throw new IOException("Corrupt checkpoint: " + getCheckpoint(position), exc);
+		}
+	}
+
+	/**
+	 * Close the log of this replay engine. The checkpoints are kept.
+	 */
+	@Override
+	public void close() throws IOException {
+		this.reader.close();
+	}
+
+	/**
+	 * Variable referencing the reader of the log of this replay engine.
+	 */
+	private final CommandLogReader reader;
+
+	/**
+	 * Variable referencing the batch in which commands are read.
+	 */
+	private final CommandBatch batch = new CommandBatch(BATCH_SIZE);
+
+	/**
+	 * Variable registering the number of commands applied per batch.
+	 */
+	private static final int BATCH_SIZE = 4096;
+
+}
@@ -0,0 +1,31 @@
+/**
+ * A class of semi-implicit (symplectic) Euler integrators.
+ *
+ * A semi-implicit Euler step first applies the thrust of the whole step
+ * to the velocity of each ship, and then moves it with that new velocity.
+ * For the same step size it follows thrusting ships more closely than an
+ * explicit Euler step.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class SemiImplicitEulerIntegrator implements Integrator {
+
+	/**
+	 * Advance the given fleet over the given duration with a single
+	 * semi-implicit Euler step.
+	 *
+	 * @effect	| if (rates != null)
+	 * 			|	then fleet.thrustAll(rates, duration)
+	 * @effect	| fleet.moveAll(duration)
+	 */
+	@Override
+	public void integrate(ShipFleet fleet, double[] rates, double duration)
+			throws NullPointerException, IllegalArgumentException, IllegalDurationException {
+		if (rates != null)
+			fleet.thrustAll(rates, duration);
+		fleet.moveAll(duration);
+	}
+
+}
@@ -66,24 +66,79 @@ public class Ship {
 	 * @post	The radius of this ship is equal
 	 * 			to the given radius.
 	 * 			| new.getRadius() == radius
-	 * @throws 	IllegalRadiusException 
-	 * 			The given radius is not a valid radius for a ship.
+	 * @throws 	IllegalRadiusException(radius,null)
+	 * 			The given radius is not a valid radius for a ship. The radius
+	 * 			is checked before anything is set, such that the exception
+	 * 			does not reference a partially initialized ship.
 	 * 			| ! isValidRadius(radius)
-	 * @throws IllegalValueException 
+	 * @throws IllegalValueException
 	 */
-	public Ship (double xposition, double yposition , double xvelocity, double yvelocity, 
+	public Ship (double xposition, double yposition , double xvelocity, double yvelocity,
 			double orientation, double radius) throws IllegalRadiusException, NullPointerException, IllegalValueException {
+		if (! isValidRadius(radius))
+			throw new IllegalRadiusException(radius,null);
+		if (! isValidPosition(xposition,yposition))
+			throw new IllegalValueException(xposition,yposition);
         assert isValidOrientation(orientation);
 		setOrientation(orientation);
 		if (isValidVelocity(xvelocity, yvelocity))
 			setVelocity(xvelocity, yvelocity);
-		if (! isValidPosition(xposition,yposition))
-			throw new IllegalValueException(xposition,yposition);
 		setPosition(xposition,yposition);
+		setRadius(radius);
+
+	}
+
+	/**
+	 * Reinitialize this ship with given position, given velocity,
+	 * given orientation and given radius, as if it were a new ship.
+	 *
+	 * @param 	xposition
+	 * 			The new X-coordinate of the position for this ship.
+	 * @param 	yposition
+	 * 			The new Y-coordinate of the position for this ship.
+	 * @param 	xvelocity
+	 * 			The new X-coordinate of the velocity for this ship.
+	 * @param 	yvelocity
+	 * 			The new Y-coordinate of the velocity for this ship.
+	 * @param 	orientation
+	 * 			The new orientation for this ship.
+	 * @param 	radius
+	 * 			The new radius for this ship.
+	 * @pre		The given orientation must be a valid
+	 * 			orientation for a ship.
+	 * 			| isValidOrientation(orientation)
+	 * @effect	The orientation, position and radius of this ship are set to
+	 * 			the given ones, and its velocity to the given velocity if it
+	 * 			is valid or to the minimum velocity otherwise.
+	 * 			| setOrientation(orientation)
+	 * 			| if (isValidVelocity(xvelocity, yvelocity))
+	 * 			|	then setVelocity(xvelocity, yvelocity)
+	 * 			|	else setVelocity(MINIMUM_VELOCITY, MINIMUM_VELOCITY)
+	 * 			| setPosition(xposition,yposition)
+	 * 			| setRadius(radius)
+	 * @throws 	IllegalRadiusException(radius,this)
+	 * 			The given radius is not a valid radius for a ship.
+	 * 			This ship is left unchanged.
+	 * 			| ! isValidRadius(radius)
+	 * @throws	IllegalValueException(xposition,yposition)
+	 * 			The given position is not a valid position for a ship.
+	 * 			This ship is left unchanged.
+	 * 			| ! isValidPosition(xposition,yposition)
+	 */
+	public void reinitialize(double xposition, double yposition, double xvelocity, double yvelocity,
+			double orientation, double radius) throws IllegalRadiusException, IllegalValueException {
 		if (! isValidRadius(radius))
 			throw new IllegalRadiusException(radius,this);
+		if (! isValidPosition(xposition,yposition))
+			throw new IllegalValueException(xposition,yposition);
+		assert isValidOrientation(orientation);
+		setOrientation(orientation);
+		if (isValidVelocity(xvelocity, yvelocity))
+			setVelocity(xvelocity, yvelocity);
+		else
+			setVelocity(MINIMUM_VELOCITY, MINIMUM_VELOCITY);
+		setPosition(xposition,yposition);
 		setRadius(radius);
-		
 	}
 	
 	/**
@@ -180,6 +235,29 @@ public class Ship {
 		this.yposition = yposition;
 	}
 	
+	/**
+	 * Set the current position of this ship to the given position, if it is
+	 * a valid position, and report the outcome without throwing an exception.
+	 * 
+	 * @param 	xposition
+	 * 			The new X-coordinate of position for this ship.	
+	 * @param 	yposition
+	 * 			The new Y-coordinate of position for this ship.
+	 * @effect	If the given position is valid, the position of this ship is set to it.
+	 * 			| if (isValidPosition(xposition,yposition))
+	 * 			|	then setPosition(xposition,yposition)
+	 * @return	| if (isValidPosition(xposition,yposition))
+	 * 			|	then result == ShipStatus.VALID
+	 * 			|	else result == ShipStatus.ILLEGAL_POSITION
+	 */
+	public ShipStatus trySetPosition(double xposition, double yposition) {
+		if (! isValidPosition(xposition,yposition))
+			return ShipStatus.ILLEGAL_POSITION;
+		this.xposition = xposition;
+		this.yposition = yposition;
+		return ShipStatus.VALID;
+	}
+	
 	/**
 	 * Return the X-coordinate of the current velocity of this ship.
 	 */
@@ -216,7 +294,8 @@ public class Ship {
 	 */
 	public static double getMagnitudeVelocity(double xvelocity, double yvelocity) {  
 	
-		return (Math.sqrt(Math.pow(xvelocity, 2.0) + Math.pow(yvelocity,2.0)));
+		// Squaring by multiplication gives the same result as Math.pow(x, 2.0).
+		return (Math.sqrt(xvelocity*xvelocity + yvelocity*yvelocity));
 		
 	}
 	
@@ -239,9 +318,10 @@ public class Ship {
 	 */
 	
 	public void setVelocity(double xvelocity, double yvelocity) {
-		if (isValidVelocity(xvelocity,yvelocity))
+		if (isValidVelocity(xvelocity,yvelocity)) {
 			this.xvelocity = xvelocity;
 			this.yvelocity = yvelocity;
+		}
 	}
 	
 	/**
@@ -260,8 +340,50 @@ public class Ship {
 	 */
 	
 	public static boolean isValidVelocity(double xvelocity, double yvelocity) { 
-		return ((getMagnitudeVelocity(xvelocity, yvelocity) >= MINIMUM_VELOCITY) 
-					&& (getMagnitudeVelocity(xvelocity, yvelocity) <= MAXIMUM_VELOCITY));
+		double magnitude = getMagnitudeVelocity(xvelocity, yvelocity);
+		return ((magnitude >= MINIMUM_VELOCITY) && (magnitude <= MAXIMUM_VELOCITY));
+	}
+	
+	/**
+	 * Return the maximum velocity for any ship.
+	 */
+	@Basic
+	public static double getMaximumVelocity() {
+		return MAXIMUM_VELOCITY;
+	}
+	
+	/**
+	 * Return the minimum velocity for any ship.
+	 */
+	@Basic
+	public static double getMinimumVelocity() {
+		return MINIMUM_VELOCITY;
+	}
+	
+	/**
+	 * Return the largest factor, not above the given factor, by which the
+	 * given velocity can be scaled into a valid velocity. Scaling a velocity
+	 * down to the maximum velocity can round to a magnitude one ulp above
+	 * it; the factor is backed off until the scaled velocity is valid.
+	 * 
+	 * @param 	xvelocity
+	 * 			The X-coordinate of the velocity to scale.
+	 * @param 	yvelocity
+	 * 			The Y-coordinate of the velocity to scale.
+	 * @param	scale
+	 * 			The factor to start from.
+	 * @pre		The given velocity and factor are finite, and the factor is not negative.
+	 * @return	| isValidVelocity(result*xvelocity, result*yvelocity)
+	 * 			|	&& result <= scale
+	 */
+	static double getVelocityScale(double xvelocity, double yvelocity, double scale) {
+		double magnitude = getMagnitudeVelocity(scale*xvelocity, scale*yvelocity);
+		if (magnitude > MAXIMUM_VELOCITY)
+			scale *= MAXIMUM_VELOCITY / magnitude;
+		// The rescaled velocity is at most a few ulps above the maximum.
+		while (! isValidVelocity(scale*xvelocity, scale*yvelocity))
+			scale = Math.nextDown(scale);
+		return scale;
 	}
 	
 
@@ -288,12 +410,37 @@ public class Ship {
 	 * @post	The orientation of this ship is equal
 	 * 			to the given orientation.
 	 * 			| new.getOrientation() == orientation
+	 * @post	The heading of this ship is the unit vector along the given
+	 * 			orientation, approximated if FastTrig is enabled.
+	 * 			| new.getHeadingX() == FastTrig.headingX(orientation)
+	 * 			|	&& new.getHeadingY() == FastTrig.headingY(orientation)
 	 */	
 	
 	public void setOrientation(double orientation) {
 		
 		assert isValidOrientation(orientation);
 		this.orientation = orientation;
+		// The heading is computed once per turn instead of on every thrust.
+		this.xheading = FastTrig.headingX(orientation);
+		this.yheading = FastTrig.headingY(orientation);
+	}
+	
+	/**
+	 * Return the X-coordinate of the unit vector along the orientation of
+	 * this ship, that is the cosine of its orientation.
+	 */
+	@Basic
+	public double getHeadingX() {
+		return this.xheading;
+	}
+	
+	/**
+	 * Return the Y-coordinate of the unit vector along the orientation of
+	 * this ship, that is the sine of its orientation.
+	 */
+	@Basic
+	public double getHeadingY() {
+		return this.yheading;
 	}
 	
 	/**
@@ -344,6 +491,26 @@ public class Ship {
 		this.radius = radius;
 	}
 	
+	/**
+	 * Set the current radius of this ship to the given radius, if it is
+	 * a valid radius, and report the outcome without throwing an exception.
+	 * 
+	 * @param 	radius
+	 * 			The new radius for this ship.
+	 * @effect	If the given radius is valid, the radius of this ship is set to it.
+	 * 			| if (isValidRadius(radius))
+	 * 			|	then setRadius(radius)
+	 * @return	| if (isValidRadius(radius))
+	 * 			|	then result == ShipStatus.VALID
+	 * 			|	else result == ShipStatus.ILLEGAL_RADIUS
+	 */
+	public ShipStatus trySetRadius(double radius) {
+		if (! isValidRadius(radius))
+			return ShipStatus.ILLEGAL_RADIUS;
+		this.radius = radius;
+		return ShipStatus.VALID;
+	}
+	
 	/**
 	 * Checks whether the given radius is a valid radius
 	 * for any ship.
@@ -382,10 +549,39 @@ public class Ship {
 	
 	public void move(double duration) throws IllegalDurationException, IllegalValueException {
 		
-		if (! isValidDuration(duration) )
-			throw new IllegalDurationException(duration);
-		setPosition(this.getPositionX() + duration*this.getVelocityX(), this.getPositionY() + duration*this.getVelocityY());
-		
+		long start = ShipMetrics.start();
+		try {
+			if (! isValidDuration(duration) )
+				throw new IllegalDurationException(duration);
+			setPosition(this.getPositionX() + duration*this.getVelocityX(), this.getPositionY() + duration*this.getVelocityY());
+		}
+		finally {
+			ShipMetrics.stop(ShipMetrics.MOVE, start);
+		}
+	}
+	
+	/**
+	 * Change the current position of this ship with the given duration, if
+	 * the duration is valid, and report the outcome without throwing an exception.
+	 * 
+	 * @param 	duration
+	 * 			The duration which will also determine the new position 
+	 * 			of this ship.
+	 * @effect	If the given duration is valid, the position of this ship is set
+	 * 			as by move(duration), if that position is valid.
+	 * 			| if (isValidDuration(duration))
+	 * 			|	then trySetPosition( getPositionX() + duration*getVelocityX(), 
+	 * 			| 		getPositionY() + duration*getVelocityY() )
+	 * @return	| if (! isValidDuration(duration))
+	 * 			|	then result == ShipStatus.ILLEGAL_DURATION
+	 * 			|	else result == trySetPosition( getPositionX() + duration*getVelocityX(), 
+	 * 			| 		getPositionY() + duration*getVelocityY() )
+	 */
+	public ShipStatus tryMove(double duration) {
+		if (! isValidDuration(duration))
+			return ShipStatus.ILLEGAL_DURATION;
+		return trySetPosition(this.getPositionX() + duration*this.getVelocityX(), 
+				this.getPositionY() + duration*this.getVelocityY());
 	}
 	
 	/**
@@ -417,12 +613,15 @@ public class Ship {
 	
 	public void turn(double angle) {
 		
-		double NEW_ANGLE;
+		double NEW_ANGLE = this.getOrientation() + angle;
 		
-		if ( (angle < 0) && (Math.abs(angle) > this.getOrientation()) )
-			NEW_ANGLE = 2.0*Math.PI - ((Math.abs(this.getOrientation() + angle)) % (2.0*Math.PI));  // check deze formule nog eens
-		else
-			NEW_ANGLE = (this.getOrientation() + angle) % (2.0*Math.PI);
+		// Within a single turn the sum needs no reduction.
+		if ( (NEW_ANGLE < 0.0) || (NEW_ANGLE >= 2.0*Math.PI) ) {
+			if ( (angle < 0) && (Math.abs(angle) > this.getOrientation()) )
+				NEW_ANGLE = 2.0*Math.PI - ((Math.abs(this.getOrientation() + angle)) % (2.0*Math.PI));  // check deze formule nog eens
+			else
+				NEW_ANGLE = (this.getOrientation() + angle) % (2.0*Math.PI);
+		}
 		setOrientation(NEW_ANGLE);
 	}
 	
@@ -440,9 +639,12 @@ public class Ship {
 	 * 			velocity, then the x-coordinate and y-coordinate
 	 * 			of the velocity will be reduced such that the 
 	 * 			velocity becomes equal to the maximum velocity.
+	 * 			The factor is backed off from the maximum velocity such that
+	 * 			rounding cannot take the velocity above it.
 	 * 			| if (getMagnitudeVelocity(new_xvelocity, new_yvelocity) > MAXIMUM_VELOCITY)
-	 *			|	new_xvelocity = MAXIMUM_VELOCITY*Math.cos(getOrientation())
-	 *			|	new_yvelocity = MAXIMUM_VELOCITY*Math.sin(getOrientation())
+	 *			|	new_xvelocity = scale*getHeadingX()
+	 *			|	new_yvelocity = scale*getHeadingY()
+	 *			| where scale == getVelocityScale(getHeadingX(), getHeadingY(), MAXIMUM_VELOCITY)
 	 * @effect	The new velocity of this ship is set using the current
 	 * 			velocity, its orientation and a given amount a.
 	 * 			| setVelocity(Math.abs(new_xvelocity),Math.abs(new_yvelocity))
@@ -453,16 +655,29 @@ public class Ship {
 		if (a < 0.0)
 			a = 0.0;
 		
-		double new_xvelocity = this.getVelocityX() + a*Math.cos(this.getOrientation());
-		double new_yvelocity = this.getVelocityY() + a*Math.sin(this.getOrientation());
+		double new_xvelocity = this.getVelocityX() + a*this.getHeadingX();
+		double new_yvelocity = this.getVelocityY() + a*this.getHeadingY();
 		
-		if (getMagnitudeVelocity(new_xvelocity, new_yvelocity) > MAXIMUM_VELOCITY)
-			new_xvelocity = MAXIMUM_VELOCITY*Math.cos(this.getOrientation());
-			new_yvelocity = MAXIMUM_VELOCITY*Math.sin(this.getOrientation());
+		if (getMagnitudeVelocity(new_xvelocity, new_yvelocity) > MAXIMUM_VELOCITY) {
+			if (ShipMetrics.ENABLED)
+				ShipMetrics.THRUST_CLAMPS.increment();
+			double scale = getVelocityScale(this.getHeadingX(), this.getHeadingY(), MAXIMUM_VELOCITY);
+			new_xvelocity = scale*this.getHeadingX();
+			new_yvelocity = scale*this.getHeadingY();
+		}
 		setVelocity(Math.abs(new_xvelocity),Math.abs(new_yvelocity) );
 	}
 	
-	private double Distance;
+	/**
+	 * Return an immutable snapshot of the current state of this ship.
+	 * 
+	 * @return	A ship state with the current position, velocity, orientation
+	 * 			and radius of this ship.
+	 * 			| result.equals(new ShipState(this))
+	 */
+	public ShipState getState() {
+		return new ShipState(this);
+	}
 	
 	/**
 	 * Returns the distance in between two ships. 
@@ -486,9 +701,11 @@ public class Ship {
 	 */
 	public double getDistanceBetween(Ship other) throws NullPointerException {
 		
-		
-		Distance = Math.sqrt(Math.pow(this.getPositionX()-other.getPositionX(),2.0) 
-					+ Math.pow(this.getPositionY()-other.getPositionY(),2.0) );
+		// A local variable keeps this method free of side effects, such that
+		// several threads can query the same ship at once.
+		double xdelta = this.getPositionX()-other.getPositionX();
+		double ydelta = this.getPositionY()-other.getPositionY();
+		double Distance = Math.sqrt(xdelta*xdelta + ydelta*ydelta);
 		if (Distance < (this.getRadius() + other.getRadius()) )
 			Distance = -Math.abs(Distance);
 		if (this == other)
@@ -511,19 +728,91 @@ public class Ship {
 	 */
 	
 	public boolean overlap(Ship other) throws NullPointerException{	
-		return (getDistanceBetween(other) <= 0.0);
+		// Comparing squared distances avoids the square root of getDistanceBetween.
+		return overlap(other.getPositionX()-this.getPositionX(), other.getPositionY()-this.getPositionY(),
+				this.getRadius()+other.getRadius());
+	}
+	
+	/**
+	 * Checks whether two ships with the given difference in position and 
+	 * given sum of radiuses overlap.
+	 * 
+	 * @param 	xdelta
+	 * 			The difference of the X-coordinate of the position of both ships.
+	 * @param 	ydelta
+	 * 			The difference of the Y-coordinate of the position of both ships.
+	 * @param 	sigma
+	 * 			The sum of the radiuses of both ships.
+	 * @return	True if and only if the distance between the centers of both
+	 * 			ships is less than the sum of their radiuses.
+	 * 			| result == (xdelta*xdelta + ydelta*ydelta < sigma*sigma)
+	 */
+	public static boolean overlap(double xdelta, double ydelta, double sigma) {
+		return (xdelta*xdelta + ydelta*ydelta < sigma*sigma);
+	}
+	
+	/**
+	 * Checks whether the center of the other ship lies within the given 
+	 * distance of the center of this ship.
+	 * 
+	 * @param 	other
+	 * 			The other ship to compare with.
+	 * @param 	distance
+	 * 			The distance to check.
+	 * @return	True if and only if the distance between the centers of both
+	 * 			ships is not larger than the given distance.
+	 * 			| result == (Math.sqrt(Math.pow(getPositionX()-other.getPositionX(),2.0) 
+	 * 			|	+ Math.pow(getPositionY()-other.getPositionY(),2.0)) <= distance)
+	 * @throws	NullPointerException
+	 * 			The other ship is not effective.
+	 * 			| other == null
+	 */
+	public boolean isWithinDistance(Ship other, double distance) throws NullPointerException {
+		double xdelta = other.getPositionX()-this.getPositionX();
+		double ydelta = other.getPositionY()-this.getPositionY();
+		return (distance >= 0.0) && (xdelta*xdelta + ydelta*ydelta <= distance*distance);
+	}
+	
+	/**
+	 * Checks whether this ship overlaps with any ship of the given fleet.
+	 * 
+	 * @param 	fleet
+	 * 			The fleet to compare with.
+	 * @return	True if and only if this ship overlaps with some ship of the 
+	 * 			given fleet.
+	 * 			| result == (for some index in 0..fleet.getNbShips()-1:
+	 * 			|	overlap(fleet.getShip(index).toShip()))
+	 * @throws	NullPointerException
+	 * 			The fleet is not effective.
+	 * 			| fleet == null
+	 */
+	public boolean overlapsAny(ShipFleet fleet) throws NullPointerException {
+		final double[] x = fleet.getPositionsX(), y = fleet.getPositionsY(), r = fleet.getRadii();
+		final double xposition = this.getPositionX(), yposition = this.getPositionY(), radius = this.getRadius();
+		final int n = fleet.getNbShips();
+		for (int i = 0; i < n; i++)
+			if (overlap(x[i]-xposition, y[i]-yposition, radius+r[i]))
+				return true;
+		return false;
 	}
 	
 	/**
 	 * If it is the case, this method calculates the time
 	 * for a collision to happen between this ship and given ship.
+	 * The result is not cached: computing it costs less than looking
+	 * it up in a cache keyed by both ships.
 	 * @param	other
 	 * 			The other ship to collide with.
 	 * @return 	Returns the time of the collision, the formula used to determine this time 
-	 * 			is found by substituting thev alues of the new position of both ships 
-	 * 			into the formula for the distance between two points. 
+	 * 			is found by substituting the values of the new position of both ships 
+	 * 			into the formula for the distance between two points and equating
+	 * 			that distance to the sum of the radiuses of both ships. 
 	 * 			This leads to a quadratic formula and the roots of this formula is the time.
-	 * 			| result == ( -( dotVeloPos+Math.sqrt(d) )/dotVeloVelo )
+	 * 			| result == getTimeToCollision(deltaPosition(other)[0], deltaPosition(other)[1],
+	 * 			|	deltaVelocity(other)[0], deltaVelocity(other)[1], getRadius() + other.getRadius())
+	 * @return	Returns zero if both ships overlap.
+	 * 			| if (overlap(other))
+	 * 			|	then result == 0.0
 	 * @throws	NullPointerException
 	 * 			The other ship is not effective.
 	 * 			| other == null
@@ -533,24 +822,57 @@ public class Ship {
 	 * 			| dotVeloVelo == 0.0
 	 */
 	public double getTimeToCollision(Ship other) throws NullPointerException, IllegalDenominatorException {
-		if (! overlap(other)) {
-			double time;
-			double dotVeloPos = dotProduct(deltaVelocity(other), deltaPosition(other));
-			double dotVeloVelo = dotProduct(deltaVelocity(other),deltaVelocity(other));
-			double dotPosPos = dotProduct(deltaPosition(other),deltaPosition(other));
-			double d = Math.pow(dotVeloPos,2.0) - dotVeloVelo*(dotPosPos-Math.pow(getDistanceBetween(other),2.0));
-			if (dotVeloPos >= 0.0 || d <= 0) {
-				time = Double.POSITIVE_INFINITY;
-				return time;
-			}
-			else	{
-				if (dotVeloVelo == 0.0)
-					throw new IllegalDenominatorException(dotVeloVelo);
-				time = -(dotVeloPos+Math.sqrt(d))/dotVeloVelo;
-				return time;
-			}
+		long start = ShipMetrics.start();
+		try {
+			// The overlap of both ships is checked on the same differences by the static method.
+			return getTimeToCollision(other.getPositionX()-this.getPositionX(), other.getPositionY()-this.getPositionY(),
+					other.getVelocityX()-this.getVelocityX(), other.getVelocityY()-this.getVelocityY(),
+					this.getRadius()+other.getRadius());
+		}
+		finally {
+			ShipMetrics.stop(ShipMetrics.TIME_TO_COLLISION, start);
 		}
-		return 0.0;   //??????????????????????????????????????????????????????????????????????????
+	}
+	
+	/**
+	 * Calculates the time for a collision to happen between two ships with the 
+	 * given difference in position, given difference in velocity and given sum 
+	 * of their radiuses.
+	 * 
+	 * @param 	xdelta
+	 * 			The difference of the X-coordinate of the position of both ships.
+	 * @param 	ydelta
+	 * 			The difference of the Y-coordinate of the position of both ships.
+	 * @param 	xvelocitydelta
+	 * 			The difference of the X-coordinate of the velocity of both ships.
+	 * @param 	yvelocitydelta
+	 * 			The difference of the Y-coordinate of the velocity of both ships.
+	 * @param 	sigma
+	 * 			The sum of the radiuses of both ships.
+	 * @return	Returns zero if both ships overlap.
+	 * 			| if (dotPosPos < sigma*sigma)
+	 * 			|	then result == 0.0
+	 * @return	Returns positive infinity if both ships never collide.
+	 * 			| if (dotVeloPos >= 0.0 || d <= 0.0)
+	 * 			|	then result == Double.POSITIVE_INFINITY
+	 * @return	Otherwise returns the smallest root of the quadratic formula.
+	 * 			| result == ( -( dotVeloPos+Math.sqrt(d) )/dotVeloVelo )
+	 */
+	public static double getTimeToCollision(double xdelta, double ydelta, 
+			double xvelocitydelta, double yvelocitydelta, double sigma) {
+		if (ShipMetrics.ENABLED)
+			ShipMetrics.TIME_TO_COLLISION_CALLS.increment();
+		double dotPosPos = xdelta*xdelta + ydelta*ydelta;
+		if (dotPosPos < sigma*sigma)
+			return 0.0;
+		double dotVeloPos = xvelocitydelta*xdelta + yvelocitydelta*ydelta;
+		if (dotVeloPos >= 0.0)
+			return Double.POSITIVE_INFINITY;
+		double dotVeloVelo = xvelocitydelta*xvelocitydelta + yvelocitydelta*yvelocitydelta;
+		double d = dotVeloPos*dotVeloPos - dotVeloVelo*(dotPosPos - sigma*sigma);
+		if (d <= 0.0)
+			return Double.POSITIVE_INFINITY;
+		return -(dotVeloPos+Math.sqrt(d))/dotVeloVelo;
 	}
 	
 	/**
@@ -560,19 +882,48 @@ public class Ship {
 	 * @param	other
 	 * 			Other ship to calculate difference with.
 	 * @return	Returns the difference of respectively X-coordinate and
-	 * 			Y-coordinate of both ships in an array.
-	 * 			| result == deltaVelocity
+	 * 			Y-coordinate of both ships in a new array.
+	 * 			| result == deltaVelocity(other, new double[2])
 	 * @throws	NullPointerException
 	 * 			The other ship is not effective.
 	 * 			| other == null
 	 */
 	
 	public double [] deltaVelocity(Ship other) throws NullPointerException {
-		double [] deltaVelocity = {other.getVelocityX()-this.getVelocityX(),other.getVelocityY()-this.getVelocityY()};
-		return deltaVelocity;
+		return deltaVelocity(other, new double[2]);
 		
 	}
 	
+	/**
+	 * This method calculates the difference of the velocity
+	 * of the X-coordinate and Y-coordinate of both ships and stores
+	 * it in the given array.
+	 * 
+	 * @param	other
+	 * 			Other ship to calculate difference with.
+	 * @param	result
+	 * 			The array to store the difference in.
+	 * @post	The first two elements of the given array are equal to the
+	 * 			difference of respectively X-coordinate and Y-coordinate of
+	 * 			the velocity of both ships.
+	 * 			| result[0] == other.getVelocityX()-this.getVelocityX()
+	 * 			|	&& result[1] == other.getVelocityY()-this.getVelocityY()
+	 * @return	Returns the given array.
+	 * 			| result == result
+	 * @throws	NullPointerException
+	 * 			The other ship or the given array is not effective.
+	 * 			| other == null || result == null
+	 * @throws	IllegalArgumentException
+	 * 			The given array cannot hold two coordinates.
+	 * 			| result.length < 2
+	 */
+	public double [] deltaVelocity(Ship other, double [] result) throws NullPointerException, IllegalArgumentException {
+		checkCoordinateBuffer(result);
+		result[0] = other.getVelocityX()-this.getVelocityX();
+		result[1] = other.getVelocityY()-this.getVelocityY();
+		return result;
+	}
+	
 	/**
 	 * This method calculates the difference of the position
 	 * of the X-coordinate and Y-coordinate of both ships.
@@ -580,19 +931,64 @@ public class Ship {
 	 * @param	other
 	 * 			Other ship to calculate difference with.
 	 * @return	Returns the difference of respectively X-coordinate and
-	 * 			Y-coordinate of both ships in an array.
-	 * 			| result == deltaPosition
+	 * 			Y-coordinate of both ships in a new array.
+	 * 			| result == deltaPosition(other, new double[2])
 	 * @throws	NullPointerException
 	 * 			The other ship is not effective.
 	 * 			| other == null
 	 */
 	
 	public double [] deltaPosition (Ship other) throws NullPointerException {
-		double [] deltaPosition = {other.getPositionX()-this.getPositionX(),other.getPositionY()-this.getPositionY()};
-		return deltaPosition;
+		return deltaPosition(other, new double[2]);
 				
 	}
 	
+	/**
+	 * This method calculates the difference of the position
+	 * of the X-coordinate and Y-coordinate of both ships and stores
+	 * it in the given array.
+	 * 
+	 * @param	other
+	 * 			Other ship to calculate difference with.
+	 * @param	result
+	 * 			The array to store the difference in.
+	 * @post	The first two elements of the given array are equal to the
+	 * 			difference of respectively X-coordinate and Y-coordinate of
+	 * 			the position of both ships.
+	 * 			| result[0] == other.getPositionX()-this.getPositionX()
+	 * 			|	&& result[1] == other.getPositionY()-this.getPositionY()
+	 * @return	Returns the given array.
+	 * 			| result == result
+	 * @throws	NullPointerException
+	 * 			The other ship or the given array is not effective.
+	 * 			| other == null || result == null
+	 * @throws	IllegalArgumentException
+	 * 			The given array cannot hold two coordinates.
+	 * 			| result.length < 2
+	 */
+	public double [] deltaPosition (Ship other, double [] result) throws NullPointerException, IllegalArgumentException {
+		checkCoordinateBuffer(result);
+		result[0] = other.getPositionX()-this.getPositionX();
+		result[1] = other.getPositionY()-this.getPositionY();
+		return result;
+	}
+	
+	/**
+	 * Check whether the given array can hold the two coordinates of
+	 * a position or velocity and throw an exception otherwise.
+	 * 
+	 * @param	result
+	 * 			The array to check.
+	 * @throws	NullPointerException
+	 * 			| result == null
+	 * @throws	IllegalArgumentException
+	 * 			| result.length < 2
+	 */
+	private static void checkCoordinateBuffer(double [] result) throws NullPointerException, IllegalArgumentException {
+		if (result.length < 2)
+			throw new IllegalArgumentException("Buffer cannot hold two coordinates");
+	}
+	
 	/**
 	 * This method calculates the dot product between two
 	 * given arrays.
@@ -621,57 +1017,148 @@ public class Ship {
 	 * 
 	 * @param 	other
 	 * 			The other ship where this ship collides with.
-	 * @return	Returns the position of the collision using the new position, 
-	 * 			the velocity, the angle between the two ships and the radius of 
-	 * 			one of the two ships depending on the position of the ships
-	 * 			relative to eachother.
-	 * 			| result == {collisionPos_ship+getRadius()*Math.cos(col_angle),
-	 * 						collisionPos_ship+getRadius()*Math.sin(col_angle)}
+	 * @return	Returns the position of the collision in a new array, or null
+	 * 			if both ships never collide or already overlap.
+	 * 			| result == getCollisionPosition(other, new double[2])
 	 * @throws 	NullPointerException
 	 * 			The other ship is not effective.
 	 * 			| other == null
 	 */
 	
-	public double [] getCollisionPosition (Ship other) throws NullPointerException, IllegalDenominatorException { //exception verwijst naar de exception binnen getTimeToCollision, moet ik ook al rekening houden hiermee en in een if-statement plaatsen?
-		
-		double [] collisionPos_ship1 = this.getPositionShipAtCollision(other);
-		double [] collisionPos_ship2 = other.getPositionShipAtCollision(other);
-		double col_angle = Math.atan2(collisionPos_ship2[1]-collisionPos_ship1[1], collisionPos_ship2[0]-collisionPos_ship1[0]);
-
-		
-		if ((this.getTimeToCollision(other) == Double.POSITIVE_INFINITY) || (overlap(other)))
-			return null;
-		
-		if (collisionPos_ship1[0] < collisionPos_ship2[0] && collisionPos_ship1[1] < collisionPos_ship2[1]
-				|| (collisionPos_ship1[1] < collisionPos_ship2[1])) {
-			double [] collisionPosition = {collisionPos_ship1[0]+this.getRadius()*Math.cos(col_angle),
-					collisionPos_ship1[1]+this.getRadius()*Math.sin(col_angle)};
-			return collisionPosition;
-			}
-		else {
-			double [] collisionPosition = {collisionPos_ship2[0]+other.getRadius()*Math.cos(col_angle),
-					collisionPos_ship1[1]+other.getRadius()*Math.sin(col_angle)};
-			return collisionPosition;
+	public double [] getCollisionPosition (Ship other) throws NullPointerException, IllegalDenominatorException {
+		return getCollisionPosition(other, new double[2]);
+	}
+	
+	/**
+	 * Calculates the position where the collision happens and stores it
+	 * in the given array.
+	 * 
+	 * @param 	other
+	 * 			The other ship where this ship collides with.
+	 * @param	result
+	 * 			The array to store the position of the collision in.
+	 * @post	If both ships collide, the first two elements of the given array
+	 * 			are equal to the point on the edge of this ship facing the other
+	 * 			ship, at the time of the collision.
+	 * 			| let time = getTimeToCollision(other) in
+	 * 			|	col_angle == atan2 of the difference in position of both ships at time
+	 * 			|	result[0] == getPositionX()+time*getVelocityX()+getRadius()*Math.cos(col_angle)
+	 * 			|	&& result[1] == getPositionY()+time*getVelocityY()+getRadius()*Math.sin(col_angle)
+	 * @return	Returns the given array, or null if both ships never collide
+	 * 			or already overlap, in which case the array is left unchanged.
+	 * 			| if (getTimeToCollision(other) == Double.POSITIVE_INFINITY || overlap(other))
+	 * 			|	then result == null
+	 * @throws 	NullPointerException
+	 * 			The other ship or the given array is not effective.
+	 * 			| other == null || result == null
+	 * @throws	IllegalArgumentException
+	 * 			The given array cannot hold two coordinates.
+	 * 			| result.length < 2
+	 */
+	public double [] getCollisionPosition (Ship other, double [] result) 
+			throws NullPointerException, IllegalArgumentException, IllegalDenominatorException {
+		long start = ShipMetrics.start();
+		try {
+			checkCoordinateBuffer(result);
+			if (overlap(other))
+				return null;
+			double time = getTimeToCollision(other);
+			if (time == Double.POSITIVE_INFINITY)
+				return null;
+			double xposition = this.getPositionX()+time*this.getVelocityX();
+			double yposition = this.getPositionY()+time*this.getVelocityY();
+			return getCollisionPosition(xposition, yposition, this.getRadius(),
+					other.getPositionX()+time*other.getVelocityX()-xposition,
+					other.getPositionY()+time*other.getVelocityY()-yposition, result);
 		}
-		
+		finally {
+			ShipMetrics.stop(ShipMetrics.COLLISION_POSITION, start);
 		}
+	}
+	
+	/**
+	 * Calculates the position where a ship with the given position and radius
+	 * at the time of collision touches the other ship, given the difference 
+	 * of the position of both ships at that time, and stores it in the given array.
+	 * 
+	 * @param 	xposition
+	 * 			The X-coordinate of the position of the ship at the time of collision.
+	 * @param 	yposition
+	 * 			The Y-coordinate of the position of the ship at the time of collision.
+	 * @param 	radius
+	 * 			The radius of the ship.
+	 * @param 	xdelta
+	 * 			The difference of the X-coordinate of the position of both ships
+	 * 			at the time of collision.
+	 * @param 	ydelta
+	 * 			The difference of the Y-coordinate of the position of both ships
+	 * 			at the time of collision.
+	 * @param	result
+	 * 			The array to store the position of the collision in.
+	 * @post	The first two elements of the given array are equal to the point
+	 * 			on the edge of the ship facing the other ship.
+	 * 			| result[0] == xposition + radius*xdelta/Math.sqrt(xdelta*xdelta + ydelta*ydelta)
+	 * 			|	&& result[1] == yposition + radius*ydelta/Math.sqrt(xdelta*xdelta + ydelta*ydelta)
+	 * @return	Returns the given array.
+	 * 			| result == result
+	 * @throws	NullPointerException
+	 * 			| result == null
+	 * @throws	IllegalArgumentException
+	 * 			| result.length < 2
+	 */
+	public static double [] getCollisionPosition (double xposition, double yposition, double radius,
+			double xdelta, double ydelta, double [] result) throws NullPointerException, IllegalArgumentException {
+		checkCoordinateBuffer(result);
+		// At the time of collision both centers lie one sum of radiuses apart, so the
+		// edge of the ship facing the other ship is the point of contact.
+		double scale = radius/Math.sqrt(xdelta*xdelta + ydelta*ydelta);
+		result[0] = xposition + scale*xdelta;
+		result[1] = yposition + scale*ydelta;
+		return result;
+	}
 		
 		
 	 /**
 	 * Determines the position of the ship at the collision.
 	 * @param 	other
 	 * 			Other ship to calculate the time of collision with.
-	 * @return	Returns the position of the ship at the time of collision.
-	 * 			| result == {this.getPositionX()+time*this.getVelocityX(),
-	 * 					this.getPositionY()+time*this.getVelocityY()}
+	 * @return	Returns the position of the ship at the time of collision in a new array.
+	 * 			| result == getPositionShipAtCollision(other, new double[2])
 	 * @throws	NullPointerException
 	 * 			The other ship is not effective.
 	 * 			| other == null
 	 */
 	public double [] getPositionShipAtCollision(Ship other) throws NullPointerException, IllegalDenominatorException {
+		return getPositionShipAtCollision(other, new double[2]);
+	}
+	
+	/**
+	 * Determines the position of the ship at the collision and stores it
+	 * in the given array.
+	 * @param 	other
+	 * 			Other ship to calculate the time of collision with.
+	 * @param	result
+	 * 			The array to store the position in.
+	 * @post	The first two elements of the given array are equal to the 
+	 * 			position of the ship at the time of collision.
+	 * 			| result[0] == this.getPositionX()+time*this.getVelocityX()
+	 * 			|	&& result[1] == this.getPositionY()+time*this.getVelocityY()
+	 * @return	Returns the given array.
+	 * 			| result == result
+	 * @throws	NullPointerException
+	 * 			The other ship or the given array is not effective.
+	 * 			| other == null || result == null
+	 * @throws	IllegalArgumentException
+	 * 			The given array cannot hold two coordinates.
+	 * 			| result.length < 2
+	 */
+	public double [] getPositionShipAtCollision(Ship other, double [] result) 
+			throws NullPointerException, IllegalArgumentException, IllegalDenominatorException {
+		checkCoordinateBuffer(result);
 		double time = getTimeToCollision(other);
-		double [] position = {this.getPositionX()+time*this.getVelocityX(),this.getPositionY()+time*this.getVelocityY()};
-		return position;
+		result[0] = this.getPositionX()+time*this.getVelocityX();
+		result[1] = this.getPositionY()+time*this.getVelocityY();
+		return result;
 	}
 	
 	
@@ -705,6 +1192,12 @@ public class Ship {
 	
 	private double orientation;
 	
+	/**
+	 * Variables registering the X-coordinate and Y-coordinate of the unit
+	 * vector along the orientation of this ship.
+	 */
+	private double xheading, yheading;
+	
 	/**
 	 * Variable registering the current radius of this ship.
 	 */
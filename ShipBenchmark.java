@@ -0,0 +1,717 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * A class of micro benchmarks for the kinematics and collision prediction
+ * of ships and fleets of ships.
+ *
+ * Each benchmark is warmed up and then measured for a fixed duration.
+ * For each benchmark the average time per operation, the number of bytes
+ * allocated per operation and the allocation rate of the benchmarking thread
+ * are reported, the latter two read from the allocation counter of the
+ * virtual machine.
+ *
+ * Benchmarks are run with
+ * 		java ShipBenchmark [filter]
+ * where the optional filter restricts the run to benchmarks whose name
+ * contains it, for instance "fleet" or "getTimeToCollision".
+ *
+ * Besides the benchmarks, checks of results against reference computations
+ * are run, which throw an assertion error when they fail, for instance
+ * "replay" for seeking through a command log or "network" for sending
+ * the state of a fleet over a lossy transport.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class ShipBenchmark {
+
+	/**
+	 * Run all benchmarks whose name contains the first given argument, or all
+	 * benchmarks if no argument is given.
+	 */
+	public static void main(String[] args) throws Exception {
+		ShipBenchmark benchmark = new ShipBenchmark(args.length > 0 ? args[0] : "");
+		benchmark.runSingleShip();
+		benchmark.runPairwise();
+		for (int size : FLEET_SIZES)
+			benchmark.runFleet(size);
+		benchmark.runPrecision();
+		benchmark.runReplay();
+		benchmark.runNetwork();
+		System.out.println("sink: " + benchmark.sink);
+	}
+
+	/**
+	 * Initialize this new benchmark with the given filter.
+	 */
+	private ShipBenchmark(String filter) {
+		this.filter = filter;
+	}
+
+	/**
+	 * Variable registering the filter on the names of benchmarks to run.
+	 */
+	private final String filter;
+
+	/**
+	 * Variable accumulating benchmark results, such that the virtual machine
+	 * cannot eliminate the benchmarked code.
+	 */
+	private double sink;
+
+	/**
+	 * An interface for benchmarked operations.
+	 */
+	interface Operation {
+
+		/**
+		 * Run the given number of operations and return a value depending on
+		 * their results.
+		 */
+		double run(int count) throws Exception;
+
+	}
+
+	/**
+	 * Run the benchmarks on a single ship.
+	 */
+	private void runSingleShip() throws Exception {
+		final Ship ship = new Ship(0.0, 0.0, 10.0, 5.0, 1.0, 20.0);
+		measure("ship.move", 1_000, count -> {
+			for (int i = 0; i < count; i++)
+				ship.move(1e-3);
+			return ship.getPositionX();
+		});
+		measure("ship.turn", 1_000, count -> {
+			for (int i = 0; i < count; i++)
+				ship.turn(0.001);
+			return ship.getOrientation();
+		});
+		measure("ship.thrust", 1_000, count -> {
+			for (int i = 0; i < count; i++)
+				ship.thrust(1.0);
+			return ship.getVelocityX();
+		});
+		measure("ship.move(illegal)", 1_000, count -> {
+			int failures = 0;
+			for (int i = 0; i < count; i++)
+				try {
+					ship.move(-1.0);
+				} catch (IllegalDurationException exc) {
+					failures++;
+				}
+			return failures;
+		});
+		measure("ship.tryMove(illegal)", 1_000, count -> {
+			int failures = 0;
+			for (int i = 0; i < count; i++)
+				if (! ship.tryMove(-1.0).isValid())
+					failures++;
+			return failures;
+		});
+		// Spawned ships are kept alive for a while, as in a game, such that
+		// the virtual machine cannot eliminate their allocation.
+		final Ship[] live = new Ship[256];
+		for (int i = 0; i < live.length; i++)
+			live[i] = new Ship(i, 0.0, 10.0, 5.0, 1.0, 20.0);
+		measure("spawn.new", 1_000, count -> {
+			for (int i = 0; i < count; i++)
+				live[i & 255] = new Ship(i, 0.0, 10.0, 5.0, 1.0, 20.0);
+			return live[0].getPositionX();
+		});
+		final ShipPool pool = new ShipPool(16);
+		measure("spawn.pool.acquire+release", 1_000, count -> {
+			for (int i = 0; i < count; i++) {
+				pool.release(live[i & 255]);
+				live[i & 255] = pool.acquire(i, 0.0, 10.0, 5.0, 1.0, 20.0);
+			}
+			return live[0].getPositionX();
+		});
+		final double[] angles = new double[1_024];
+		Random random = new Random(7);
+		for (int i = 0; i < angles.length; i++)
+			angles[i] = random.nextDouble() * 2.0 * Math.PI;
+		measure("trig.Math.sin+cos", angles.length, count -> {
+			double sum = 0.0;
+			for (int i = 0; i < count; i++)
+				sum += Math.sin(angles[i]) + Math.cos(angles[i]);
+			return sum;
+		});
+		measure("trig.FastTrig.sin+cos", angles.length, count -> {
+			double sum = 0.0;
+			for (int i = 0; i < count; i++)
+				sum += FastTrig.sin(angles[i]) + FastTrig.cos(angles[i]);
+			return sum;
+		});
+	}
+
+	/**
+	 * Run the benchmarks on a pair of ships.
+	 */
+	private void runPairwise() throws Exception {
+		// Pairs heading for each other with a random offset, most of which collide.
+		Random random = new Random(42);
+		final Ship[] ships1 = new Ship[PAIRS], ships2 = new Ship[PAIRS];
+		for (int i = 0; i < PAIRS; i++) {
+			ships1[i] = new Ship(0.0, 0.0, 10.0, 0.0, 0.0, 11.0);
+			ships2[i] = new Ship(100.0 + random.nextDouble() * 1000.0, (random.nextDouble() - 0.5) * 60.0,
+					-10.0 * random.nextDouble(), 0.0, 0.0, 12.0);
+		}
+		final double[] buffer = new double[2];
+		measure("pair.getDistanceBetween", PAIRS, count -> {
+			double sum = 0.0;
+			for (int i = 0; i < count; i++)
+				sum += ships1[i].getDistanceBetween(ships2[i]);
+			return sum;
+		});
+		measure("pair.getTimeToCollision", PAIRS, count -> {
+			double sum = 0.0;
+			for (int i = 0; i < count; i++)
+				sum += ships1[i].getTimeToCollision(ships2[i]);
+			return sum;
+		});
+		measure("pair.getCollisionPosition", PAIRS, count -> {
+			double sum = 0.0;
+			for (int i = 0; i < count; i++) {
+				double[] position = ships1[i].getCollisionPosition(ships2[i]);
+				if (position != null)
+					sum += position[0];
+			}
+			return sum;
+		});
+		measure("pair.getCollisionPosition(buffer)", PAIRS, count -> {
+			double sum = 0.0;
+			for (int i = 0; i < count; i++) {
+				double[] position = ships1[i].getCollisionPosition(ships2[i], buffer);
+				if (position != null)
+					sum += position[0];
+			}
+			return sum;
+		});
+	}
+
+	/**
+	 * Run the benchmarks on a fleet of the given size.
+	 */
+	private void runFleet(int size) throws Exception {
+		final Ship[] ships = randomShips(size, new Random(size));
+		final ShipFleet fleet = new ShipFleet(size);
+		for (Ship ship : ships)
+			fleet.add(ship);
+		final BroadPhase broadPhase = new BroadPhase(fleet);
+		String prefix = "fleet" + size + ".";
+		measure(prefix + "Ship[].move", size, count -> {
+			for (Ship ship : ships)
+				ship.move(1e-3);
+			return ships[0].getPositionX();
+		});
+		measure(prefix + "moveAll", size, count -> {
+			fleet.moveAll(1e-3);
+			return fleet.getPositionX(0);
+		});
+		measure(prefix + "turnAll", size, count -> {
+			fleet.turnAll(0.001);
+			return fleet.getOrientation(0);
+		});
+		measure(prefix + "thrustAll", size, count -> {
+			fleet.thrustAll(1.0);
+			return fleet.getVelocityX(0);
+		});
+		final double[] magnitudes = new double[size];
+		measure(prefix + "getMagnitudesVelocity", size, count -> {
+			fleet.getMagnitudesVelocity(magnitudes);
+			return magnitudes[0];
+		});
+		measure(prefix + "getDistanceBetween", size, count -> {
+			double sum = 0.0;
+			for (int i = 1; i < ships.length; i++)
+				sum += ships[i].getDistanceBetween(ships[i - 1]);
+			return sum;
+		});
+		measure(prefix + "getTimeToCollision", size, count -> {
+			double sum = 0.0;
+			for (int i = 1; i < ships.length; i++)
+				sum += ships[i].getTimeToCollision(ships[i - 1]);
+			return sum;
+		});
+		measure(prefix + "getCollisionPosition", size, count -> {
+			double sum = 0.0;
+			for (int i = 1; i < ships.length; i++) {
+				double[] position = ships[i].getCollisionPosition(ships[i - 1]);
+				if (position != null)
+					sum += position[0];
+			}
+			return sum;
+		});
+		measure(prefix + "broadPhase.getEarliestCollision", size, count -> {
+			CollisionPair pair = broadPhase.getEarliestCollision(1.0);
+			return (pair == null) ? 0.0 : pair.getTime();
+		});
+		final OffHeapFleet offHeapFleet = new OffHeapFleet(size);
+		offHeapFleet.addAll(fleet);
+		measure(prefix + "offHeap.moveAll", size, count -> {
+			offHeapFleet.moveAll(1e-3);
+			return offHeapFleet.getPositionX(0);
+		});
+		measure(prefix + "offHeap.getEarliestCollision", size, count -> {
+			CollisionPair pair = offHeapFleet.getEarliestCollision(1.0);
+			return (pair == null) ? 0.0 : pair.getTime();
+		});
+		final FloatShipFleet floatFleet = new FloatShipFleet(size);
+		floatFleet.addAll(fleet);
+		measure(prefix + "float.moveAll", size, count -> {
+			floatFleet.moveAll(1e-3);
+			return floatFleet.getPositionX(0);
+		});
+		measure(prefix + "float.getTimeToCollision", size, count -> {
+			double sum = 0.0;
+			for (int i = 1; i < size; i++)
+				sum += floatFleet.getTimeToCollision(i, i - 1);
+			return sum;
+		});
+		final FixedPointShipFleet fixedFleet = new FixedPointShipFleet(size, FIXED_RESOLUTION);
+		fixedFleet.addAll(fleet);
+		measure(prefix + "fixed.moveAll", size, count -> {
+			fixedFleet.moveAll(1e-3);
+			return fixedFleet.getPositionX(0);
+		});
+		measure(prefix + "fixed.getTimeToCollision", size, count -> {
+			double sum = 0.0;
+			for (int i = 1; i < size; i++)
+				sum += fixedFleet.getTimeToCollision(i, i - 1);
+			return sum;
+		});
+		final ShipIndex index = new ShipIndex();
+		for (Ship ship : ships)
+			index.add(ship);
+		final Ship[] targets = randomShips(QUERIES, new Random(size + 1));
+		measure(prefix + "scan.getWithin", QUERIES, count -> {
+			double sum = 0.0;
+			for (Ship target : targets)
+				for (Ship ship : ships)
+					if (target.getDistanceBetween(ship) <= 100.0)
+						sum++;
+			return sum;
+		});
+		measure(prefix + "index.getWithin", QUERIES, count -> {
+			double sum = 0.0;
+			for (Ship target : targets)
+				sum += index.getWithin(target.getPositionX(), target.getPositionY(), 100.0).size();
+			return sum;
+		});
+		measure(prefix + "index.getNearest(8)", QUERIES, count -> {
+			double sum = 0.0;
+			for (Ship target : targets)
+				sum += index.getNearest(target.getPositionX(), target.getPositionY(), 8).get(0).getPositionX();
+			return sum;
+		});
+		measure(prefix + "index.move+refresh", size, count -> {
+			for (Ship ship : ships)
+				ship.move(1e-3);
+			return index.refresh();
+		});
+	}
+
+	/**
+	 * Report the largest errors of the float and fixed-point fleets against
+	 * a fleet in double precision, for positions after many small moves and
+	 * for distances and times to collision between neighbouring ships, and
+	 * check that positions and times to collision stay within their bounds.
+	 *
+	 * @throws	AssertionError
+	 * 			Some position is off by more than PRECISION_POSITION, or some
+	 * 			time to collision by PRECISION_TIME relative or more.
+	 */
+	private void runPrecision() throws Exception {
+		if (! "precision".contains(this.filter) && ! this.filter.startsWith("precision"))
+			return;
+		Ship[] ships = randomShips(PRECISION_SHIPS, new Random(11));
+		ShipFleet fleet = new ShipFleet(PRECISION_SHIPS);
+		FloatShipFleet floatFleet = new FloatShipFleet(PRECISION_SHIPS);
+		FixedPointShipFleet fixedFleet = new FixedPointShipFleet(PRECISION_SHIPS, FIXED_RESOLUTION);
+		for (Ship ship : ships) {
+			fleet.add(ship);
+			floatFleet.add(ship);
+			fixedFleet.add(ship);
+		}
+		for (int step = 0; step < PRECISION_STEPS; step++) {
+			fleet.moveAll(1e-3);
+			floatFleet.moveAll(1e-3);
+			fixedFleet.moveAll(1e-3);
+		}
+		double floatPosition = 0.0, fixedPosition = 0.0, floatDistance = 0.0, fixedDistance = 0.0;
+		double floatTime = 0.0, fixedTime = 0.0;
+		for (int i = 0; i < PRECISION_SHIPS; i++) {
+			floatPosition = Math.max(floatPosition, Math.max(
+					Math.abs(floatFleet.getPositionX(i) - fleet.getPositionX(i)),
+					Math.abs(floatFleet.getPositionY(i) - fleet.getPositionY(i))));
+			fixedPosition = Math.max(fixedPosition, Math.max(
+					Math.abs(fixedFleet.getPositionX(i) - fleet.getPositionX(i)),
+					Math.abs(fixedFleet.getPositionY(i) - fleet.getPositionY(i))));
+			if (i == 0)
+				continue;
+			Ship a = fleet.toShip(i), b = fleet.toShip(i - 1);
+			double distance = a.getDistanceBetween(b);
+			floatDistance = Math.max(floatDistance, Math.abs(floatFleet.getDistanceBetween(i, i - 1) - distance));
+			fixedDistance = Math.max(fixedDistance, Math.abs(fixedFleet.getDistanceBetween(i, i - 1) - distance));
+			double time = a.getTimeToCollision(b);
+			if (time < Double.POSITIVE_INFINITY) {
+				floatTime = Math.max(floatTime, relativeError(floatFleet.getTimeToCollision(i, i - 1), time));
+				fixedTime = Math.max(fixedTime, relativeError(fixedFleet.getTimeToCollision(i, i - 1), time));
+			}
+		}
+		System.out.printf("%-48s %12.3g units%n", "precision.float.position", floatPosition);
+		System.out.printf("%-48s %12.3g units%n", "precision.fixed.position", fixedPosition);
+		System.out.printf("%-48s %12.3g units%n", "precision.float.getDistanceBetween", floatDistance);
+		System.out.printf("%-48s %12.3g units%n", "precision.fixed.getDistanceBetween", fixedDistance);
+		System.out.printf("%-48s %12.3g relative%n", "precision.float.getTimeToCollision", floatTime);
+		System.out.printf("%-48s %12.3g relative%n", "precision.fixed.getTimeToCollision", fixedTime);
+		System.out.printf("%-48s %12d B/ship%n", "precision.float.memory", FloatShipFleet.BYTES_PER_SHIP);
+		System.out.printf("%-48s %12d B/ship%n", "precision.fixed.memory", FixedPointShipFleet.BYTES_PER_SHIP);
+		if ((floatPosition > PRECISION_POSITION) || (fixedPosition > PRECISION_POSITION))
+			throw new AssertionError("Position off by " + Math.max(floatPosition, fixedPosition) + " units");
+		if ((floatTime >= PRECISION_TIME) || (fixedTime >= PRECISION_TIME))
+			throw new AssertionError("Time to collision off by " + Math.max(floatTime, fixedTime) + " relative");
+		checkInvalidVelocities();
+	}
+
+	/**
+	 * Check that the float and fixed-point fleets store no velocity for
+	 * ships with an invalid velocity, whether added one by one or copied
+	 * from a fleet that stores them unchecked.
+	 *
+	 * @throws	AssertionError
+	 * 			Some ship with an invalid velocity moves.
+	 */
+	private static void checkInvalidVelocities() throws Exception {
+		double[][] velocities = { { 1.0, Double.NaN }, { Double.NaN, Double.NaN },
+				{ Double.POSITIVE_INFINITY, 0.0 }, { 2.0 * Ship.getMaximumVelocity(), 0.0 } };
+		ShipFleet fleet = new ShipFleet(velocities.length);
+		FloatShipFleet floatFleet = new FloatShipFleet(2 * velocities.length);
+		FixedPointShipFleet fixedFleet = new FixedPointShipFleet(2 * velocities.length, FIXED_RESOLUTION);
+		for (double[] velocity : velocities) {
+			fleet.append(0.0, 0.0, velocity[0], velocity[1], 0.0, 11.0);
+			floatFleet.add(0.0, 0.0, velocity[0], velocity[1], 0.0, 11.0);
+			fixedFleet.add(0.0, 0.0, velocity[0], velocity[1], 0.0, 11.0);
+		}
+		floatFleet.addAll(fleet);
+		fixedFleet.addAll(fleet);
+		int moving = 0;
+		for (int i = 0; i < floatFleet.getNbShips(); i++) {
+			if ((floatFleet.getVelocityX(i) != 0.0) || (floatFleet.getVelocityY(i) != 0.0))
+				moving++;
+			if ((fixedFleet.getVelocityX(i) != 0.0) || (fixedFleet.getVelocityY(i) != 0.0))
+				moving++;
+		}
+		System.out.printf("%-48s %12d ships%n", "precision.invalidVelocity", moving);
+		if (moving > 0)
+			throw new AssertionError(moving + " ships with an invalid velocity move");
+	}
+
+	/**
+	 * Check that seeking a replay engine back and forth through a command
+	 * log gives the same fleet, bit for bit, as replaying the log straight
+	 * to the same command. The thrusts are large, such that many ships are
+	 * clamped to the maximum velocity.
+	 *
+	 * @throws	AssertionError
+	 * 			Some seek gave a different fleet.
+	 */
+	private void runReplay() throws Exception {
+		if (! "replay".contains(this.filter) && ! this.filter.startsWith("replay"))
+			return;
+		Random random = new Random(17);
+		Ship[] ships = randomShips(REPLAY_SHIPS, random);
+		Path directory = Files.createTempDirectory("replay");
+		try {
+			Path log = directory.resolve("commands.log");
+			try (CommandLogWriter writer = new CommandLogWriter(log)) {
+				for (int i = 0; i < REPLAY_COMMANDS; i++) {
+					int ship = random.nextInt(REPLAY_SHIPS);
+					switch (random.nextInt(3)) {
+						case 0:
+							writer.move(ship, random.nextDouble());
+							break;
+						case 1:
+							writer.turn(ship, random.nextDouble() - 0.5);
+							break;
+						default:
+							writer.thrust(ship, random.nextDouble() * 1e6);
+					}
+				}
+			}
+			long[] targets = { 150, REPLAY_COMMANDS, 0, 4_321, 99, REPLAY_COMMANDS / 2, REPLAY_COMMANDS - 1, 100 };
+			ShipFleet[] expected = new ShipFleet[targets.length];
+			for (int k = 0; k < targets.length; k++) {
+				ShipFleet fleet = new ShipFleet(REPLAY_SHIPS);
+				for (Ship ship : ships)
+					fleet.add(ship);
+				try (ReplayEngine straight = new ReplayEngine(log, fleet, directory.resolve("straight" + k), 1_000_000)) {
+					straight.replay(targets[k]);
+				}
+				expected[k] = fleet;
+			}
+			ShipFleet fleet = new ShipFleet(REPLAY_SHIPS);
+			for (Ship ship : ships)
+				fleet.add(ship);
+			int mismatches = 0;
+			try (ReplayEngine engine = new ReplayEngine(log, fleet, directory.resolve("seek"), REPLAY_INTERVAL)) {
+				for (int k = 0; k < targets.length; k++) {
+					engine.seek(targets[k]);
+					int different = countDifferences(fleet, expected[k]);
+					System.out.printf("%-48s %12d ships differ%n", "replay.seek(" + targets[k] + ")", different);
+					mismatches += different;
+				}
+			}
+			if (mismatches > 0)
+				throw new AssertionError("Seeking differs from a straight replay for " + mismatches + " ships");
+		}
+		finally {
+			deleteRecursively(directory);
+		}
+	}
+
+	/**
+	 * Check that clients receiving the state of a fleet over a lossy loopback
+	 * transport decode the state of each tick they reach to within half a
+	 * quantization step, while only some ships move and a ship is added
+	 * halfway.
+	 *
+	 * @throws	AssertionError
+	 * 			Some client decoded a state that differs from the state sent,
+	 * 			or never reached the last tick.
+	 */
+	private void runNetwork() throws Exception {
+		if (! "network".contains(this.filter) && ! this.filter.startsWith("network"))
+			return;
+		ShipFleet fleet = new ShipFleet(NETWORK_SHIPS + 1);
+		for (Ship ship : randomShips(NETWORK_SHIPS, new Random(13)))
+			fleet.add(ship);
+		BufferPool pool = new BufferPool(false, 64);
+		StateEncoder encoder = new StateEncoder(pool, 32);
+		LoopbackTransport transport = new LoopbackTransport(pool, NETWORK_LOSS, 9);
+		StateDecoder[] decoders = new StateDecoder[NETWORK_CLIENTS];
+		for (int client = 0; client < NETWORK_CLIENTS; client++) {
+			encoder.addClient();
+			decoders[client] = new StateDecoder(64);
+		}
+		int mismatches = 0;
+		long decoded = 0;
+		for (long tick = 1; tick <= NETWORK_TICKS; tick++) {
+			for (int i = 0; i < fleet.getNbShips(); i += 7)
+				fleet.move(i, 0.05);
+			if (tick == NETWORK_TICKS / 2)
+				fleet.add(5.0, 5.0, 1.0, 1.0, 0.0, 15.0);
+			FleetState state = new FleetState(fleet, tick);
+			encoder.update(state);
+			transport.deliverAcknowledgements(encoder);
+			for (int client = 0; client < NETWORK_CLIENTS; client++)
+				transport.send(client, encoder.encode(client));
+			for (int client = 0; client < NETWORK_CLIENTS; client++) {
+				StateDecoder decoder = decoders[client];
+				ByteBuffer packet;
+				while ((packet = transport.receive(client)) != null) {
+					long received = decoder.decode(packet);
+					pool.release(packet);
+					transport.acknowledge(client, received);
+				}
+				if (decoder.getTick() == tick) {
+					decoded++;
+					mismatches += countDifferences(decoder, state);
+				}
+			}
+		}
+		for (StateDecoder decoder : decoders)
+			if (decoder.getTick() == 0)
+				mismatches++;
+		System.out.printf("%-48s %12d ticks%n", "network.decoded", decoded);
+		System.out.printf("%-48s %12d B/packet%n", "network.packet", transport.getNbBytes() / transport.getNbPackets());
+		System.out.printf("%-48s %12d reuses%n", "network.pool", pool.getNbReuses());
+		if (mismatches > 0)
+			throw new AssertionError("Decoded states differ from the states sent " + mismatches + " times");
+	}
+
+	/**
+	 * Return the number of ships of the given decoder whose state differs
+	 * from the given state by more than half a quantization step, counting
+	 * a difference in the number of ships as one.
+	 */
+	private static int countDifferences(StateDecoder decoder, FleetState state) {
+		if (decoder.getNbShips() != state.getNbShips())
+			return 1;
+		int different = 0;
+		for (int i = 0; i < state.getNbShips(); i++) {
+			double orientation = Math.abs(decoder.getOrientation(i) - state.getOrientation(i));
+			orientation = Math.min(orientation, 2.0 * Math.PI - orientation);
+			if ((Math.abs(decoder.getPositionX(i) - state.getPositionX(i)) > StateEncoder.POSITION_STEP / 2 + 1e-9)
+					|| (Math.abs(decoder.getPositionY(i) - state.getPositionY(i)) > StateEncoder.POSITION_STEP / 2 + 1e-9)
+					|| (Math.abs(decoder.getVelocityX(i) - state.getVelocityX(i)) > StateEncoder.VELOCITY_STEP / 2 + 1e-9)
+					|| (Math.abs(decoder.getVelocityY(i) - state.getVelocityY(i)) > StateEncoder.VELOCITY_STEP / 2 + 1e-9)
+					|| (orientation > Math.PI / StateEncoder.ORIENTATION_STEPS + 1e-9)
+					|| (Math.abs(decoder.getRadius(i) - state.getRadius(i)) > StateEncoder.RADIUS_STEP / 2 + 1e-9))
+				different++;
+		}
+		return different;
+	}
+
+	/**
+	 * Return the number of ships of the given fleets whose state differs in
+	 * any bit, counting ships present in one fleet only as well.
+	 */
+	private static int countDifferences(ShipFleet fleet, ShipFleet other) {
+		int n = Math.min(fleet.getNbShips(), other.getNbShips());
+		int different = Math.abs(fleet.getNbShips() - other.getNbShips());
+		for (int i = 0; i < n; i++)
+			if ((Double.doubleToRawLongBits(fleet.getPositionX(i)) != Double.doubleToRawLongBits(other.getPositionX(i)))
+					|| (Double.doubleToRawLongBits(fleet.getPositionY(i)) != Double.doubleToRawLongBits(other.getPositionY(i)))
+					|| (Double.doubleToRawLongBits(fleet.getVelocityX(i)) != Double.doubleToRawLongBits(other.getVelocityX(i)))
+					|| (Double.doubleToRawLongBits(fleet.getVelocityY(i)) != Double.doubleToRawLongBits(other.getVelocityY(i)))
+					|| (Double.doubleToRawLongBits(fleet.getOrientation(i)) != Double.doubleToRawLongBits(other.getOrientation(i)))
+					|| (Double.doubleToRawLongBits(fleet.getRadius(i)) != Double.doubleToRawLongBits(other.getRadius(i))))
+				different++;
+		return different;
+	}
+
+	/**
+	 * Delete the file or directory at the given path with all its contents.
+	 */
+	private static void deleteRecursively(Path path) throws IOException {
+		try (Stream<Path> paths = Files.walk(path)) {
+			for (Path each : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator)
+				Files.delete(each);
+		}
+	}
+
+	/**
+	 * Return the error of the given value relative to the given exact value,
+	 * or one if only one of them is infinite.
+	 */
+	private static double relativeError(double value, double exact) {
+		if (value == exact)
+			return 0.0;
+		if (Double.isInfinite(value) || Double.isInfinite(exact))
+			return 1.0;
+		return Math.abs(value - exact) / Math.max(Math.abs(exact), 1e-9);
+	}
+
+	/**
+	 * Return the given number of ships with random positions and velocities,
+	 * spread over a square in which each ship has on average a few neighbours.
+	 */
+	static Ship[] randomShips(int count, Random random) throws Exception {
+		double side = 200.0 * Math.sqrt(count);
+		Ship[] ships = new Ship[count];
+		for (int i = 0; i < count; i++)
+			ships[i] = new Ship(random.nextDouble() * side, random.nextDouble() * side,
+					random.nextGaussian() * 50.0, random.nextGaussian() * 50.0,
+					random.nextDouble() * 2.0 * Math.PI, 11.0 + random.nextDouble() * 20.0);
+		return ships;
+	}
+
+	/**
+	 * Measure the given operation, which runs the given number of operations
+	 * per invocation, and print the time and allocation per operation.
+	 */
+	private void measure(String name, int operations, Operation operation) throws Exception {
+		if (! name.contains(this.filter))
+			return;
+		long deadline = System.nanoTime() + WARMUP_NANOS;
+		while (System.nanoTime() < deadline)
+			this.sink += operation.run(operations);
+		long iterations = 0;
+		long bytes = allocatedBytes();
+		long start = System.nanoTime();
+		deadline = start + MEASUREMENT_NANOS;
+		do {
+			this.sink += operation.run(operations);
+			iterations++;
+		} while (System.nanoTime() < deadline);
+		long elapsed = System.nanoTime() - start;
+		bytes = allocatedBytes() - bytes;
+		double total = (double) operations * iterations;
+		System.out.printf("%-48s %12.2f ns/op %10.2f B/op %10.2f MB/s%n", name, elapsed / total,
+				bytes / total, bytes * 1e3 / elapsed);
+	}
+
+	/**
+	 * Return the number of bytes allocated so far by the current thread, or
+	 * zero if the virtual machine does not measure allocation.
+	 */
+	private static long allocatedBytes() {
+		if (THREADS instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+			if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled())
+				return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0L;
+	}
+
+	/**
+	 * Variable referencing the thread management interface of the virtual machine.
+	 */
+	private static final java.lang.management.ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	/**
+	 * Variable registering the number of pairs of ships in the pairwise benchmarks.
+	 */
+	private static final int PAIRS = 1_024;
+
+	/**
+	 * Variable registering the number of queries in the spatial index benchmarks.
+	 */
+	private static final int QUERIES = 128;
+
+	/**
+	 * Variable registering the resolution of the fixed-point fleets in the benchmarks.
+	 */
+	private static final double FIXED_RESOLUTION = 1.0 / 1024.0;
+
+	/**
+	 * Variables registering the number of ships and the number of moves in
+	 * the precision report.
+	 */
+	private static final int PRECISION_SHIPS = 10_000, PRECISION_STEPS = 1_000;
+
+	/**
+	 * Variables registering the largest error in units allowed on positions,
+	 * and the relative error on times to collision that must not be reached.
+	 */
+	private static final double PRECISION_POSITION = 1.0, PRECISION_TIME = 1e-3;
+
+	/**
+	 * Variables registering the number of ships, the number of commands and
+	 * the checkpoint interval of the replay check.
+	 */
+	private static final int REPLAY_SHIPS = 2_000, REPLAY_COMMANDS = 20_000, REPLAY_INTERVAL = 100;
+
+	/**
+	 * Variables registering the number of ships, the number of clients and
+	 * the number of ticks of the network check.
+	 */
+	private static final int NETWORK_SHIPS = 1_000, NETWORK_CLIENTS = 20, NETWORK_TICKS = 300;
+
+	/**
+	 * Variable registering the fraction of packets lost in the network check.
+	 */
+	private static final double NETWORK_LOSS = 0.2;
+
+	/**
+	 * Variable registering the fleet sizes of the fleet-scale benchmarks.
+	 */
+	private static final int[] FLEET_SIZES = { 1_000, 10_000, 100_000 };
+
+	/**
+	 * Variables registering the duration of the warm-up and of the measurement
+	 * of each benchmark, in nanoseconds.
+	 */
+	private static final long WARMUP_NANOS = 1_000_000_000L, MEASUREMENT_NANOS = 2_000_000_000L;
+
+}
@@ -0,0 +1,53 @@
+/**
+ * An enumeration of the commands clients issue to single ships of a fleet,
+ * as recorded in command logs.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public enum ShipCommand {
+
+	/**
+	 * Move the ship over a duration; the corresponding method is ShipFleet.move.
+	 */
+	MOVE,
+
+	/**
+	 * Turn the ship over an angle; the corresponding method is ShipFleet.turn.
+	 */
+	TURN,
+
+	/**
+	 * Accelerate the ship with an amount; the corresponding method is ShipFleet.thrust.
+	 */
+	THRUST;
+
+	/**
+	 * Return the code of this command in command logs.
+	 */
+	public byte getCode() {
+		return (byte) ordinal();
+	}
+
+	/**
+	 * Return the command with the given code in command logs.
+	 *
+	 * @param	code
+	 * 			The code of the command.
+	 * @return	| result.getCode() == code
+	 * @throws	IllegalArgumentException
+	 * 			No command has the given code.
+	 */
+	public static ShipCommand fromCode(byte code) throws IllegalArgumentException {
+		if ((code < 0) || (code >= COMMANDS.length))
+			throw new IllegalArgumentException("Unknown command code: " + code);
+		return COMMANDS[code];
+	}
+
+	/**
+	 * Variable referencing all commands, indexed by their code.
+	 */
+	private static final ShipCommand[] COMMANDS = values();
+
+}
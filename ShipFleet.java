@@ -0,0 +1,938 @@
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of fleets storing the position, velocity, orientation and radius
+ * of many ships in parallel arrays of primitive values.
+ *
+ * Each ship in a fleet is identified by its index. Bulk operations such as
+ * moveAll, turnAll and thrustAll advance the whole fleet in a single loop
+ * over these arrays, without creating any ship objects.
+ *
+ * @invar	The number of ships in each fleet is never negative and never
+ * 			exceeds the capacity of the fleet.
+ * 			| 0 <= getNbShips() <= getCapacity()
+ * @invar	Each ship in the fleet satisfies the invariants of the class Ship.
+ * 			| for each index in 0..getNbShips()-1:
+ * 			|	Ship.isValidPosition(getPositionX(index), getPositionY(index))
+ * 			|	&& Ship.isValidOrientation(getOrientation(index))
+ * 			|	&& Ship.isValidRadius(getRadius(index))
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class ShipFleet {
+
+	/**
+	 * Initialize this new fleet without any ships and with the given
+	 * initial capacity.
+	 *
+	 * @param	capacity
+	 * 			The number of ships this fleet can store before it grows.
+	 * @post	This new fleet has no ships.
+	 * 			| new.getNbShips() == 0
+	 * @post	The capacity of this new fleet is equal to the given capacity.
+	 * 			| new.getCapacity() == capacity
+	 * @throws	IllegalArgumentException
+	 * 			The given capacity is negative.
+	 * 			| capacity < 0
+	 */
+	public ShipFleet(int capacity) throws IllegalArgumentException {
+		if (capacity < 0)
+			throw new IllegalArgumentException("Negative capacity: " + capacity);
+		this.xposition = new double[capacity];
+		this.yposition = new double[capacity];
+		this.xvelocity = new double[capacity];
+		this.yvelocity = new double[capacity];
+		this.orientation = new double[capacity];
+		this.xheading = new double[capacity];
+		this.yheading = new double[capacity];
+		this.radius = new double[capacity];
+	}
+
+	/**
+	 * Initialize this new fleet without any ships and with a default capacity.
+	 *
+	 * @effect	This new fleet is initialized with the default capacity.
+	 * 			| this(DEF_CAPACITY)
+	 */
+	public ShipFleet() {
+		this(DEF_CAPACITY);
+	}
+
+	/**
+	 * Return the number of ships in this fleet.
+	 */
+	@Basic
+	public int getNbShips() {
+		return this.nbShips;
+	}
+
+	/**
+	 * Return the number of ships this fleet can store before it grows.
+	 */
+	@Basic
+	public int getCapacity() {
+		return this.xposition.length;
+	}
+
+	/**
+	 * Add a new ship with the given position, velocity, orientation and
+	 * radius to this fleet.
+	 *
+	 * @param 	xposition
+	 * 			The X-coordinate of the position for the new ship.
+	 * @param 	yposition
+	 * 			The Y-coordinate of the position for the new ship.
+	 * @param 	xvelocity
+	 * 			The X-coordinate of the velocity for the new ship.
+	 * @param 	yvelocity
+	 * 			The Y-coordinate of the velocity for the new ship.
+	 * @param 	orientation
+	 * 			The orientation for the new ship.
+	 * @param 	radius
+	 * 			The radius for the new ship.
+	 * @pre		The given orientation must be a valid orientation for a ship.
+	 * 			| Ship.isValidOrientation(orientation)
+	 * @post	The number of ships in this fleet is incremented by one.
+	 * 			| new.getNbShips() == getNbShips() + 1
+	 * @post	The new ship has the given position, orientation and radius.
+	 * 			If the given velocity is a valid velocity, the new ship has the
+	 * 			given velocity, otherwise it does not move.
+	 * @return	The index of the new ship.
+	 * 			| result == getNbShips()
+	 * @throws	IllegalValueException
+	 * 			The given position is not a valid position for a ship.
+	 * 			| ! Ship.isValidPosition(xposition, yposition)
+	 * @throws	IllegalRadiusException
+	 * 			The given radius is not a valid radius for a ship.
+	 * 			| ! Ship.isValidRadius(radius)
+	 */
+	public int add(double xposition, double yposition, double xvelocity, double yvelocity,
+			double orientation, double radius) throws IllegalValueException, IllegalRadiusException {
+		assert Ship.isValidOrientation(orientation);
+		if (! Ship.isValidPosition(xposition, yposition))
+			throw new IllegalValueException(xposition, yposition);
+		if (! Ship.isValidRadius(radius))
+			throw new IllegalRadiusException(radius, null);
+		if (this.nbShips == getCapacity())
+			grow();
+		int index = this.nbShips++;
+		this.xposition[index] = xposition;
+		this.yposition[index] = yposition;
+		if (Ship.isValidVelocity(xvelocity, yvelocity)) {
+			this.xvelocity[index] = xvelocity;
+			this.yvelocity[index] = yvelocity;
+		}
+		else {
+			this.xvelocity[index] = Ship.getMinimumVelocity();
+			this.yvelocity[index] = Ship.getMinimumVelocity();
+		}
+		setHeading(index, orientation);
+		this.radius[index] = radius;
+		return index;
+	}
+
+	/**
+	 * Add a copy of the given ship to this fleet.
+	 *
+	 * @param	ship
+	 * 			The ship to copy into this fleet.
+	 * @return	The index of the new ship.
+	 * 			| result == add(ship.getPositionX(), ship.getPositionY(),
+	 * 			|	ship.getVelocityX(), ship.getVelocityY(),
+	 * 			|	ship.getOrientation(), ship.getRadius())
+	 * @throws	NullPointerException
+	 * 			The given ship is not effective.
+	 * 			| ship == null
+	 */
+	public int add(Ship ship) throws NullPointerException {
+		if (this.nbShips == getCapacity())
+			grow();
+		int index = this.nbShips++;
+		this.xposition[index] = ship.getPositionX();
+		this.yposition[index] = ship.getPositionY();
+		this.xvelocity[index] = ship.getVelocityX();
+		this.yvelocity[index] = ship.getVelocityY();
+		setHeading(index, ship.getOrientation());
+		this.radius[index] = ship.getRadius();
+		return index;
+	}
+
+	/**
+	 * Add a new ship with the given state to this fleet as is. This is meant
+	 * for loading ships saved from a fleet: unlike add, it stores the given
+	 * velocity even if it is not valid, such that a saved state is loaded
+	 * bit for bit.
+	 *
+	 * @return	The index of the new ship.
+	 * 			| result == getNbShips()
+	 */
+	int append(double xposition, double yposition, double xvelocity, double yvelocity,
+			double orientation, double radius) {
+		if (this.nbShips == getCapacity())
+			grow();
+		int index = this.nbShips++;
+		this.xposition[index] = xposition;
+		this.yposition[index] = yposition;
+		this.xvelocity[index] = xvelocity;
+		this.yvelocity[index] = yvelocity;
+		setHeading(index, orientation);
+		this.radius[index] = radius;
+		return index;
+	}
+
+	/**
+	 * Remove all ships from this fleet.
+	 *
+	 * @post	This fleet has no ships.
+	 * 			| new.getNbShips() == 0
+	 */
+	public void clear() {
+		this.nbShips = 0;
+	}
+
+	/**
+	 * Double the capacity of this fleet.
+	 */
+	private void grow() {
+		int capacity = Math.max(DEF_CAPACITY, 2 * getCapacity());
+		this.xposition = Arrays.copyOf(this.xposition, capacity);
+		this.yposition = Arrays.copyOf(this.yposition, capacity);
+		this.xvelocity = Arrays.copyOf(this.xvelocity, capacity);
+		this.yvelocity = Arrays.copyOf(this.yvelocity, capacity);
+		this.orientation = Arrays.copyOf(this.orientation, capacity);
+		this.xheading = Arrays.copyOf(this.xheading, capacity);
+		this.yheading = Arrays.copyOf(this.yheading, capacity);
+		this.radius = Arrays.copyOf(this.radius, capacity);
+	}
+
+	/**
+	 * Check whether the given index refers to a ship in this fleet.
+	 *
+	 * @param	index
+	 * 			The index to check.
+	 * @return	True if and only if the given index is not negative and
+	 * 			below the number of ships in this fleet.
+	 * 			| result == (0 <= index && index < getNbShips())
+	 */
+	public boolean isValidIndex(int index) {
+		return (0 <= index) && (index < this.nbShips);
+	}
+
+	/**
+	 * Check the given index and throw an exception if it does not refer
+	 * to a ship in this fleet.
+	 */
+	private void checkIndex(int index) throws IndexOutOfBoundsException {
+		if (! isValidIndex(index))
+			throw new IndexOutOfBoundsException("No ship at index " + index);
+	}
+
+	/**
+	 * Return the X-coordinate of the position of the ship at the given index.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getPositionX(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.xposition[index];
+	}
+
+	/**
+	 * Return the Y-coordinate of the position of the ship at the given index.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getPositionY(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.yposition[index];
+	}
+
+	/**
+	 * Return the X-coordinate of the velocity of the ship at the given index.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getVelocityX(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.xvelocity[index];
+	}
+
+	/**
+	 * Return the Y-coordinate of the velocity of the ship at the given index.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getVelocityY(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.yvelocity[index];
+	}
+
+	/**
+	 * Return the orientation of the ship at the given index.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getOrientation(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.orientation[index];
+	}
+
+	/**
+	 * Return the radius of the ship at the given index.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public double getRadius(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return this.radius[index];
+	}
+
+	/**
+	 * Set the position of the ship at the given index to the given position.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @param 	xposition
+	 * 			The new X-coordinate of position for the ship.
+	 * @param 	yposition
+	 * 			The new Y-coordinate of position for the ship.
+	 * @post	| new.getPositionX(index) == xposition
+	 * 			| 	&& new.getPositionY(index) == yposition
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 * @throws 	IllegalValueException(xposition,yposition)
+	 * 			| ! Ship.isValidPosition(xposition,yposition)
+	 */
+	public void setPosition(int index, double xposition, double yposition)
+			throws IndexOutOfBoundsException, IllegalValueException {
+		checkIndex(index);
+		if (! Ship.isValidPosition(xposition, yposition))
+			throw new IllegalValueException(xposition, yposition);
+		this.xposition[index] = xposition;
+		this.yposition[index] = yposition;
+	}
+
+	/**
+	 * Set the velocity of the ship at the given index to the given velocity.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @param	xvelocity
+	 * 			The X-coordinate of the new velocity for the ship.
+	 * @param 	yvelocity
+	 * 			The Y-coordinate of the new velocity for the ship.
+	 * @post	If the given velocity is valid, the ship has the given velocity.
+	 * 			| if ( Ship.isValidVelocity(xvelocity, yvelocity) )
+	 * 			|	then ( new.getVelocityX(index) == xvelocity
+	 * 			|		&& new.getVelocityY(index) == yvelocity )
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public void setVelocity(int index, double xvelocity, double yvelocity) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		if (Ship.isValidVelocity(xvelocity, yvelocity)) {
+			this.xvelocity[index] = xvelocity;
+			this.yvelocity[index] = yvelocity;
+		}
+	}
+
+	/**
+	 * Set the orientation of the ship at the given index to the given orientation.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @param 	orientation
+	 * 			The new orientation for the ship.
+	 * @pre		| Ship.isValidOrientation(orientation)
+	 * @post	| new.getOrientation(index) == orientation
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public void setOrientation(int index, double orientation) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		assert Ship.isValidOrientation(orientation);
+		setHeading(index, orientation);
+	}
+
+	/**
+	 * Set the orientation of the ship at the given index to the given
+	 * orientation and its heading to the unit vector along that orientation.
+	 */
+	private void setHeading(int index, double orientation) {
+		this.orientation[index] = orientation;
+		this.xheading[index] = FastTrig.headingX(orientation);
+		this.yheading[index] = FastTrig.headingY(orientation);
+	}
+
+	/**
+	 * Set the radius of the ship at the given index to the given radius.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @param 	radius
+	 * 			The new radius for the ship.
+	 * @post	| new.getRadius(index) == radius
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 * @throws 	IllegalRadiusException(radius,null)
+	 * 			| ! Ship.isValidRadius(radius)
+	 */
+	public void setRadius(int index, double radius) throws IndexOutOfBoundsException, IllegalRadiusException {
+		checkIndex(index);
+		if (! Ship.isValidRadius(radius))
+			throw new IllegalRadiusException(radius, null);
+		this.radius[index] = radius;
+	}
+
+	/**
+	 * Change the position of every ship in this fleet with the given duration,
+	 * based on the current position and velocity of each ship.
+	 *
+	 * @param 	duration
+	 * 			The duration over which all ships move.
+	 * @effect	Each ship is moved as if by Ship.move(duration).
+	 * 			| for each index in 0..getNbShips()-1:
+	 * 			|	setPosition(index,
+	 * 			|		getPositionX(index) + duration*getVelocityX(index),
+	 * 			|		getPositionY(index) + duration*getVelocityY(index))
+	 * @throws 	IllegalDurationException
+	 * 			The given duration is not a valid, finite duration.
+	 * 			| ! Ship.isValidDuration(duration) || Double.isInfinite(duration)
+	 */
+	public void moveAll(double duration) throws IllegalDurationException {
+		if (! Ship.isValidDuration(duration) || Double.isInfinite(duration))
+			throw new IllegalDurationException(duration);
+		// With a finite duration and finite velocities no position can become NaN,
+		// so positions are not checked ship by ship as setPosition does.
+		final double[] xposition = this.xposition, yposition = this.yposition;
+		final double[] xvelocity = this.xvelocity, yvelocity = this.yvelocity;
+		final int n = this.nbShips;
+		for (int i = 0; i < n; i++) {
+			xposition[i] += duration * xvelocity[i];
+			yposition[i] += duration * yvelocity[i];
+		}
+	}
+
+	/**
+	 * Change the orientation of every ship in this fleet over the given angle.
+	 *
+	 * @param 	angle
+	 * 			The variation of the orientation of each ship.
+	 * @pre		The given angle must be expressed in radians.
+	 * @effect	Each ship is turned as if by Ship.turn(angle).
+	 */
+	public void turnAll(double angle) {
+		final double[] orientation = this.orientation;
+		final int n = this.nbShips;
+		for (int i = 0; i < n; i++)
+			setHeading(i, turnedOrientation(orientation[i], angle));
+	}
+
+	/**
+	 * Return the orientation obtained by turning the given orientation
+	 * over the given angle, as done by Ship.turn(angle).
+	 */
+	static double turnedOrientation(double orientation, double angle) {
+		double sum = orientation + angle;
+		if ( (sum >= 0.0) && (sum < 2.0*Math.PI) )
+			return sum;
+		if ( (angle < 0) && (Math.abs(angle) > orientation) )
+			return 2.0*Math.PI - ((Math.abs(orientation + angle)) % (2.0*Math.PI));
+		return (orientation + angle) % (2.0*Math.PI);
+	}
+
+	/**
+	 * Accelerate every ship in this fleet with the given amount along
+	 * its orientation.
+	 *
+	 * @param 	a
+	 * 			The amount to accelerate.
+	 * @effect	Each ship is accelerated as if by Ship.thrust(a).
+	 */
+	public void thrustAll(double a) {
+		if (a < 0.0)
+			a = 0.0;
+		final double max = Ship.getMaximumVelocity();
+		final double[] xvelocity = this.xvelocity, yvelocity = this.yvelocity;
+		final double[] xheading = this.xheading, yheading = this.yheading;
+		final int n = this.nbShips;
+		if (ShipMetrics.ENABLED)
+			ShipMetrics.THRUST_CLAMPS.add(countClamps(a, null, 0.0));
+		// The body of this loop has no calls and no branches, such that the
+		// compiler can process several ships per vector instruction.
+		for (int i = 0; i < n; i++) {
+			double new_xvelocity = xvelocity[i] + a*xheading[i];
+			double new_yvelocity = yvelocity[i] + a*yheading[i];
+			boolean clamp = new_xvelocity*new_xvelocity + new_yvelocity*new_yvelocity > max*max;
+			xvelocity[i] = Math.abs(clamp ? max*xheading[i] : new_xvelocity);
+			yvelocity[i] = Math.abs(clamp ? max*yheading[i] : new_yvelocity);
+		}
+		limitVelocities();
+	}
+
+	/**
+	 * Accelerate every ship in this fleet along its orientation with the
+	 * amount reached by applying its thrust rate over the given duration.
+	 *
+	 * @param	rates
+	 * 			The thrust rate of each ship, as an amount per unit of time.
+	 * @param	duration
+	 * 			The duration over which the rates are applied.
+	 * @effect	Each ship is accelerated as if by Ship.thrust(rates[index]*duration).
+	 * 			| for each index in 0..getNbShips()-1:
+	 * 			|	thrust(index, rates[index]*duration)
+	 * @throws	NullPointerException
+	 * 			| rates == null
+	 * @throws	IllegalArgumentException
+	 * 			| rates.length < getNbShips()
+	 * @throws 	IllegalDurationException
+	 * 			| ! Ship.isValidDuration(duration) || Double.isInfinite(duration)
+	 */
+	public void thrustAll(double[] rates, double duration)
+			throws NullPointerException, IllegalArgumentException, IllegalDurationException {
+		final int n = this.nbShips;
+		if (rates.length < n)
+			throw new IllegalArgumentException("No thrust rate for each of " + n + " ships");
+		if (! Ship.isValidDuration(duration) || Double.isInfinite(duration))
+			throw new IllegalDurationException(duration);
+		if (ShipMetrics.ENABLED)
+			ShipMetrics.THRUST_CLAMPS.add(countClamps(0.0, rates, duration));
+		final double max = Ship.getMaximumVelocity();
+		final double[] xvelocity = this.xvelocity, yvelocity = this.yvelocity;
+		final double[] xheading = this.xheading, yheading = this.yheading;
+		for (int i = 0; i < n; i++) {
+			double a = Math.max(rates[i]*duration, 0.0);
+			double new_xvelocity = xvelocity[i] + a*xheading[i];
+			double new_yvelocity = yvelocity[i] + a*yheading[i];
+			boolean clamp = new_xvelocity*new_xvelocity + new_yvelocity*new_yvelocity > max*max;
+			xvelocity[i] = Math.abs(clamp ? max*xheading[i] : new_xvelocity);
+			yvelocity[i] = Math.abs(clamp ? max*yheading[i] : new_yvelocity);
+		}
+		limitVelocities();
+	}
+
+	/**
+	 * Scale the velocity of each ship that rounding took above the maximum
+	 * velocity when clamping it back to a valid velocity, as Ship.thrust
+	 * does. This is done in a separate pass such that the thrust loops stay
+	 * free of calls and branches.
+	 */
+	private void limitVelocities() {
+		final double max = Ship.getMaximumVelocity();
+		final double[] xvelocity = this.xvelocity, yvelocity = this.yvelocity;
+		final int n = this.nbShips;
+		for (int i = 0; i < n; i++)
+			// Only a velocity with a square above the square of the maximum can be invalid.
+			if ((xvelocity[i]*xvelocity[i] + yvelocity[i]*yvelocity[i] > max*max)
+					&& ! Ship.isValidVelocity(xvelocity[i], yvelocity[i])) {
+				double scale = Ship.getVelocityScale(this.xheading[i], this.yheading[i], max);
+				xvelocity[i] = Math.abs(scale*this.xheading[i]);
+				yvelocity[i] = Math.abs(scale*this.yheading[i]);
+			}
+	}
+
+	/**
+	 * Return the number of ships that would be clamped to the maximum
+	 * velocity by a thrust with the given amount, or, if the given rates
+	 * are effective, with their rate over the given duration. Counting in
+	 * a separate pass keeps the thrust loops free of reductions.
+	 */
+	private int countClamps(double a, double[] rates, double duration) {
+		final double max = Ship.getMaximumVelocity();
+		int clamps = 0;
+		for (int i = 0; i < this.nbShips; i++) {
+			double amount = Math.max((rates == null) ? a : rates[i]*duration, 0.0);
+			double new_xvelocity = this.xvelocity[i] + amount*this.xheading[i];
+			double new_yvelocity = this.yvelocity[i] + amount*this.yheading[i];
+			if (new_xvelocity*new_xvelocity + new_yvelocity*new_yvelocity > max*max)
+				clamps++;
+		}
+		return clamps;
+	}
+
+	/**
+	 * Change the position of the ship at the given index with the given
+	 * duration, based on its current position and velocity.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @param 	duration
+	 * 			The duration over which the ship moves.
+	 * @effect	The ship is moved as if by Ship.move(duration).
+	 * 			| setPosition(index,
+	 * 			|	getPositionX(index) + duration*getVelocityX(index),
+	 * 			|	getPositionY(index) + duration*getVelocityY(index))
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 * @throws 	IllegalDurationException
+	 * 			| ! Ship.isValidDuration(duration)
+	 */
+	public void move(int index, double duration)
+			throws IndexOutOfBoundsException, IllegalDurationException, IllegalValueException {
+		checkIndex(index);
+		if (! Ship.isValidDuration(duration))
+			throw new IllegalDurationException(duration);
+		setPosition(index, this.xposition[index] + duration*this.xvelocity[index],
+				this.yposition[index] + duration*this.yvelocity[index]);
+	}
+
+	/**
+	 * Change the orientation of the ship at the given index over the given angle.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @param 	angle
+	 * 			The variation of the orientation of the ship.
+	 * @pre		The given angle must be expressed in radians.
+	 * @effect	The ship is turned as if by Ship.turn(angle).
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public void turn(int index, double angle) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		setHeading(index, turnedOrientation(this.orientation[index], angle));
+	}
+
+	/**
+	 * Accelerate the ship at the given index with the given amount along
+	 * its orientation.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @param 	a
+	 * 			The amount to accelerate.
+	 * @effect	The ship is accelerated as if by Ship.thrust(a).
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public void thrust(int index, double a) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		a = Math.max(a, 0.0);
+		final double max = Ship.getMaximumVelocity();
+		double new_xvelocity = this.xvelocity[index] + a*this.xheading[index];
+		double new_yvelocity = this.yvelocity[index] + a*this.yheading[index];
+		if (new_xvelocity*new_xvelocity + new_yvelocity*new_yvelocity > max*max) {
+			if (ShipMetrics.ENABLED)
+				ShipMetrics.THRUST_CLAMPS.increment();
+			double scale = Ship.getVelocityScale(this.xheading[index], this.yheading[index], max);
+			new_xvelocity = scale*this.xheading[index];
+			new_yvelocity = scale*this.yheading[index];
+		}
+		this.xvelocity[index] = Math.abs(new_xvelocity);
+		this.yvelocity[index] = Math.abs(new_yvelocity);
+	}
+
+	/**
+	 * Store the magnitude of the velocity of every ship of this fleet in
+	 * the given array.
+	 *
+	 * @param	result
+	 * 			The array to store the magnitudes in.
+	 * @post	| for each index in 0..getNbShips()-1:
+	 * 			|	result[index] == Ship.getMagnitudeVelocity(getVelocityX(index), getVelocityY(index))
+	 * @return	The given array.
+	 * 			| result == result
+	 * @throws	NullPointerException
+	 * 			| result == null
+	 * @throws	IllegalArgumentException
+	 * 			| result.length < getNbShips()
+	 */
+	public double[] getMagnitudesVelocity(double[] result) throws NullPointerException, IllegalArgumentException {
+		final int n = this.nbShips;
+		if (result.length < n)
+			throw new IllegalArgumentException("Buffer cannot hold " + n + " magnitudes");
+		final double[] xvelocity = this.xvelocity, yvelocity = this.yvelocity;
+		for (int i = 0; i < n; i++)
+			result[i] = Math.sqrt(xvelocity[i]*xvelocity[i] + yvelocity[i]*yvelocity[i]);
+		return result;
+	}
+
+	/**
+	 * Return the array registering the X-coordinate of the position of the
+	 * ships in this fleet. The array is shared with this fleet and only its
+	 * first getNbShips() elements are meaningful.
+	 */
+	double[] getPositionsX() {
+		return this.xposition;
+	}
+
+	/**
+	 * Return the array registering the Y-coordinate of the position of the
+	 * ships in this fleet, shared as for getPositionsX().
+	 */
+	double[] getPositionsY() {
+		return this.yposition;
+	}
+
+	/**
+	 * Return the array registering the X-coordinate of the velocity of the
+	 * ships in this fleet, shared as for getPositionsX().
+	 */
+	double[] getVelocitiesX() {
+		return this.xvelocity;
+	}
+
+	/**
+	 * Return the array registering the Y-coordinate of the velocity of the
+	 * ships in this fleet, shared as for getPositionsX().
+	 */
+	double[] getVelocitiesY() {
+		return this.yvelocity;
+	}
+
+	/**
+	 * Return the array registering the orientation of the ships in this
+	 * fleet, shared as for getPositionsX().
+	 */
+	double[] getOrientations() {
+		return this.orientation;
+	}
+
+	/**
+	 * Return the array registering the X-coordinate of the heading of the
+	 * ships in this fleet, that is the cosine of their orientation, shared
+	 * as for getPositionsX().
+	 */
+	double[] getHeadingsX() {
+		return this.xheading;
+	}
+
+	/**
+	 * Return the array registering the Y-coordinate of the heading of the
+	 * ships in this fleet, that is the sine of their orientation, shared
+	 * as for getPositionsX().
+	 */
+	double[] getHeadingsY() {
+		return this.yheading;
+	}
+
+	/**
+	 * Return the array registering the radius of the ships in this fleet,
+	 * shared as for getPositionsX().
+	 */
+	double[] getRadii() {
+		return this.radius;
+	}
+
+	/**
+	 * Return a new ship with the state of the ship at the given index.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @return	A new ship whose position, velocity, orientation and radius
+	 * 			are equal to those of the ship at the given index.
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public Ship toShip(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		try {
+			return new Ship(this.xposition[index], this.yposition[index], this.xvelocity[index],
+					this.yvelocity[index], this.orientation[index], this.radius[index]);
+		} catch (IllegalRadiusException | IllegalValueException exc) {
+			// Every ship in a fleet satisfies the invariants of ships.
+			throw new AssertionError(exc);
+		}
+	}
+
+	/**
+	 * Return a view on the ship at the given index.
+	 *
+	 * @param	index
+	 * 			The index of the ship.
+	 * @return	A view whose state is read from and written to this fleet.
+	 * 			| result.getFleet() == this && result.getIndex() == index
+	 * @throws	IndexOutOfBoundsException
+	 * 			| ! isValidIndex(index)
+	 */
+	public View getShip(int index) throws IndexOutOfBoundsException {
+		checkIndex(index);
+		return new View(index);
+	}
+
+	/**
+	 * A class of lightweight views on a single ship of a fleet.
+	 * A view stores nothing but the index of its ship; it offers the
+	 * accessors and mutators of the class Ship on the arrays of its fleet.
+	 */
+	public class View {
+
+		/**
+		 * Initialize this new view on the ship at the given index.
+		 */
+		private View(int index) {
+			this.index = index;
+		}
+
+		/**
+		 * Return the fleet of this view.
+		 */
+		@Basic @Immutable
+		public ShipFleet getFleet() {
+			return ShipFleet.this;
+		}
+
+		/**
+		 * Return the index of the ship of this view.
+		 */
+		@Basic @Immutable
+		public int getIndex() {
+			return this.index;
+		}
+
+		/**
+		 * Variable registering the index of the ship of this view.
+		 */
+		private final int index;
+
+		/**
+		 * Return the X-coordinate of the position of the ship of this view.
+		 */
+		public double getPositionX() {
+			return ShipFleet.this.getPositionX(this.index);
+		}
+
+		/**
+		 * Return the Y-coordinate of the position of the ship of this view.
+		 */
+		public double getPositionY() {
+			return ShipFleet.this.getPositionY(this.index);
+		}
+
+		/**
+		 * Return the X-coordinate of the velocity of the ship of this view.
+		 */
+		public double getVelocityX() {
+			return ShipFleet.this.getVelocityX(this.index);
+		}
+
+		/**
+		 * Return the Y-coordinate of the velocity of the ship of this view.
+		 */
+		public double getVelocityY() {
+			return ShipFleet.this.getVelocityY(this.index);
+		}
+
+		/**
+		 * Return the orientation of the ship of this view.
+		 */
+		public double getOrientation() {
+			return ShipFleet.this.getOrientation(this.index);
+		}
+
+		/**
+		 * Return the radius of the ship of this view.
+		 */
+		public double getRadius() {
+			return ShipFleet.this.getRadius(this.index);
+		}
+
+		/**
+		 * Set the position of the ship of this view to the given position.
+		 *
+		 * @effect	| getFleet().setPosition(getIndex(), xposition, yposition)
+		 */
+		public void setPosition(double xposition, double yposition) throws IllegalValueException {
+			ShipFleet.this.setPosition(this.index, xposition, yposition);
+		}
+
+		/**
+		 * Set the velocity of the ship of this view to the given velocity.
+		 *
+		 * @effect	| getFleet().setVelocity(getIndex(), xvelocity, yvelocity)
+		 */
+		public void setVelocity(double xvelocity, double yvelocity) {
+			ShipFleet.this.setVelocity(this.index, xvelocity, yvelocity);
+		}
+
+		/**
+		 * Set the orientation of the ship of this view to the given orientation.
+		 *
+		 * @effect	| getFleet().setOrientation(getIndex(), orientation)
+		 */
+		public void setOrientation(double orientation) {
+			ShipFleet.this.setOrientation(this.index, orientation);
+		}
+
+		/**
+		 * Set the radius of the ship of this view to the given radius.
+		 *
+		 * @effect	| getFleet().setRadius(getIndex(), radius)
+		 */
+		public void setRadius(double radius) throws IllegalRadiusException {
+			ShipFleet.this.setRadius(this.index, radius);
+		}
+
+		/**
+		 * Return a new ship with the state of the ship of this view.
+		 *
+		 * @effect	| getFleet().toShip(getIndex())
+		 */
+		public Ship toShip() {
+			return ShipFleet.this.toShip(this.index);
+		}
+
+	}
+
+	/**
+	 * Variable registering the number of ships in this fleet.
+	 */
+	private int nbShips;
+
+	/**
+	 * Variables registering the X-coordinate and Y-coordinate of the position
+	 * of the ships in this fleet.
+	 */
+	private double[] xposition, yposition;
+
+	/**
+	 * Variables registering the X-coordinate and Y-coordinate of the velocity
+	 * of the ships in this fleet.
+	 */
+	private double[] xvelocity, yvelocity;
+
+	/**
+	 * Variable registering the orientation of the ships in this fleet.
+	 */
+	private double[] orientation;
+
+	/**
+	 * Variables registering the X-coordinate and Y-coordinate of the unit
+	 * vector along the orientation of the ships in this fleet, that is the
+	 * cosine and sine of their orientation.
+	 */
+	private double[] xheading, yheading;
+
+	/**
+	 * Variable registering the radius of the ships in this fleet.
+	 */
+	private double[] radius;
+
+	/**
+	 * Variable registering the default capacity of a fleet.
+	 */
+	private static final int DEF_CAPACITY = 16;
+
+}
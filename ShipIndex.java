@@ -0,0 +1,554 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of spatial indices over the positions of ships, answering
+ * nearest-neighbour and range queries.
+ *
+ * A ship index is a bucket quadtree over the positions of its ships. Each
+ * leaf holds up to BUCKET_SIZE ships and is split in four quadrants when
+ * it overflows; the root grows outward when a ship moves out of it. A
+ * query only visits the nodes that can hold an answer, such that the k
+ * nearest ships of a point and the ships within a distance of a point are
+ * found in logarithmic time for evenly spread ships.
+ *
+ * The index remembers the position of each ship at the time it was
+ * indexed. After ships are moved, update reindexes a single ship and
+ * refresh reindexes exactly those ships whose position changed; ships that
+ * did not move cost two comparisons each. Queries answer with the indexed
+ * positions.
+ *
+ * Distances are measured between the centres of ships, as by
+ * getDistanceBetween for ships that do not overlap. Ships at an infinite
+ * or extremely remote position are kept outside the tree and checked by
+ * every query.
+ *
+ * A ship index is not safe for use by several threads at once.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class ShipIndex {
+
+	/**
+	 * Initialize this new ship index without any ships.
+	 *
+	 * @post	| new.getNbShips() == 0
+	 */
+	public ShipIndex() {
+	}
+
+	/**
+	 * Return the number of ships in this index.
+	 */
+	public int getNbShips() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Check whether this index holds the given ship.
+	 */
+	public boolean contains(Ship ship) {
+		return this.entries.containsKey(ship);
+	}
+
+	/**
+	 * Add the given ship to this index at its current position.
+	 *
+	 * @param	ship
+	 * 			The ship to add.
+	 * @post	| new.contains(ship)
+	 * @throws	NullPointerException
+	 * 			| ship == null
+	 * @throws	IllegalArgumentException
+	 * 			| contains(ship)
+	 */
+	public void add(Ship ship) throws NullPointerException, IllegalArgumentException {
+		if (ship == null)
+			throw new NullPointerException();
+		if (contains(ship))
+			throw new IllegalArgumentException("Ship already indexed");
+		Entry entry = new Entry(ship);
+		this.entries.put(ship, entry);
+		insert(entry);
+	}
+
+	/**
+	 * Remove the given ship from this index.
+	 *
+	 * @param	ship
+	 * 			The ship to remove.
+	 * @return	True if and only if this index held the given ship.
+	 * @post	| ! new.contains(ship)
+	 */
+	public boolean remove(Ship ship) {
+		Entry entry = this.entries.remove(ship);
+		if (entry == null)
+			return false;
+		detach(entry);
+		return true;
+	}
+
+	/**
+	 * Reindex the given ship at its current position, if it moved since it
+	 * was indexed.
+	 *
+	 * @param	ship
+	 * 			The ship to reindex.
+	 * @throws	IllegalArgumentException
+	 * 			| ! contains(ship)
+	 */
+	public void update(Ship ship) throws IllegalArgumentException {
+		Entry entry = this.entries.get(ship);
+		if (entry == null)
+			throw new IllegalArgumentException("Ship not indexed");
+		update(entry);
+	}
+
+	/**
+	 * Reindex every ship of this index that moved since it was indexed.
+	 *
+	 * @return	The number of ships that were reindexed.
+	 */
+	public int refresh() {
+		int updated = 0;
+		for (Entry entry : this.entries.values())
+			if (update(entry))
+				updated++;
+		return updated;
+	}
+
+	/**
+	 * Reindex the ship of the given entry if it moved since it was indexed,
+	 * and return whether it moved.
+	 */
+	private boolean update(Entry entry) {
+		Ship ship = entry.ship;
+		double x = ship.getPositionX(), y = ship.getPositionY();
+		if ((x == entry.x) && (y == entry.y))
+			return false;
+		if ((entry.leaf != null) && entry.leaf.contains(x, y)) {
+			// The ship stays in its leaf, which need not be rebalanced.
+			entry.x = x;
+			entry.y = y;
+			return true;
+		}
+		detach(entry);
+		entry.x = x;
+		entry.y = y;
+		insert(entry);
+		return true;
+	}
+
+	/**
+	 * Return the given number of ships nearest to the given point, from
+	 * nearest to farthest.
+	 *
+	 * @param	x
+	 * 			The X-coordinate of the point.
+	 * @param	y
+	 * 			The Y-coordinate of the point.
+	 * @param	k
+	 * 			The number of ships to return.
+	 * @return	A new list of the min(k, getNbShips()) ships with the smallest
+	 * 			distance between their indexed position and the given point,
+	 * 			in the order of that distance.
+	 * @throws	IllegalArgumentException
+	 * 			| k < 0
+	 */
+	public List<Ship> getNearest(double x, double y, int k) throws IllegalArgumentException {
+		if (k < 0)
+			throw new IllegalArgumentException("Negative number of ships: " + k);
+		// A max-heap of the k best ships found so far, the farthest on top.
+		PriorityQueue<Candidate> best = new PriorityQueue<Candidate>(Math.max(1, k),
+				(c1, c2) -> Double.compare(c2.distance, c1.distance));
+		if (k > 0) {
+			for (Entry entry : this.outside)
+				offer(best, k, entry, squaredDistance(entry, x, y));
+			// Nodes are visited from nearest to farthest, until no node can hold a better ship.
+			PriorityQueue<Candidate> nodes = new PriorityQueue<Candidate>();
+			if (this.root != null)
+				nodes.add(new Candidate(this.root, null, this.root.squaredDistance(x, y)));
+			while (! nodes.isEmpty()) {
+				Candidate candidate = nodes.poll();
+				if ((best.size() == k) && (candidate.distance > best.peek().distance))
+					break;
+				Node node = candidate.node;
+				if (node.children != null) {
+					for (Node child : node.children)
+						if (child.size > 0)
+							nodes.add(new Candidate(child, null, child.squaredDistance(x, y)));
+				}
+				else
+					for (int i = 0; i < node.count; i++)
+						offer(best, k, node.entries[i], squaredDistance(node.entries[i], x, y));
+			}
+		}
+		Ship[] result = new Ship[best.size()];
+		for (int i = result.length - 1; i >= 0; i--)
+			result[i] = best.poll().entry.ship;
+		return Arrays.asList(result);
+	}
+
+	/**
+	 * Offer the given entry at the given squared distance to the given heap
+	 * of at most the given number of best entries.
+	 */
+	private static void offer(PriorityQueue<Candidate> best, int k, Entry entry, double distance) {
+		if (best.size() < k)
+			best.add(new Candidate(null, entry, distance));
+		else if (distance < best.peek().distance) {
+			best.poll();
+			best.add(new Candidate(null, entry, distance));
+		}
+	}
+
+	/**
+	 * Return all ships within the given distance of the given point.
+	 *
+	 * @param	x
+	 * 			The X-coordinate of the point.
+	 * @param	y
+	 * 			The Y-coordinate of the point.
+	 * @param	distance
+	 * 			The maximum distance.
+	 * @return	A new list of the ships of which the indexed position lies
+	 * 			within the given distance of the given point, in no particular order.
+	 */
+	public List<Ship> getWithin(double x, double y, double distance) {
+		List<Ship> result = new ArrayList<Ship>();
+		forEachWithin(x, y, distance, result::add);
+		return result;
+	}
+
+	/**
+	 * Pass all ships within the given distance of the given point to the
+	 * given consumer, in no particular order.
+	 *
+	 * @param	x
+	 * 			The X-coordinate of the point.
+	 * @param	y
+	 * 			The Y-coordinate of the point.
+	 * @param	distance
+	 * 			The maximum distance.
+	 * @param	consumer
+	 * 			The consumer of the ships.
+	 * @throws	NullPointerException
+	 * 			| consumer == null
+	 */
+	public void forEachWithin(double x, double y, double distance, Consumer<Ship> consumer)
+			throws NullPointerException {
+		if (consumer == null)
+			throw new NullPointerException();
+		double squared = distance * distance;
+		if (! (distance >= 0.0))
+			return;
+		for (Entry entry : this.outside)
+			if (squaredDistance(entry, x, y) <= squared)
+				consumer.accept(entry.ship);
+		if (this.root != null)
+			forEachWithin(this.root, x, y, squared, consumer);
+	}
+
+	/**
+	 * Pass all ships in the given node within the given squared distance of
+	 * the given point to the given consumer.
+	 */
+	private static void forEachWithin(Node node, double x, double y, double squared, Consumer<Ship> consumer) {
+		if ((node.size == 0) || (node.squaredDistance(x, y) > squared))
+			return;
+		if (node.children != null) {
+			for (Node child : node.children)
+				forEachWithin(child, x, y, squared, consumer);
+			return;
+		}
+		for (int i = 0; i < node.count; i++)
+			if (squaredDistance(node.entries[i], x, y) <= squared)
+				consumer.accept(node.entries[i].ship);
+	}
+
+	/**
+	 * Return the squared distance between the indexed position of the given
+	 * entry and the given point.
+	 */
+	private static double squaredDistance(Entry entry, double x, double y) {
+		double xdelta = entry.x - x, ydelta = entry.y - y;
+		return xdelta*xdelta + ydelta*ydelta;
+	}
+
+	/**
+	 * Insert the given entry at its indexed position.
+	 */
+	private void insert(Entry entry) {
+		if (! ((Math.abs(entry.x) <= MAX_COORDINATE) && (Math.abs(entry.y) <= MAX_COORDINATE))) {
+			entry.leaf = null;
+			this.outside.add(entry);
+			return;
+		}
+		if (this.root == null)
+			this.root = new Node(null, Math.floor(entry.x) - 0.5 * ROOT_SIZE, Math.floor(entry.y) - 0.5 * ROOT_SIZE,
+					ROOT_SIZE, 0);
+		while (! this.root.contains(entry.x, entry.y))
+			growToward(entry.x, entry.y);
+		this.root.insert(entry);
+	}
+
+	/**
+	 * Double the size of the root toward the given point.
+	 */
+	private void growToward(double x, double y) {
+		Node old = this.root;
+		double size = 2.0 * old.side;
+		double minX = (x < old.minX) ? old.minX - old.side : old.minX;
+		double minY = (y < old.minY) ? old.minY - old.side : old.minY;
+		Node root = new Node(null, minX, minY, size, 0);
+		root.split();
+		int quadrant = ((old.minX == minX) ? 0 : 1) + ((old.minY == minY) ? 0 : 2);
+		root.children[quadrant] = old;
+		old.parent = root;
+		root.size = old.size;
+		old.shiftDepth(1);
+		this.root = root;
+	}
+
+	/**
+	 * Remove the given entry from the tree or from the ships outside it.
+	 */
+	private void detach(Entry entry) {
+		if (entry.leaf == null) {
+			this.outside.remove(entry);
+			return;
+		}
+		entry.leaf.remove(entry);
+		entry.leaf = null;
+	}
+
+	/**
+	 * Variable referencing the entry of each ship in this index.
+	 */
+	private final IdentityHashMap<Ship, Entry> entries = new IdentityHashMap<Ship, Entry>();
+
+	/**
+	 * Variable referencing the root of the tree of this index, or null if
+	 * no ship was ever indexed at a finite position.
+	 */
+	private Node root;
+
+	/**
+	 * Variable referencing the entries of ships at an infinite or extremely
+	 * remote position.
+	 */
+	private final List<Entry> outside = new ArrayList<Entry>();
+
+	/**
+	 * Variable registering the maximum number of ships in a leaf, unless
+	 * the leaf is at the maximum depth.
+	 */
+	private static final int BUCKET_SIZE = 8;
+
+	/**
+	 * Variable registering the maximum depth of a node below the root.
+	 */
+	private static final int MAX_DEPTH = 48;
+
+	/**
+	 * Variable registering the largest coordinate of a ship in the tree,
+	 * such that the side of the root cannot overflow.
+	 */
+	private static final double MAX_COORDINATE = 1.0E300;
+
+	/**
+	 * Variable registering the side of the first root.
+	 */
+	private static final double ROOT_SIZE = 1024.0;
+
+	/**
+	 * A class of entries registering a ship with its indexed position.
+	 */
+	private static final class Entry {
+
+		private Entry(Ship ship) {
+			this.ship = ship;
+			this.x = ship.getPositionX();
+			this.y = ship.getPositionY();
+		}
+
+		private final Ship ship;
+
+		private double x, y;
+
+		private Node leaf;
+
+	}
+
+	/**
+	 * A class of square nodes of the tree, with four children or with a
+	 * bucket of entries.
+	 */
+	private static final class Node {
+
+		private Node(Node parent, double minX, double minY, double side, int depth) {
+			this.parent = parent;
+			this.minX = minX;
+			this.minY = minY;
+			this.side = side;
+			this.depth = depth;
+		}
+
+		private Node parent;
+
+		private final double minX, minY, side;
+
+		private int depth;
+
+		/**
+		 * The number of entries in the subtree of this node.
+		 */
+		private int size;
+
+		private Node[] children;
+
+		private Entry[] entries = new Entry[BUCKET_SIZE];
+
+		private int count;
+
+		private boolean contains(double x, double y) {
+			return (x >= this.minX) && (x < this.minX + this.side) && (y >= this.minY) && (y < this.minY + this.side);
+		}
+
+		private double squaredDistance(double x, double y) {
+			double xdelta = Math.max(0.0, Math.max(this.minX - x, x - (this.minX + this.side)));
+			double ydelta = Math.max(0.0, Math.max(this.minY - y, y - (this.minY + this.side)));
+			return xdelta*xdelta + ydelta*ydelta;
+		}
+
+		private void insert(Entry entry) {
+			Node node = this;
+			while (true) {
+				node.size++;
+				if (node.children == null)
+					break;
+				node = node.children[node.quadrant(entry.x, entry.y)];
+			}
+			node.add(entry);
+			if ((node.count > BUCKET_SIZE) && (node.depth < MAX_DEPTH))
+				node.push();
+		}
+
+		private int quadrant(double x, double y) {
+			double half = 0.5 * this.side;
+			return ((x < this.minX + half) ? 0 : 1) + ((y < this.minY + half) ? 0 : 2);
+		}
+
+		private void add(Entry entry) {
+			if (this.count == this.entries.length)
+				this.entries = Arrays.copyOf(this.entries, 2 * this.count);
+			this.entries[this.count++] = entry;
+			entry.leaf = this;
+		}
+
+		private void remove(Entry entry) {
+			for (int i = 0; i < this.count; i++)
+				if (this.entries[i] == entry) {
+					this.entries[i] = this.entries[--this.count];
+					this.entries[this.count] = null;
+					break;
+				}
+			for (Node node = this; node != null; node = node.parent)
+				node.size--;
+			Node parent = this.parent;
+			if ((parent != null) && (parent.size <= BUCKET_SIZE))
+				parent.collapse();
+		}
+
+		private void split() {
+			double half = 0.5 * this.side;
+			this.children = new Node[4];
+			for (int quadrant = 0; quadrant < 4; quadrant++)
+				this.children[quadrant] = new Node(this, this.minX + ((quadrant & 1) == 0 ? 0.0 : half),
+						this.minY + ((quadrant & 2) == 0 ? 0.0 : half), half, this.depth + 1);
+		}
+
+		/**
+		 * Split this leaf and push its entries down into its children.
+		 */
+		private void push() {
+			split();
+			Entry[] entries = this.entries;
+			int count = this.count;
+			this.entries = null;
+			this.count = 0;
+			for (int i = 0; i < count; i++) {
+				Node child = this.children[quadrant(entries[i].x, entries[i].y)];
+				child.size++;
+				child.add(entries[i]);
+			}
+			for (Node child : this.children)
+				if ((child.count > BUCKET_SIZE) && (child.depth < MAX_DEPTH))
+					child.push();
+		}
+
+		/**
+		 * Turn this node back into a leaf holding all entries of its subtree.
+		 */
+		private void collapse() {
+			if (this.children == null)
+				return;
+			Entry[] entries = new Entry[Math.max(BUCKET_SIZE, this.size)];
+			this.entries = entries;
+			this.count = 0;
+			gather(this);
+			this.children = null;
+		}
+
+		private void gather(Node leaf) {
+			if (this.children == null) {
+				for (int i = 0; i < this.count; i++)
+					leaf.add(this.entries[i]);
+				return;
+			}
+			for (Node child : this.children)
+				child.gather(leaf);
+		}
+
+		private void shiftDepth(int delta) {
+			this.depth += delta;
+			if (this.children != null)
+				for (Node child : this.children)
+					child.shiftDepth(delta);
+		}
+
+	}
+
+	/**
+	 * A class of nodes or entries with their squared distance to a point.
+	 */
+	private static final class Candidate implements Comparable<Candidate> {
+
+		private Candidate(Node node, Entry entry, double distance) {
+			this.node = node;
+			this.entry = entry;
+			this.distance = distance;
+		}
+
+		private final Node node;
+
+		private final Entry entry;
+
+		private final double distance;
+
+		@Override
+		public int compareTo(Candidate other) {
+			return Double.compare(this.distance, other.distance);
+		}
+
+	}
+
+}
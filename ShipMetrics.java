@@ -0,0 +1,294 @@
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * A class collecting metrics on the operations on ships on the hot path.
+ *
+ * Counters are striped LongAdders, such that threads counting at once do
+ * not contend on a single cache line. Latencies are recorded in latency
+ * histograms. The metrics are exposed through JMX under OBJECT_NAME once
+ * register() is invoked, and can be dumped as text periodically.
+ *
+ * Metrics are only recorded if the system property "ship.metrics" is true
+ * when this class is loaded. Every recording site is guarded by the
+ * constant ENABLED, such that the compiler removes the recording code,
+ * including the reads of the clock, when metrics are disabled.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public final class ShipMetrics {
+
+	/**
+	 * This class has no instances.
+	 */
+	private ShipMetrics() {
+	}
+
+	/**
+	 * Variable registering whether metrics are recorded.
+	 */
+	public static final boolean ENABLED = Boolean.getBoolean("ship.metrics");
+
+	/**
+	 * Variable registering the name under which the metrics are registered with JMX.
+	 */
+	public static final String OBJECT_NAME = "ship:type=ShipMetrics";
+
+	/**
+	 * Variable counting the times to collision computed.
+	 */
+	static final LongAdder TIME_TO_COLLISION_CALLS = new LongAdder();
+
+	/**
+	 * Variable counting the illegal value exceptions created.
+	 */
+	static final LongAdder ILLEGAL_VALUES = new LongAdder();
+
+	/**
+	 * Variable counting the illegal duration exceptions created.
+	 */
+	static final LongAdder ILLEGAL_DURATIONS = new LongAdder();
+
+	/**
+	 * Variable counting the illegal radius exceptions created.
+	 */
+	static final LongAdder ILLEGAL_RADIUSES = new LongAdder();
+
+	/**
+	 * Variable counting the thrusts clamped to the maximum velocity.
+	 */
+	static final LongAdder THRUST_CLAMPS = new LongAdder();
+
+	/**
+	 * Variable referencing the histogram of the latencies of moves of single ships.
+	 */
+	static final LatencyHistogram MOVE = new LatencyHistogram("ship.move");
+
+	/**
+	 * Variable referencing the histogram of the latencies of times to
+	 * collision between two ships.
+	 */
+	static final LatencyHistogram TIME_TO_COLLISION = new LatencyHistogram("ship.getTimeToCollision");
+
+	/**
+	 * Variable referencing the histogram of the latencies of collision
+	 * positions between two ships.
+	 */
+	static final LatencyHistogram COLLISION_POSITION = new LatencyHistogram("ship.getCollisionPosition");
+
+	/**
+	 * Return the current time for timing an operation, or zero if metrics
+	 * are disabled.
+	 */
+	static long start() {
+		return ENABLED ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * Record the latency of an operation started at the given time in the
+	 * given histogram, if metrics are enabled.
+	 */
+	static void stop(LatencyHistogram histogram, long start) {
+		if (ENABLED)
+			histogram.record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Return the management interface of the metrics.
+	 */
+	public static ShipMetricsMXBean getMXBean() {
+		return MX_BEAN;
+	}
+
+	/**
+	 * Register the management interface of the metrics with the platform
+	 * MBean server under OBJECT_NAME, unless it is registered already.
+	 *
+	 * @throws	IllegalStateException
+	 * 			The management interface could not be registered.
+	 */
+	public static void register() throws IllegalStateException {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.registerMBean(MX_BEAN, new ObjectName(OBJECT_NAME));
+		}
+		catch (InstanceAlreadyExistsException exc) {
+			// Registered before.
+		}
+		catch (JMException exc) {
+			throw new IllegalStateException("Cannot register " + OBJECT_NAME, exc);
+		}
+	}
+
+	/**
+	 * Return a textual dump of all metrics, one metric per line.
+	 */
+	public static String dump() {
+		StringBuilder result = new StringBuilder();
+		result.append("ship.timeToCollision.calls: ").append(TIME_TO_COLLISION_CALLS.sum()).append('\n');
+		result.append("ship.illegalValue.created: ").append(ILLEGAL_VALUES.sum()).append('\n');
+		result.append("ship.illegalDuration.created: ").append(ILLEGAL_DURATIONS.sum()).append('\n');
+		result.append("ship.illegalRadius.created: ").append(ILLEGAL_RADIUSES.sum()).append('\n');
+		result.append("ship.thrust.clamps: ").append(THRUST_CLAMPS.sum()).append('\n');
+		result.append(MOVE).append('\n');
+		result.append(TIME_TO_COLLISION).append('\n');
+		result.append(COLLISION_POSITION).append('\n');
+		return result.toString();
+	}
+
+	/**
+	 * Print a dump of all metrics to the given stream at the given period,
+	 * on a daemon thread.
+	 *
+	 * @param	out
+	 * 			The stream to print to.
+	 * @param	period
+	 * 			The time between two dumps.
+	 * @param	unit
+	 * 			The unit of the given period.
+	 * @return	A future that stops the dumps when it is cancelled.
+	 * @throws	NullPointerException
+	 * 			| out == null || unit == null
+	 * @throws	IllegalArgumentException
+	 * 			| period <= 0
+	 */
+	public static ScheduledFuture<?> startDump(PrintStream out, long period, TimeUnit unit)
+			throws NullPointerException, IllegalArgumentException {
+		if ((out == null) || (unit == null))
+			throw new NullPointerException();
+		return DUMPER.scheduleAtFixedRate(() -> out.print(dump()), period, period, unit);
+	}
+
+	/**
+	 * Reset all metrics to zero.
+	 */
+	public static void reset() {
+		TIME_TO_COLLISION_CALLS.reset();
+		ILLEGAL_VALUES.reset();
+		ILLEGAL_DURATIONS.reset();
+		ILLEGAL_RADIUSES.reset();
+		THRUST_CLAMPS.reset();
+		MOVE.reset();
+		TIME_TO_COLLISION.reset();
+		COLLISION_POSITION.reset();
+	}
+
+	/**
+	 * Variable referencing the executor of periodic dumps.
+	 */
+	private static final ScheduledExecutorService DUMPER = Executors.newSingleThreadScheduledExecutor(task -> {
+		Thread thread = new Thread(task, "ship-metrics-dump");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Variable referencing the management interface of the metrics.
+	 */
+	private static final ShipMetricsMXBean MX_BEAN = new ShipMetricsMXBean() {
+
+		@Override
+		public boolean isEnabled() {
+			return ENABLED;
+		}
+
+		@Override
+		public long getTimeToCollisionCount() {
+			return TIME_TO_COLLISION_CALLS.sum();
+		}
+
+		@Override
+		public long getIllegalValueCount() {
+			return ILLEGAL_VALUES.sum();
+		}
+
+		@Override
+		public long getIllegalDurationCount() {
+			return ILLEGAL_DURATIONS.sum();
+		}
+
+		@Override
+		public long getIllegalRadiusCount() {
+			return ILLEGAL_RADIUSES.sum();
+		}
+
+		@Override
+		public long getThrustClampCount() {
+			return THRUST_CLAMPS.sum();
+		}
+
+		@Override
+		public long getMoveCount() {
+			return MOVE.getCount();
+		}
+
+		@Override
+		public long getMoveLatencyP50() {
+			return MOVE.getValueAtPercentile(50.0);
+		}
+
+		@Override
+		public long getMoveLatencyP99() {
+			return MOVE.getValueAtPercentile(99.0);
+		}
+
+		@Override
+		public long getMoveLatencyMax() {
+			return MOVE.getMax();
+		}
+
+		@Override
+		public long getTimeToCollisionLatencyP50() {
+			return TIME_TO_COLLISION.getValueAtPercentile(50.0);
+		}
+
+		@Override
+		public long getTimeToCollisionLatencyP99() {
+			return TIME_TO_COLLISION.getValueAtPercentile(99.0);
+		}
+
+		@Override
+		public long getTimeToCollisionLatencyMax() {
+			return TIME_TO_COLLISION.getMax();
+		}
+
+		@Override
+		public long getCollisionPositionLatencyP50() {
+			return COLLISION_POSITION.getValueAtPercentile(50.0);
+		}
+
+		@Override
+		public long getCollisionPositionLatencyP99() {
+			return COLLISION_POSITION.getValueAtPercentile(99.0);
+		}
+
+		@Override
+		public long getCollisionPositionLatencyMax() {
+			return COLLISION_POSITION.getMax();
+		}
+
+		@Override
+		public String dump() {
+			return ShipMetrics.dump();
+		}
+
+		@Override
+		public void reset() {
+			ShipMetrics.reset();
+		}
+
+	};
+
+}
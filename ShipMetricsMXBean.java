@@ -0,0 +1,103 @@
+/**
+ * An interface for the management of the metrics of ship operations
+ * through JMX.
+ *
+ * Latencies are expressed in nanoseconds.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public interface ShipMetricsMXBean {
+
+	/**
+	 * Return whether metrics are recorded.
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Return the number of times to collision computed.
+	 */
+	long getTimeToCollisionCount();
+
+	/**
+	 * Return the number of illegal value exceptions created.
+	 */
+	long getIllegalValueCount();
+
+	/**
+	 * Return the number of illegal duration exceptions created.
+	 */
+	long getIllegalDurationCount();
+
+	/**
+	 * Return the number of illegal radius exceptions created.
+	 */
+	long getIllegalRadiusCount();
+
+	/**
+	 * Return the number of thrusts clamped to the maximum velocity.
+	 */
+	long getThrustClampCount();
+
+	/**
+	 * Return the number of moves of single ships timed.
+	 */
+	long getMoveCount();
+
+	/**
+	 * Return the median latency of moves of single ships.
+	 */
+	long getMoveLatencyP50();
+
+	/**
+	 * Return the 99th percentile latency of moves of single ships.
+	 */
+	long getMoveLatencyP99();
+
+	/**
+	 * Return the largest latency of moves of single ships.
+	 */
+	long getMoveLatencyMax();
+
+	/**
+	 * Return the median latency of times to collision between two ships.
+	 */
+	long getTimeToCollisionLatencyP50();
+
+	/**
+	 * Return the 99th percentile latency of times to collision between two ships.
+	 */
+	long getTimeToCollisionLatencyP99();
+
+	/**
+	 * Return the largest latency of times to collision between two ships.
+	 */
+	long getTimeToCollisionLatencyMax();
+
+	/**
+	 * Return the median latency of collision positions between two ships.
+	 */
+	long getCollisionPositionLatencyP50();
+
+	/**
+	 * Return the 99th percentile latency of collision positions between two ships.
+	 */
+	long getCollisionPositionLatencyP99();
+
+	/**
+	 * Return the largest latency of collision positions between two ships.
+	 */
+	long getCollisionPositionLatencyMax();
+
+	/**
+	 * Return a textual dump of all metrics.
+	 */
+	String dump();
+
+	/**
+	 * Reset all metrics to zero.
+	 */
+	void reset();
+
+}
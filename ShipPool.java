@@ -0,0 +1,167 @@
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of pools of ships, recycling despawned ships for later spawns
+ * instead of allocating a new ship for each spawn.
+ *
+ * Each thread has its own list of free ships, such that threads spawning
+ * at once do not contend on the pool. A ship released by a thread becomes
+ * free for that thread, whichever thread acquired it. Each list keeps up to
+ * a maximum number of ships; ships released beyond that maximum are left to
+ * the garbage collector. Once the lists hold as many ships as are despawned
+ * between spawns, spawning allocates nothing.
+ *
+ * The arguments of a spawn are checked before a ship is taken from a list or
+ * allocated, such that a spawn with an illegal radius or position leaves the
+ * pool unchanged and its exception references no ship.
+ *
+ * A ship must not be used after it has been released, and must be removed
+ * from any fleet, index or scheduler referencing it before it is released.
+ *
+ * @invar	The maximum number of free ships per thread is not negative.
+ * 			| getMaximumPooled() >= 0
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class ShipPool {
+
+	/**
+	 * Initialize this new ship pool.
+	 *
+	 * @param	maximumPooled
+	 * 			The maximum number of free ships kept per thread.
+	 * @post	| new.getMaximumPooled() == maximumPooled
+	 * @throws	IllegalArgumentException
+	 * 			| maximumPooled < 0
+	 */
+	public ShipPool(int maximumPooled) throws IllegalArgumentException {
+		if (maximumPooled < 0)
+			throw new IllegalArgumentException("Negative number of ships: " + maximumPooled);
+		this.maximumPooled = maximumPooled;
+	}
+
+	/**
+	 * Return the maximum number of free ships kept per thread.
+	 */
+	@Basic @Immutable
+	public int getMaximumPooled() {
+		return this.maximumPooled;
+	}
+
+	/**
+	 * Variable registering the maximum number of free ships kept per thread.
+	 */
+	private final int maximumPooled;
+
+	/**
+	 * Return a ship with given position, given velocity, given orientation
+	 * and given radius, recycled from the free ships of the current thread
+	 * if there is one.
+	 *
+	 * @param 	xposition
+	 * 			The X-coordinate of the position for the ship.
+	 * @param 	yposition
+	 * 			The Y-coordinate of the position for the ship.
+	 * @param 	xvelocity
+	 * 			The X-coordinate of the velocity for the ship.
+	 * @param 	yvelocity
+	 * 			The Y-coordinate of the velocity for the ship.
+	 * @param 	orientation
+	 * 			The orientation for the ship.
+	 * @param 	radius
+	 * 			The radius for the ship.
+	 * @pre		The given orientation must be a valid orientation for a ship.
+	 * 			| Ship.isValidOrientation(orientation)
+	 * @return	A ship initialized as a new ship with the given arguments.
+	 * 			| result.getPositionX() == xposition && result.getPositionY() == yposition
+	 * 			|	&& result.getOrientation() == orientation && result.getRadius() == radius
+	 * @throws 	IllegalRadiusException(radius,null)
+	 * 			| ! Ship.isValidRadius(radius)
+	 * @throws	IllegalValueException(xposition,yposition)
+	 * 			| ! Ship.isValidPosition(xposition,yposition)
+	 */
+	public Ship acquire(double xposition, double yposition, double xvelocity, double yvelocity,
+			double orientation, double radius) throws IllegalRadiusException, IllegalValueException {
+		if (! Ship.isValidRadius(radius))
+			throw new IllegalRadiusException(radius,null);
+		if (! Ship.isValidPosition(xposition,yposition))
+			throw new IllegalValueException(xposition,yposition);
+		this.acquisitions.increment();
+		Ship ship = this.free.get().pollLast();
+		if (ship == null) {
+			this.allocations.increment();
+			return new Ship(xposition, yposition, xvelocity, yvelocity, orientation, radius);
+		}
+		ship.reinitialize(xposition, yposition, xvelocity, yvelocity, orientation, radius);
+		return ship;
+	}
+
+	/**
+	 * Return the given ship to the free ships of the current thread.
+	 *
+	 * @param	ship
+	 * 			The ship to return.
+	 * @return	True if and only if the ship is kept by this pool, that is if
+	 * 			the current thread had fewer than the maximum number of free ships.
+	 * @throws	NullPointerException
+	 * 			| ship == null
+	 */
+	public boolean release(Ship ship) throws NullPointerException {
+		if (ship == null)
+			throw new NullPointerException();
+		ArrayDeque<Ship> free = this.free.get();
+		if (free.size() >= this.maximumPooled) {
+			this.discards.increment();
+			return false;
+		}
+		free.addLast(ship);
+		return true;
+	}
+
+	/**
+	 * Return the number of free ships of the current thread.
+	 */
+	public int getNbFree() {
+		return this.free.get().size();
+	}
+
+	/**
+	 * Variable referencing the free ships of each thread.
+	 */
+	private final ThreadLocal<ArrayDeque<Ship>> free = ThreadLocal.withInitial(ArrayDeque::new);
+
+	/**
+	 * Return the number of ships handed out by this pool.
+	 */
+	public long getNbAcquisitions() {
+		return this.acquisitions.sum();
+	}
+
+	/**
+	 * Return the number of ships this pool allocated because the current
+	 * thread had no free ship, that is the number of times it ran dry.
+	 */
+	public long getNbAllocations() {
+		return this.allocations.sum();
+	}
+
+	/**
+	 * Return the number of released ships this pool did not keep because
+	 * the free ships of the releasing thread were at their maximum.
+	 */
+	public long getNbDiscards() {
+		return this.discards.sum();
+	}
+
+	/**
+	 * Variables registering the statistics of this pool.
+	 */
+	private final LongAdder acquisitions = new LongAdder(), allocations = new LongAdder(),
+			discards = new LongAdder();
+
+}
@@ -0,0 +1,173 @@
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of immutable snapshots of the state of a ship, involving its
+ * position, velocity, orientation and radius.
+ *
+ * Ship states can be shared freely between threads: once constructed,
+ * they never change.
+ *
+ * @invar	The state of each ship state satisfies the invariants of ships.
+ * 			| Ship.isValidPosition(getPositionX(), getPositionY())
+ * 			| 	&& Ship.isValidOrientation(getOrientation())
+ * 			|	&& Ship.isValidRadius(getRadius())
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+@Value
+public final class ShipState {
+
+	/**
+	 * Initialize this new ship state with the current state of the given ship.
+	 *
+	 * @param	ship
+	 * 			The ship to take a snapshot of.
+	 * @post	| new.getPositionX() == ship.getPositionX()
+	 * 			|	&& new.getPositionY() == ship.getPositionY()
+	 * @post	| new.getVelocityX() == ship.getVelocityX()
+	 * 			|	&& new.getVelocityY() == ship.getVelocityY()
+	 * @post	| new.getOrientation() == ship.getOrientation()
+	 * @post	| new.getRadius() == ship.getRadius()
+	 * @throws	NullPointerException
+	 * 			| ship == null
+	 */
+	public ShipState(Ship ship) throws NullPointerException {
+		this(ship.getPositionX(), ship.getPositionY(), ship.getVelocityX(), ship.getVelocityY(),
+				ship.getOrientation(), ship.getRadius());
+	}
+
+	/**
+	 * Initialize this new ship state with the given position, velocity,
+	 * orientation and radius, which must satisfy the invariants of ships.
+	 */
+	ShipState(double xposition, double yposition, double xvelocity, double yvelocity,
+			double orientation, double radius) {
+		this.xposition = xposition;
+		this.yposition = yposition;
+		this.xvelocity = xvelocity;
+		this.yvelocity = yvelocity;
+		this.orientation = orientation;
+		this.radius = radius;
+	}
+
+	/**
+	 * Return the X-coordinate of the position of this ship state.
+	 */
+	@Basic @Immutable
+	public double getPositionX() {
+		return this.xposition;
+	}
+
+	/**
+	 * Return the Y-coordinate of the position of this ship state.
+	 */
+	@Basic @Immutable
+	public double getPositionY() {
+		return this.yposition;
+	}
+
+	/**
+	 * Return the X-coordinate of the velocity of this ship state.
+	 */
+	@Basic @Immutable
+	public double getVelocityX() {
+		return this.xvelocity;
+	}
+
+	/**
+	 * Return the Y-coordinate of the velocity of this ship state.
+	 */
+	@Basic @Immutable
+	public double getVelocityY() {
+		return this.yvelocity;
+	}
+
+	/**
+	 * Return the orientation of this ship state.
+	 */
+	@Basic @Immutable
+	public double getOrientation() {
+		return this.orientation;
+	}
+
+	/**
+	 * Return the radius of this ship state.
+	 */
+	@Basic @Immutable
+	public double getRadius() {
+		return this.radius;
+	}
+
+	/**
+	 * Return a new ship with this state.
+	 *
+	 * @return	A new ship whose position, velocity, orientation and radius
+	 * 			are equal to those of this ship state.
+	 */
+	public Ship toShip() {
+		try {
+			return new Ship(this.xposition, this.yposition, this.xvelocity, this.yvelocity,
+					this.orientation, this.radius);
+		} catch (IllegalRadiusException | IllegalValueException exc) {
+			// Every ship state satisfies the invariants of ships.
+			throw new AssertionError(exc);
+		}
+	}
+
+	/**
+	 * Check whether this ship state is equal to the given object.
+	 *
+	 * @return	True if and only if the given object is a ship state with
+	 * 			the same position, velocity, orientation and radius.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (! (other instanceof ShipState))
+			return false;
+		ShipState state = (ShipState) other;
+		return (Double.compare(this.xposition, state.xposition) == 0)
+				&& (Double.compare(this.yposition, state.yposition) == 0)
+				&& (Double.compare(this.xvelocity, state.xvelocity) == 0)
+				&& (Double.compare(this.yvelocity, state.yvelocity) == 0)
+				&& (Double.compare(this.orientation, state.orientation) == 0)
+				&& (Double.compare(this.radius, state.radius) == 0);
+	}
+
+	/**
+	 * Return the hash code for this ship state.
+	 */
+	@Override
+	public int hashCode() {
+		int result = Double.hashCode(this.xposition);
+		result = 31 * result + Double.hashCode(this.yposition);
+		result = 31 * result + Double.hashCode(this.xvelocity);
+		result = 31 * result + Double.hashCode(this.yvelocity);
+		result = 31 * result + Double.hashCode(this.orientation);
+		return 31 * result + Double.hashCode(this.radius);
+	}
+
+	/**
+	 * Variables registering the X-coordinate and Y-coordinate of the position
+	 * of this ship state.
+	 */
+	private final double xposition, yposition;
+
+	/**
+	 * Variables registering the X-coordinate and Y-coordinate of the velocity
+	 * of this ship state.
+	 */
+	private final double xvelocity, yvelocity;
+
+	/**
+	 * Variable registering the orientation of this ship state.
+	 */
+	private final double orientation;
+
+	/**
+	 * Variable registering the radius of this ship state.
+	 */
+	private final double radius;
+
+}
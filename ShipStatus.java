@@ -0,0 +1,43 @@
+/**
+ * An enumeration of the outcomes of the validating operations on ships
+ * that report invalid input by status instead of by exception.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public enum ShipStatus {
+
+	/**
+	 * The operation succeeded.
+	 */
+	VALID,
+
+	/**
+	 * The operation failed because of an illegal duration;
+	 * the corresponding exception is IllegalDurationException.
+	 */
+	ILLEGAL_DURATION,
+
+	/**
+	 * The operation failed because it would result in an illegal position;
+	 * the corresponding exception is IllegalValueException.
+	 */
+	ILLEGAL_POSITION,
+
+	/**
+	 * The operation failed because of an illegal radius;
+	 * the corresponding exception is IllegalRadiusException.
+	 */
+	ILLEGAL_RADIUS;
+
+	/**
+	 * Check whether this status signals a successful operation.
+	 *
+	 * @return	| result == (this == VALID)
+	 */
+	public boolean isValid() {
+		return this == VALID;
+	}
+
+}
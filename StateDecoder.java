@@ -0,0 +1,254 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of decoders of the packets of a state encoder, on the side of a
+ * client.
+ *
+ * A decoder keeps the quantized states of the most recent ticks it decoded,
+ * such that it still has the baseline of any packet the encoder may send:
+ * the encoder only uses ticks the client acknowledged, and the client only
+ * acknowledges ticks it decoded. The history of the decoder must thus be at
+ * least the number of ticks between decoding a tick and receiving the last
+ * packet relative to it.
+ *
+ * The state of the latest tick decoded is available through the getters of
+ * the decoder, converted back from its quantized form. Positions, velocities
+ * and radii are within half a step of the encoded state, and orientations
+ * within half a step of 2 pi / 65536.
+ *
+ * A decoder is not safe for use by several threads at once.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class StateDecoder {
+
+	/**
+	 * Initialize this new decoder keeping the given number of ticks.
+	 *
+	 * @param	history
+	 * 			The number of most recent decoded ticks that can serve as baseline.
+	 * @post	| new.getTick() == -1 && new.getNbShips() == 0
+	 * @throws	IllegalArgumentException
+	 * 			| history <= 0
+	 */
+	public StateDecoder(int history) throws IllegalArgumentException {
+		if (history <= 0)
+			throw new IllegalArgumentException("Illegal history: " + history);
+		this.ticks = new long[history];
+		this.values = new int[history][];
+		this.nbShips = new int[history];
+		for (int i = 0; i < history; i++) {
+			this.ticks[i] = -1L;
+			this.values[i] = new int[0];
+		}
+	}
+
+	/**
+	 * Decode the given packet.
+	 *
+	 * @param	packet
+	 * 			The buffer holding the packet between its position and its limit.
+	 * @return	The tick of the packet, to be acknowledged to the encoder.
+	 * @post	The position of the given buffer is at the end of the packet.
+	 * @post	The tick of the packet becomes the latest tick if it is after
+	 * 			the latest tick decoded; otherwise the packet arrived out of
+	 * 			order and is skipped.
+	 * 			| new.getTick() == Math.max(getTick(), result)
+	 * @throws	NullPointerException
+	 * 			| packet == null
+	 * @throws	IllegalArgumentException
+	 * 			The packet is malformed.
+	 * @throws	IllegalStateException
+	 * 			The baseline of the packet is no longer kept by this decoder.
+	 */
+	public long decode(ByteBuffer packet) throws NullPointerException, IllegalArgumentException, IllegalStateException {
+		ByteBuffer buffer = packet.order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			long tick = buffer.getLong();
+			long baseline = buffer.getLong();
+			int n = buffer.getInt();
+			int nbChanged = buffer.getInt();
+			if ((tick < 0) || (baseline < -1) || (baseline >= tick) || (n < 0) || (nbChanged < 0) || (nbChanged > n))
+				throw new IllegalArgumentException("Malformed packet header");
+			if (tick <= this.tick) {
+				buffer.position(buffer.limit());
+				return tick;
+			}
+			int[] base = null;
+			int nbBase = 0;
+			if (baseline >= 0) {
+				int slot = getSlot(baseline);
+				if (this.ticks[slot] != baseline)
+					throw new IllegalStateException("Baseline " + baseline + " no longer kept");
+				base = this.values[slot];
+				nbBase = this.nbShips[slot];
+			}
+			// The packet is decoded aside, such that a malformed packet leaves the history intact.
+			int[] values = this.scratch;
+			if (values.length < n * StateEncoder.FIELDS)
+				values = new int[n * StateEncoder.FIELDS];
+			// Unchanged ships keep the state of the baseline.
+			int nbCopied = Math.min(n, nbBase);
+			if (base != null)
+				System.arraycopy(base, 0, values, 0, nbCopied * StateEncoder.FIELDS);
+			Arrays.fill(values, nbCopied * StateEncoder.FIELDS, n * StateEncoder.FIELDS, 0);
+			int index = -1;
+			for (int k = 0; k < nbChanged; k++) {
+				index += StateEncoder.getVarint(buffer) + 1;
+				if ((index < 0) || (index >= n))
+					throw new IllegalArgumentException("Malformed ship index: " + index);
+				int mask = buffer.get();
+				for (int group = 0; group < StateEncoder.GROUPS.length; group++)
+					if ((mask & (1 << group)) != 0)
+						for (int field = StateEncoder.GROUPS[group]; field < StateEncoder.groupEnd(group); field++) {
+							int offset = index * StateEncoder.FIELDS + field;
+							int reference = (index < nbBase) ? base[offset] : 0;
+							values[offset] = reference + StateEncoder.unzigzag(StateEncoder.getVarint(buffer));
+						}
+			}
+			int slot = getSlot(tick);
+			this.scratch = this.values[slot];
+			this.values[slot] = values;
+			this.nbShips[slot] = n;
+			this.ticks[slot] = tick;
+			this.tick = tick;
+			this.latest = slot;
+			return tick;
+		}
+		catch (BufferUnderflowException exc) {
+			throw new IllegalArgumentException("Truncated packet", exc);
+		}
+	}
+
+	/**
+	 * Return the slot of the given tick.
+	 */
+	private int getSlot(long tick) {
+		return (int) (tick % this.ticks.length);
+	}
+
+	/**
+	 * Return the latest tick decoded, or -1 if none was decoded.
+	 */
+	@Basic
+	public long getTick() {
+		return this.tick;
+	}
+
+	/**
+	 * Variable registering the latest tick decoded.
+	 */
+	private long tick = -1L;
+
+	/**
+	 * Return the number of ships of the latest tick decoded.
+	 */
+	public int getNbShips() {
+		return (this.tick < 0) ? 0 : this.nbShips[this.latest];
+	}
+
+	/**
+	 * Return the X-coordinate of the position of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getPositionX(int index) throws IndexOutOfBoundsException {
+		return getValue(index, StateEncoder.X) * StateEncoder.POSITION_STEP;
+	}
+
+	/**
+	 * Return the Y-coordinate of the position of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getPositionY(int index) throws IndexOutOfBoundsException {
+		return getValue(index, StateEncoder.Y) * StateEncoder.POSITION_STEP;
+	}
+
+	/**
+	 * Return the X-coordinate of the velocity of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getVelocityX(int index) throws IndexOutOfBoundsException {
+		return getValue(index, StateEncoder.VX) * StateEncoder.VELOCITY_STEP;
+	}
+
+	/**
+	 * Return the Y-coordinate of the velocity of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getVelocityY(int index) throws IndexOutOfBoundsException {
+		return getValue(index, StateEncoder.VY) * StateEncoder.VELOCITY_STEP;
+	}
+
+	/**
+	 * Return the orientation of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getOrientation(int index) throws IndexOutOfBoundsException {
+		return getValue(index, StateEncoder.ORIENTATION) * (2.0*Math.PI / StateEncoder.ORIENTATION_STEPS);
+	}
+
+	/**
+	 * Return the radius of the ship at the given index.
+	 *
+	 * @throws	IndexOutOfBoundsException
+	 * 			| index < 0 || index >= getNbShips()
+	 */
+	public double getRadius(int index) throws IndexOutOfBoundsException {
+		return getValue(index, StateEncoder.RADIUS) * StateEncoder.RADIUS_STEP;
+	}
+
+	/**
+	 * Return the given quantized field of the ship at the given index of
+	 * the latest tick.
+	 */
+	private int getValue(int index, int field) throws IndexOutOfBoundsException {
+		if ((index < 0) || (index >= getNbShips()))
+			throw new IndexOutOfBoundsException("No ship at index " + index);
+		return this.values[this.latest][index * StateEncoder.FIELDS + field];
+	}
+
+	/**
+	 * Variable registering the tick held by each slot of the history, or
+	 * -1 for slots that hold no tick.
+	 */
+	private final long[] ticks;
+
+	/**
+	 * Variable registering the quantized fields of the ships of each slot
+	 * of the history, ship by ship.
+	 */
+	private final int[][] values;
+
+	/**
+	 * Variable registering the number of ships of each slot of the history.
+	 */
+	private final int[] nbShips;
+
+	/**
+	 * Variable referencing the array into which the next packet is decoded.
+	 */
+	private int[] scratch = new int[0];
+
+	/**
+	 * Variable registering the slot of the latest tick decoded.
+	 */
+	private int latest;
+
+}
@@ -0,0 +1,468 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of encoders of the state of a fleet into packets for clients,
+ * each packet only holding what changed since the client last acknowledged.
+ *
+ * An encoder quantizes each fleet state it is given: positions, velocities
+ * and radii to fixed steps and orientations to 65536 steps per turn. It
+ * keeps the quantized states of its most recent ticks. Each client has a
+ * baseline, the last tick it acknowledged. A packet for a client holds the
+ * ships whose quantized state differs from that baseline, and for each of
+ * them only the fields that differ, as the difference with the baseline in
+ * a variable-length code. A client without a baseline, or with a baseline
+ * older than the kept ticks, receives the full state as a difference with
+ * zero.
+ *
+ * All clients with the same baseline receive the same packet, so it is
+ * encoded once per tick and baseline and copied for each of them. Packets
+ * are written into buffers of a buffer pool, which the sender releases
+ * after sending.
+ *
+ * A packet is laid out in little-endian order as
+ * 	long	the tick of the state
+ * 	long	the tick of the baseline, or -1 for a full state
+ * 	int		the number of ships
+ * 	int		the number of changed ships
+ * followed by, for each changed ship in the order of their indices,
+ * 	varint	the number of unchanged ships since the previous changed ship
+ * 	byte	a mask of the changed fields
+ * 	varints	the zigzag-coded differences of the changed fields.
+ *
+ * An encoder is not safe for use by several threads at once.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class StateEncoder {
+
+	/**
+	 * Initialize this new encoder keeping the given number of ticks and
+	 * writing into buffers of the given pool.
+	 *
+	 * @param	pool
+	 * 			The pool of buffers of this new encoder.
+	 * @param	history
+	 * 			The number of most recent ticks that can serve as baseline.
+	 * @post	| new.getPool() == pool && new.getHistory() == history
+	 * @post	| new.getTick() == -1
+	 * @throws	NullPointerException
+	 * 			| pool == null
+	 * @throws	IllegalArgumentException
+	 * 			| history <= 0
+	 */
+	public StateEncoder(BufferPool pool, int history) throws NullPointerException, IllegalArgumentException {
+		if (pool == null)
+			throw new NullPointerException();
+		if (history <= 0)
+			throw new IllegalArgumentException("Illegal history: " + history);
+		this.pool = pool;
+		this.snapshots = new Snapshot[history];
+		for (int i = 0; i < history; i++)
+			this.snapshots[i] = new Snapshot();
+	}
+
+	/**
+	 * Return the pool of buffers of this encoder.
+	 */
+	@Basic @Immutable
+	public BufferPool getPool() {
+		return this.pool;
+	}
+
+	/**
+	 * Variable referencing the pool of buffers of this encoder.
+	 */
+	private final BufferPool pool;
+
+	/**
+	 * Return the number of most recent ticks that can serve as baseline.
+	 */
+	@Immutable
+	public int getHistory() {
+		return this.snapshots.length;
+	}
+
+	/**
+	 * Return the tick of the last state given to this encoder, or -1 if
+	 * none was given.
+	 */
+	@Basic
+	public long getTick() {
+		return this.tick;
+	}
+
+	/**
+	 * Variable registering the tick of the last state given to this encoder.
+	 */
+	private long tick = -1L;
+
+	/**
+	 * Add a new client without a baseline to this encoder.
+	 *
+	 * @return	The identifier of the new client.
+	 * @post	| new.getBaseline(result) == -1
+	 */
+	public int addClient() {
+		for (int client = 0; client < this.nbClients; client++)
+			if (this.baselines[client] == REMOVED) {
+				this.baselines[client] = -1L;
+				return client;
+			}
+		if (this.nbClients == this.baselines.length)
+			this.baselines = Arrays.copyOf(this.baselines, Math.max(16, 2 * this.nbClients));
+		this.baselines[this.nbClients] = -1L;
+		return this.nbClients++;
+	}
+
+	/**
+	 * Remove the given client from this encoder. Its identifier may be
+	 * handed out again by addClient.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| ! hasClient(client)
+	 */
+	public void removeClient(int client) throws IllegalArgumentException {
+		checkClient(client);
+		this.baselines[client] = REMOVED;
+	}
+
+	/**
+	 * Check whether the given identifier refers to a client of this encoder.
+	 */
+	public boolean hasClient(int client) {
+		return (0 <= client) && (client < this.nbClients) && (this.baselines[client] != REMOVED);
+	}
+
+	/**
+	 * Check the given client and throw an exception if it is not a client
+	 * of this encoder.
+	 */
+	private void checkClient(int client) throws IllegalArgumentException {
+		if (! hasClient(client))
+			throw new IllegalArgumentException("No client " + client);
+	}
+
+	/**
+	 * Return the last tick acknowledged by the given client, or -1 if it
+	 * acknowledged none.
+	 *
+	 * @throws	IllegalArgumentException
+	 * 			| ! hasClient(client)
+	 */
+	public long getBaseline(int client) throws IllegalArgumentException {
+		checkClient(client);
+		return this.baselines[client];
+	}
+
+	/**
+	 * Register that the given client received the state of the given tick.
+	 * Acknowledgements older than the baseline of the client are ignored,
+	 * such that acknowledgements may arrive out of order.
+	 *
+	 * @post	| new.getBaseline(client) == Math.max(getBaseline(client), tick)
+	 * @throws	IllegalArgumentException
+	 * 			| ! hasClient(client) || tick > getTick()
+	 */
+	public void acknowledge(int client, long tick) throws IllegalArgumentException {
+		checkClient(client);
+		if (tick > this.tick)
+			throw new IllegalArgumentException("Tick " + tick + " not sent yet");
+		if (tick > this.baselines[client])
+			this.baselines[client] = tick;
+	}
+
+	/**
+	 * Variable registering the baseline of each client, or REMOVED for
+	 * identifiers of removed clients.
+	 */
+	private long[] baselines = new long[0];
+
+	/**
+	 * Variable registering the number of client identifiers handed out.
+	 */
+	private int nbClients;
+
+	/**
+	 * Variable registering the baseline of removed clients.
+	 */
+	private static final long REMOVED = Long.MIN_VALUE;
+
+	/**
+	 * Quantize the given fleet state and make it the state encoded for clients.
+	 *
+	 * @param	state
+	 * 			The new state.
+	 * @post	| new.getTick() == state.getTick()
+	 * @throws	NullPointerException
+	 * 			| state == null
+	 * @throws	IllegalArgumentException
+	 * 			| state.getTick() <= getTick()
+	 */
+	public void update(FleetState state) throws NullPointerException, IllegalArgumentException {
+		if (state.getTick() <= this.tick)
+			throw new IllegalArgumentException("Tick " + state.getTick() + " not after tick " + this.tick);
+		Snapshot snapshot = getSlot(state.getTick());
+		snapshot.quantize(state);
+		this.tick = state.getTick();
+		this.current = snapshot;
+		for (ByteBuffer packet : this.packets.values())
+			this.pool.release(packet);
+		this.packets.clear();
+	}
+
+	/**
+	 * Return a packet with the current state for the given client, relative
+	 * to its baseline if that is still kept.
+	 *
+	 * @param	client
+	 * 			The client to encode for.
+	 * @return	A buffer of the pool of this encoder, holding the packet
+	 * 			between its position and its limit.
+	 * @throws	IllegalArgumentException
+	 * 			| ! hasClient(client)
+	 * @throws	IllegalStateException
+	 * 			| getTick() == -1
+	 */
+	public ByteBuffer encode(int client) throws IllegalArgumentException, IllegalStateException {
+		checkClient(client);
+		if (this.current == null)
+			throw new IllegalStateException("No state to encode");
+		long baseline = this.baselines[client];
+		Snapshot base = (baseline >= 0) ? getSlot(baseline) : null;
+		if ((base != null) && (base.tick != baseline))
+			base = null;
+		if (base == null)
+			baseline = -1L;
+		ByteBuffer packet = this.packets.get(baseline);
+		if (packet == null) {
+			packet = encode(this.current, base);
+			this.packets.put(baseline, packet);
+		}
+		ByteBuffer copy = this.pool.acquire(packet.remaining());
+		copy.put(packet.duplicate());
+		copy.flip();
+		return copy;
+	}
+
+	/**
+	 * Return a new buffer of the pool holding the given snapshot as a
+	 * difference with the given baseline, or with zero if it is null.
+	 */
+	private ByteBuffer encode(Snapshot snapshot, Snapshot base) {
+		int n = snapshot.nbShips;
+		ByteBuffer buffer = this.pool.acquire(HEADER_SIZE + n * MAX_SHIP_SIZE);
+		buffer.putLong(snapshot.tick);
+		buffer.putLong((base == null) ? -1L : base.tick);
+		buffer.putInt(n);
+		int countPosition = buffer.position();
+		buffer.putInt(0);
+		final int[] values = snapshot.values;
+		final int[] baseValues = (base == null) ? null : base.values;
+		final int nbBase = (base == null) ? 0 : base.nbShips;
+		int nbChanged = 0, previous = -1;
+		for (int i = 0; i < n; i++) {
+			int offset = i * FIELDS;
+			int mask = 0;
+			for (int group = 0; group < GROUPS.length; group++)
+				for (int field = GROUPS[group]; field < groupEnd(group); field++)
+					if (getBase(baseValues, nbBase, i, field) != values[offset + field])
+						mask |= 1 << group;
+			if (mask == 0)
+				continue;
+			putVarint(buffer, i - previous - 1);
+			buffer.put((byte) mask);
+			for (int group = 0; group < GROUPS.length; group++)
+				if ((mask & (1 << group)) != 0)
+					for (int field = GROUPS[group]; field < groupEnd(group); field++)
+						putVarint(buffer, zigzag(values[offset + field] - getBase(baseValues, nbBase, i, field)));
+			previous = i;
+			nbChanged++;
+		}
+		buffer.putInt(countPosition, nbChanged);
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Return the baseline of the given field of the ship at the given index,
+	 * which is zero for ships beyond the baseline.
+	 */
+	private static int getBase(int[] baseValues, int nbBase, int index, int field) {
+		return (index < nbBase) ? baseValues[index * FIELDS + field] : 0;
+	}
+
+	/**
+	 * Return the index following the last field of the given group.
+	 */
+	static int groupEnd(int group) {
+		return (group + 1 < GROUPS.length) ? GROUPS[group + 1] : FIELDS;
+	}
+
+	/**
+	 * Return the snapshot slot for the given tick.
+	 */
+	private Snapshot getSlot(long tick) {
+		return this.snapshots[(int) (tick % this.snapshots.length)];
+	}
+
+	/**
+	 * Variable referencing the quantized states of the most recent ticks,
+	 * each in the slot of its tick modulo the history.
+	 */
+	private final Snapshot[] snapshots;
+
+	/**
+	 * Variable referencing the quantized state of the current tick.
+	 */
+	private Snapshot current;
+
+	/**
+	 * Variable referencing the packets of the current tick, by the tick of
+	 * their baseline.
+	 */
+	private final Map<Long, ByteBuffer> packets = new HashMap<Long, ByteBuffer>();
+
+	/**
+	 * Return the given value quantized to the given step, limited to the
+	 * range of an int.
+	 */
+	static int quantize(double value, double step) {
+		return (int) Math.rint(value / step);
+	}
+
+	/**
+	 * Return the given orientation quantized to 65536 steps per turn.
+	 */
+	static int quantizeOrientation(double orientation) {
+		return (int) Math.rint(orientation * (ORIENTATION_STEPS / (2.0*Math.PI))) & (ORIENTATION_STEPS - 1);
+	}
+
+	/**
+	 * Write the given int to the given buffer in a variable-length code of
+	 * seven bits per byte, least significant first.
+	 */
+	static void putVarint(ByteBuffer buffer, int value) {
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Read an int written by putVarint from the given buffer.
+	 */
+	static int getVarint(ByteBuffer buffer) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			byte b = buffer.get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0)
+				return value;
+		}
+		throw new IllegalArgumentException("Malformed varint");
+	}
+
+	/**
+	 * Return the given int mapped to an unsigned int, such that values of
+	 * small magnitude take few bytes as a varint.
+	 */
+	static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	/**
+	 * Return the int mapped to the given int by zigzag.
+	 */
+	static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Variable registering the distance between two successive quantized
+	 * coordinates of a position.
+	 */
+	public static final double POSITION_STEP = 1.0 / 64.0;
+
+	/**
+	 * Variable registering the distance between two successive quantized
+	 * coordinates of a velocity.
+	 */
+	public static final double VELOCITY_STEP = 1.0 / 16.0;
+
+	/**
+	 * Variable registering the distance between two successive quantized radii.
+	 */
+	public static final double RADIUS_STEP = 1.0 / 64.0;
+
+	/**
+	 * Variable registering the number of quantized orientations.
+	 */
+	public static final int ORIENTATION_STEPS = 1 << 16;
+
+	/**
+	 * Variables registering the index of each quantized field of a ship.
+	 */
+	static final int X = 0, Y = 1, VX = 2, VY = 3, ORIENTATION = 4, RADIUS = 5, FIELDS = 6;
+
+	/**
+	 * Variable registering the first field of each group of fields that
+	 * change together: the position, the velocity, the orientation and
+	 * the radius. Bit g of the mask of a changed ship marks group g.
+	 */
+	static final int[] GROUPS = { X, VX, ORIENTATION, RADIUS };
+
+	/**
+	 * Variable registering the size of the header of a packet.
+	 */
+	static final int HEADER_SIZE = 2 * Long.BYTES + 2 * Integer.BYTES;
+
+	/**
+	 * Variable registering the largest size of a changed ship in a packet.
+	 */
+	private static final int MAX_SHIP_SIZE = 5 + 1 + 5 * FIELDS;
+
+	/**
+	 * A class of quantized states of a fleet at a tick.
+	 */
+	private static final class Snapshot {
+
+		/**
+		 * Quantize the given state into this snapshot.
+		 */
+		private void quantize(FleetState state) {
+			int n = state.getNbShips();
+			if (this.values.length < n * FIELDS)
+				this.values = new int[n * FIELDS];
+			for (int i = 0; i < n; i++) {
+				int offset = i * FIELDS;
+				this.values[offset + X] = StateEncoder.quantize(state.getPositionX(i), POSITION_STEP);
+				this.values[offset + Y] = StateEncoder.quantize(state.getPositionY(i), POSITION_STEP);
+				this.values[offset + VX] = StateEncoder.quantize(state.getVelocityX(i), VELOCITY_STEP);
+				this.values[offset + VY] = StateEncoder.quantize(state.getVelocityY(i), VELOCITY_STEP);
+				this.values[offset + ORIENTATION] = quantizeOrientation(state.getOrientation(i));
+				this.values[offset + RADIUS] = StateEncoder.quantize(state.getRadius(i), RADIUS_STEP);
+			}
+			this.nbShips = n;
+			this.tick = state.getTick();
+		}
+
+		private long tick = -1L;
+
+		private int nbShips;
+
+		/**
+		 * The quantized fields of the ships, ship by ship.
+		 */
+		private int[] values = new int[0];
+
+	}
+
+}
@@ -0,0 +1,87 @@
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of integrators that split a duration in equal sub-steps no
+ * longer than a maximum step, and advance each sub-step with another
+ * integrator.
+ *
+ * @invar	The maximum step of each sub-stepping integrator is strictly positive and finite.
+ * 			| getMaximumStep() > 0.0 && ! Double.isInfinite(getMaximumStep())
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class SubSteppingIntegrator implements Integrator {
+
+	/**
+	 * Initialize this new sub-stepping integrator with the given integrator
+	 * and maximum step.
+	 *
+	 * @param	integrator
+	 * 			The integrator advancing each sub-step.
+	 * @param	maximumStep
+	 * 			The maximum duration of a sub-step.
+	 * @post	| new.getIntegrator() == integrator
+	 * @post	| new.getMaximumStep() == maximumStep
+	 * @throws	NullPointerException
+	 * 			| integrator == null
+	 * @throws	IllegalDurationException
+	 * 			| ! (maximumStep > 0.0) || Double.isInfinite(maximumStep)
+	 */
+	public SubSteppingIntegrator(Integrator integrator, double maximumStep)
+			throws NullPointerException, IllegalDurationException {
+		if (integrator == null)
+			throw new NullPointerException();
+		if (! (maximumStep > 0.0) || Double.isInfinite(maximumStep))
+			throw new IllegalDurationException(maximumStep);
+		this.integrator = integrator;
+		this.maximumStep = maximumStep;
+	}
+
+	/**
+	 * Return the integrator advancing each sub-step.
+	 */
+	@Basic @Immutable
+	public Integrator getIntegrator() {
+		return this.integrator;
+	}
+
+	/**
+	 * Variable referencing the integrator advancing each sub-step.
+	 */
+	private final Integrator integrator;
+
+	/**
+	 * Return the maximum duration of a sub-step.
+	 */
+	@Basic @Immutable
+	public double getMaximumStep() {
+		return this.maximumStep;
+	}
+
+	/**
+	 * Variable registering the maximum duration of a sub-step.
+	 */
+	private final double maximumStep;
+
+	/**
+	 * Advance the given fleet over the given duration in equal sub-steps.
+	 *
+	 * @effect	The duration is split in the smallest number of equal sub-steps
+	 * 			not longer than the maximum step, each advanced by the integrator.
+	 * 			| let steps = Math.ceil(duration / getMaximumStep()) in
+	 * 			|	for 1..steps: getIntegrator().integrate(fleet, rates, duration / steps)
+	 */
+	@Override
+	public void integrate(ShipFleet fleet, double[] rates, double duration)
+			throws NullPointerException, IllegalArgumentException, IllegalDurationException {
+		if (! Ship.isValidDuration(duration) || Double.isInfinite(duration))
+			throw new IllegalDurationException(duration);
+		long steps = Math.max(1L, (long) Math.ceil(duration / this.maximumStep));
+		double step = duration / steps;
+		for (long i = 0; i < steps; i++)
+			this.integrator.integrate(fleet, rates, step);
+	}
+
+}
@@ -0,0 +1,395 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of schedulers advancing a fleet tick by tick on several threads,
+ * with the fleet partitioned into spatial regions.
+ *
+ * At the start of each tick the fleet is divided into a fixed number of
+ * vertical strips of equal width between its leftmost and rightmost ship.
+ * A tick then runs in three phases:
+ * 	1.	Each region, on a worker of the executor, accelerates its ships with
+ * 		their thrust rate over the tick, computes their bounding boxes swept
+ * 		over the tick and finds the impacts between its own ships.
+ * 	2.	The merge phase, on the calling thread, finds the impacts between
+ * 		ships of different regions. Such ships can only collide if one of
+ * 		them sweeps out of its strip; these border ships are checked against
+ * 		each other and against the ships of the strips they sweep into.
+ * 	3.	Each region, on a worker of the executor, moves its ships over the tick.
+ *
+ * Each ship is only ever changed by the region that owns it, with the same
+ * operations in the same order, and each pair of ships is checked exactly
+ * once. The impacts of a tick are returned sorted. A tick thus produces
+ * bit-identical results whatever the number of threads of the executor.
+ * The number of regions is part of the configuration, not of the machine.
+ *
+ * A tick scheduler is not safe for use by several threads at once.
+ *
+ * @invar	The number of regions of each tick scheduler is strictly positive.
+ * 			| getNbRegions() > 0
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class TickScheduler {
+
+	/**
+	 * Initialize this new tick scheduler for the given fleet with the given
+	 * number of regions, running its regions on the given executor.
+	 *
+	 * @param	fleet
+	 * 			The fleet for this new scheduler.
+	 * @param	nbRegions
+	 * 			The number of regions in which the fleet is partitioned.
+	 * @param	executor
+	 * 			The executor running the regions, for instance a fixed thread
+	 * 			pool or an executor of virtual threads.
+	 * @post	| new.getFleet() == fleet && new.getNbRegions() == nbRegions
+	 * @post	| new.getExecutor() == executor && new.getTick() == 0
+	 * @throws	NullPointerException
+	 * 			| fleet == null || executor == null
+	 * @throws	IllegalArgumentException
+	 * 			| nbRegions <= 0
+	 */
+	public TickScheduler(ShipFleet fleet, int nbRegions, ExecutorService executor)
+			throws NullPointerException, IllegalArgumentException {
+		if ((fleet == null) || (executor == null))
+			throw new NullPointerException();
+		if (nbRegions <= 0)
+			throw new IllegalArgumentException("Illegal number of regions: " + nbRegions);
+		this.fleet = fleet;
+		this.nbRegions = nbRegions;
+		this.executor = executor;
+		this.start = new int[nbRegions + 1];
+	}
+
+	/**
+	 * Return the fleet of this tick scheduler.
+	 */
+	@Basic @Immutable
+	public ShipFleet getFleet() {
+		return this.fleet;
+	}
+
+	/**
+	 * Variable referencing the fleet of this tick scheduler.
+	 */
+	private final ShipFleet fleet;
+
+	/**
+	 * Return the number of regions in which the fleet is partitioned.
+	 */
+	@Basic @Immutable
+	public int getNbRegions() {
+		return this.nbRegions;
+	}
+
+	/**
+	 * Variable registering the number of regions in which the fleet is partitioned.
+	 */
+	private final int nbRegions;
+
+	/**
+	 * Return the executor running the regions of this tick scheduler.
+	 */
+	@Basic @Immutable
+	public ExecutorService getExecutor() {
+		return this.executor;
+	}
+
+	/**
+	 * Variable referencing the executor running the regions of this tick scheduler.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * Return the number of ticks run by this tick scheduler.
+	 */
+	@Basic
+	public long getTick() {
+		return this.tick;
+	}
+
+	/**
+	 * Variable registering the number of ticks run by this tick scheduler.
+	 */
+	private long tick;
+
+	/**
+	 * Advance the fleet over one tick of the given duration.
+	 *
+	 * @param	duration
+	 * 			The duration of the tick.
+	 * @param	rates
+	 * 			The thrust rate of each ship of the fleet, or null if no ship thrusts.
+	 * @effect	Each ship is accelerated with its thrust rate over the tick, as
+	 * 			by a thrust with the amount rates[index] * duration, and is then
+	 * 			moved over the tick.
+	 * 			| for each index in 0..getFleet().getNbShips()-1:
+	 * 			|	if (rates != null) then getFleet().thrust(index, rates[index] * duration)
+	 * 			|	getFleet().move(index, duration)
+	 * @post	| new.getTick() == getTick() + 1
+	 * @return	The impacts between ships of the fleet within the tick, after
+	 * 			their thrust and before their move, in the order of their times.
+	 * 			| result.equals(BroadPhase.collisionsWithin(fleet after thrust, duration).toList())
+	 * @throws	IllegalDurationException
+	 * 			| ! BroadPhase.isValidHorizon(duration)
+	 * @throws	IllegalArgumentException
+	 * 			| rates != null && rates.length < getFleet().getNbShips()
+	 * @throws	InterruptedException
+	 * 			The calling thread was interrupted while waiting for the regions.
+	 */
+	public List<Impact> tick(double duration, double[] rates)
+			throws IllegalDurationException, IllegalArgumentException, InterruptedException {
+		if (! BroadPhase.isValidHorizon(duration))
+			throw new IllegalDurationException(duration);
+		final int n = this.fleet.getNbShips();
+		if ((rates != null) && (rates.length < n))
+			throw new IllegalArgumentException("No thrust rate for each of " + n + " ships");
+		partition(n);
+		List<Impact> impacts = new ArrayList<Impact>();
+		List<Callable<List<Impact>>> regions = new ArrayList<Callable<List<Impact>>>(this.nbRegions);
+		for (int region = 0; region < this.nbRegions; region++) {
+			final int low = this.start[region], high = this.start[region + 1];
+			regions.add(() -> detect(low, high, duration, rates));
+		}
+		for (List<Impact> regionImpacts : run(regions))
+			impacts.addAll(regionImpacts);
+		merge(n, duration, impacts);
+		List<Callable<Void>> moves = new ArrayList<Callable<Void>>(this.nbRegions);
+		for (int region = 0; region < this.nbRegions; region++) {
+			final int low = this.start[region], high = this.start[region + 1];
+			moves.add(() -> move(low, high, duration));
+		}
+		run(moves);
+		Collections.sort(impacts);
+		this.tick++;
+		return impacts;
+	}
+
+	/**
+	 * Run the given tasks on the executor and return their results in the
+	 * order of the tasks.
+	 */
+	private <T> List<T> run(List<Callable<T>> tasks) throws InterruptedException {
+		List<T> results = new ArrayList<T>(tasks.size());
+		for (Future<T> future : this.executor.invokeAll(tasks)) {
+			try {
+				results.add(future.get());
+			}
+			catch (ExecutionException exc) {
+				Throwable cause = exc.getCause();
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw new AssertionError(cause);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Partition the given number of ships of the fleet into strips by the
+	 * X-coordinate of their position, ordered by index within each strip.
+	 */
+	private void partition(int n) {
+		if (this.members.length < n) {
+			this.members = new int[n];
+			this.region = new int[n];
+			this.border = new boolean[n];
+			this.minX = new double[n];
+			this.maxX = new double[n];
+			this.minY = new double[n];
+			this.maxY = new double[n];
+		}
+		final double[] x = this.fleet.getPositionsX();
+		double left = Double.POSITIVE_INFINITY, right = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			left = Math.min(left, x[i]);
+			right = Math.max(right, x[i]);
+		}
+		this.left = left;
+		this.width = (right - left) / this.nbRegions;
+		final int[] start = this.start;
+		Arrays.fill(start, 0);
+		for (int i = 0; i < n; i++) {
+			int region = getRegion(x[i]);
+			this.region[i] = region;
+			start[region + 1]++;
+		}
+		for (int region = 0; region < this.nbRegions; region++)
+			start[region + 1] += start[region];
+		int[] next = start.clone();
+		for (int i = 0; i < n; i++)
+			this.members[next[this.region[i]]++] = i;
+	}
+
+	/**
+	 * Return the region of the strip holding the given X-coordinate, clamped
+	 * to the first and last region.
+	 */
+	private int getRegion(double x) {
+		if (! (this.width > 0.0))
+			return 0;
+		double strip = Math.floor((x - this.left) / this.width);
+		return (int) Math.max(0.0, Math.min(this.nbRegions - 1, strip));
+	}
+
+	/**
+	 * Accelerate, bound and check the ships of the region stored between the
+	 * given bounds of the members, and return the impacts between them.
+	 * On return the members of the region are sorted by their lower X-bound.
+	 */
+	private List<Impact> detect(int low, int high, double duration, double[] rates) {
+		final ShipFleet fleet = this.fleet;
+		final int[] members = this.members;
+		final double[] x = fleet.getPositionsX(), y = fleet.getPositionsY();
+		final double[] vx = fleet.getVelocitiesX(), vy = fleet.getVelocitiesY(), r = fleet.getRadii();
+		for (int k = low; k < high; k++) {
+			int i = members[k];
+			if (rates != null)
+				fleet.thrust(i, rates[i] * duration);
+			double dx = duration * vx[i], dy = duration * vy[i];
+			this.minX[i] = x[i] + Math.min(0.0, dx) - r[i];
+			this.maxX[i] = x[i] + Math.max(0.0, dx) + r[i];
+			this.minY[i] = y[i] + Math.min(0.0, dy) - r[i];
+			this.maxY[i] = y[i] + Math.max(0.0, dy) + r[i];
+			int region = this.region[i];
+			this.border[i] = (getRegion(this.minX[i]) != region) || (getRegion(this.maxX[i]) != region);
+		}
+		BroadPhase.sort(members, this.minX, low, high - 1);
+		List<Impact> impacts = new ArrayList<Impact>();
+		double[] position = new double[2];
+		for (int k = low; k < high; k++) {
+			int a = members[k];
+			for (int l = k + 1; (l < high) && (this.minX[members[l]] <= this.maxX[a]); l++)
+				check(a, members[l], duration, impacts, position);
+		}
+		return impacts;
+	}
+
+	/**
+	 * Find the impacts between ships of different regions and add them to
+	 * the given list.
+	 */
+	private void merge(int n, double duration, List<Impact> impacts) {
+		final int[] members = this.members;
+		final double[] position = new double[2];
+		// Border ships of different regions, swept against each other.
+		int nbBorder = 0;
+		int[] borders = new int[16];
+		for (int k = 0; k < n; k++) {
+			int i = members[k];
+			if (this.border[i]) {
+				if (nbBorder == borders.length)
+					borders = Arrays.copyOf(borders, 2 * nbBorder);
+				borders[nbBorder++] = i;
+			}
+		}
+		BroadPhase.sort(borders, this.minX, 0, nbBorder - 1);
+		for (int k = 0; k < nbBorder; k++) {
+			int a = borders[k];
+			for (int l = k + 1; (l < nbBorder) && (this.minX[borders[l]] <= this.maxX[a]); l++)
+				if (this.region[borders[l]] != this.region[a])
+					check(a, borders[l], duration, impacts, position);
+		}
+		// Border ships against the other ships of the strips they sweep into.
+		for (int k = 0; k < nbBorder; k++) {
+			int a = borders[k];
+			int first = getRegion(this.minX[a]), last = getRegion(this.maxX[a]);
+			for (int region = first; region <= last; region++) {
+				if (region == this.region[a])
+					continue;
+				for (int l = this.start[region]; (l < this.start[region + 1]) && (this.minX[members[l]] <= this.maxX[a]); l++) {
+					int b = members[l];
+					if (! this.border[b])
+						check(a, b, duration, impacts, position);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Add the impact between the ships at the given indices within the
+	 * given duration to the given list, if their bounding boxes overlap and
+	 * they collide without overlapping now.
+	 */
+	private void check(int a, int b, double duration, List<Impact> impacts, double[] position) {
+		if ((this.minY[b] > this.maxY[a]) || (this.minY[a] > this.maxY[b])
+				|| (this.minX[b] > this.maxX[a]) || (this.minX[a] > this.maxX[b]))
+			return;
+		if (a > b) {
+			int swap = a;
+			a = b;
+			b = swap;
+		}
+		final double[] x = this.fleet.getPositionsX(), y = this.fleet.getPositionsY();
+		final double[] vx = this.fleet.getVelocitiesX(), vy = this.fleet.getVelocitiesY();
+		final double[] r = this.fleet.getRadii();
+		double dx = x[b]-x[a], dy = y[b]-y[a], dvx = vx[b]-vx[a], dvy = vy[b]-vy[a];
+		double time = Ship.getTimeToCollision(dx, dy, dvx, dvy, r[a]+r[b]);
+		if ((time > duration) || (time == 0.0))
+			return;
+		Ship.getCollisionPosition(x[a]+time*vx[a], y[a]+time*vy[a], r[a], dx+time*dvx, dy+time*dvy, position);
+		impacts.add(new Impact(a, b, time, position[0], position[1]));
+	}
+
+	/**
+	 * Move the ships of the region stored between the given bounds of the
+	 * members over the given duration.
+	 */
+	private Void move(int low, int high, double duration) {
+		final int[] members = this.members;
+		final double[] x = this.fleet.getPositionsX(), y = this.fleet.getPositionsY();
+		final double[] vx = this.fleet.getVelocitiesX(), vy = this.fleet.getVelocitiesY();
+		for (int k = low; k < high; k++) {
+			int i = members[k];
+			x[i] += duration * vx[i];
+			y[i] += duration * vy[i];
+		}
+		return null;
+	}
+
+	/**
+	 * Variables registering the X-coordinate of the left edge of the first
+	 * strip and the width of each strip during the current tick.
+	 */
+	private double left, width;
+
+	/**
+	 * Variable registering, for each region, the index in the members of
+	 * its first ship; the last element registers the number of ships.
+	 */
+	private final int[] start;
+
+	/**
+	 * Variable registering the indices of the ships of all regions, region by region.
+	 */
+	private int[] members = new int[0];
+
+	/**
+	 * Variable registering the region of each ship.
+	 */
+	private int[] region = new int[0];
+
+	/**
+	 * Variable registering for each ship whether its bounding box leaves its strip.
+	 */
+	private boolean[] border = new boolean[0];
+
+	/**
+	 * Variables registering the bounds of the swept bounding boxes of the ships.
+	 */
+	private double[] minX = new double[0], maxX = new double[0], minY = new double[0], maxY = new double[0];
+
+}
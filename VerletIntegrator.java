@@ -0,0 +1,51 @@
+/**
+ * A class of velocity Verlet integrators.
+ *
+ * A velocity Verlet step moves each ship with its velocity and with half
+ * of the thrust of the step, and then applies the thrust of the whole step
+ * to its velocity. While no ship reaches the maximum velocity, the thrust
+ * of a ship is constant over a step and the step is exact.
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+public class VerletIntegrator implements Integrator {
+
+	/**
+	 * Advance the given fleet over the given duration with a single
+	 * velocity Verlet step.
+	 *
+	 * @post	Each ship is moved with its velocity and with half of its thrust.
+	 * 			| for each index in 0..fleet.getNbShips()-1:
+	 * 			|	new.fleet.getPositionX(index) == fleet.getPositionX(index)
+	 * 			|		+ duration*fleet.getVelocityX(index)
+	 * 			|		+ 0.5*rates[index]*duration*duration*Math.cos(fleet.getOrientation(index))
+	 * @effect	| if (rates != null)
+	 * 			|	then fleet.thrustAll(rates, duration)
+	 */
+	@Override
+	public void integrate(ShipFleet fleet, double[] rates, double duration)
+			throws NullPointerException, IllegalArgumentException, IllegalDurationException {
+		if (rates == null) {
+			fleet.moveAll(duration);
+			return;
+		}
+		final int n = fleet.getNbShips();
+		if (rates.length < n)
+			throw new IllegalArgumentException("No thrust rate for each ship");
+		if (! Ship.isValidDuration(duration) || Double.isInfinite(duration))
+			throw new IllegalDurationException(duration);
+		final double[] x = fleet.getPositionsX(), y = fleet.getPositionsY();
+		final double[] vx = fleet.getVelocitiesX(), vy = fleet.getVelocitiesY();
+		final double[] hx = fleet.getHeadingsX(), hy = fleet.getHeadingsY();
+		final double half = 0.5 * duration * duration;
+		for (int i = 0; i < n; i++) {
+			double a = Math.max(rates[i], 0.0);
+			x[i] += duration*vx[i] + half*a*hx[i];
+			y[i] += duration*vy[i] + half*a*hy[i];
+		}
+		fleet.thrustAll(rates, duration);
+	}
+
+}
@@ -0,0 +1,302 @@
+import be.kuleuven.cs.som.annotate.*;
+
+/**
+ * A class of rectangular worlds in which ships move, bounded by four walls.
+ *
+ * A world spans the positions from (0, 0) to (getWidth(), getHeight()). A
+ * ship lies within a world if its whole disc does. Like getTimeToCollision
+ * for a pair of ships, a world computes analytically when a ship moving at
+ * a constant velocity touches one of its walls; a collision scheduler with
+ * a world queues these times together with the collisions between ships,
+ * and bounces ships off the walls when they are reached, such that ships
+ * need not be clamped to the world after each move.
+ *
+ * @invar	The width and height of each world are strictly positive and finite.
+ * 			| isValidSize(getWidth()) && isValidSize(getHeight())
+ *
+ * @version	1.0
+ *
+ * @author	Taoufik Benyahia, Stephen Huang
+ */
+@Value
+public final class World {
+
+	/**
+	 * Initialize this new world with the given width and height.
+	 *
+	 * @param	width
+	 * 			The width of this new world.
+	 * @param	height
+	 * 			The height of this new world.
+	 * @post	| new.getWidth() == width && new.getHeight() == height
+	 * @throws	IllegalArgumentException
+	 * 			| ! isValidSize(width) || ! isValidSize(height)
+	 */
+	public World(double width, double height) throws IllegalArgumentException {
+		if (! isValidSize(width) || ! isValidSize(height))
+			throw new IllegalArgumentException("Illegal size of world: " + width + " x " + height);
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Check whether the given size is a valid width or height for a world.
+	 *
+	 * @return	| result == (size > 0.0) && (size < Double.POSITIVE_INFINITY)
+	 */
+	public static boolean isValidSize(double size) {
+		return (size > 0.0) && (size < Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Return the width of this world.
+	 */
+	@Basic @Immutable
+	public double getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * Return the height of this world.
+	 */
+	@Basic @Immutable
+	public double getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Variables registering the width and height of this world.
+	 */
+	private final double width, height;
+
+	/**
+	 * An enumeration of the walls of a world.
+	 */
+	public static enum Wall {
+
+		/**
+		 * The wall at the X-coordinate zero.
+		 */
+		LEFT,
+
+		/**
+		 * The wall at the X-coordinate getWidth().
+		 */
+		RIGHT,
+
+		/**
+		 * The wall at the Y-coordinate zero.
+		 */
+		BOTTOM,
+
+		/**
+		 * The wall at the Y-coordinate getHeight().
+		 */
+		TOP;
+
+		/**
+		 * Check whether this wall is a vertical wall, bounding the X-coordinates.
+		 */
+		public boolean isVertical() {
+			return (this == LEFT) || (this == RIGHT);
+		}
+
+	}
+
+	/**
+	 * Check whether a disc with the given radius fits in this world with
+	 * room to move between each pair of opposite walls.
+	 *
+	 * @return	| result == (2.0 * radius < getWidth()) && (2.0 * radius < getHeight())
+	 */
+	public boolean canContain(double radius) {
+		return (2.0 * radius < this.width) && (2.0 * radius < this.height);
+	}
+
+	/**
+	 * Check whether a disc with the given centre and radius lies within
+	 * this world.
+	 *
+	 * @return	| result == (xposition - radius >= 0.0) && (xposition + radius <= getWidth())
+	 * 			|	&& (yposition - radius >= 0.0) && (yposition + radius <= getHeight())
+	 */
+	public boolean contains(double xposition, double yposition, double radius) {
+		return (xposition - radius >= 0.0) && (xposition + radius <= this.width)
+				&& (yposition - radius >= 0.0) && (yposition + radius <= this.height);
+	}
+
+	/**
+	 * Check whether the given ship lies within this world.
+	 *
+	 * @return	| result == contains(ship.getPositionX(), ship.getPositionY(), ship.getRadius())
+	 * @throws	NullPointerException
+	 * 			| ship == null
+	 */
+	public boolean contains(Ship ship) throws NullPointerException {
+		return contains(ship.getPositionX(), ship.getPositionY(), ship.getRadius());
+	}
+
+	/**
+	 * Return the time until the given ship touches a wall of this world.
+	 *
+	 * @return	| result == getTimeToWallCollision(ship.getPositionX(), ship.getPositionY(),
+	 * 			|	ship.getVelocityX(), ship.getVelocityY(), ship.getRadius())
+	 * @throws	NullPointerException
+	 * 			| ship == null
+	 */
+	public double getTimeToWallCollision(Ship ship) throws NullPointerException {
+		return getTimeToWallCollision(ship.getPositionX(), ship.getPositionY(),
+				ship.getVelocityX(), ship.getVelocityY(), ship.getRadius());
+	}
+
+	/**
+	 * Return the time until a disc with the given centre, velocity and
+	 * radius touches a wall of this world while moving toward it.
+	 *
+	 * @param	xposition
+	 * 			The X-coordinate of the centre of the disc.
+	 * @param	yposition
+	 * 			The Y-coordinate of the centre of the disc.
+	 * @param	xvelocity
+	 * 			The X-coordinate of the velocity of the disc.
+	 * @param	yvelocity
+	 * 			The Y-coordinate of the velocity of the disc.
+	 * @param	radius
+	 * 			The radius of the disc.
+	 * @return	The smallest of the times to each wall the disc moves toward,
+	 * 			which is zero if the disc already reaches beyond that wall, but
+	 * 			not beyond the opposite wall as well.
+	 * 			| result == min { getTimeToWall(..., wall) | wall in Wall.values() }
+	 * @return	Positive infinity if the disc moves toward no wall.
+	 * 			| if (xvelocity == 0.0 && yvelocity == 0.0)
+	 * 			|	then result == Double.POSITIVE_INFINITY
+	 */
+	public double getTimeToWallCollision(double xposition, double yposition, double xvelocity,
+			double yvelocity, double radius) {
+		return Math.min(getTimeToWall(xposition, xvelocity, radius, this.width),
+				getTimeToWall(yposition, yvelocity, radius, this.height));
+	}
+
+	/**
+	 * Return the wall a disc with the given centre, velocity and radius
+	 * touches first, or null if it moves toward no wall.
+	 *
+	 * @return	The wall at the time getTimeToWallCollision(...), preferring
+	 * 			a vertical wall if the disc reaches a corner.
+	 */
+	public Wall getWallCollision(double xposition, double yposition, double xvelocity,
+			double yvelocity, double radius) {
+		double xtime = getTimeToWall(xposition, xvelocity, radius, this.width);
+		double ytime = getTimeToWall(yposition, yvelocity, radius, this.height);
+		if ((xtime == Double.POSITIVE_INFINITY) && (ytime == Double.POSITIVE_INFINITY))
+			return null;
+		if (xtime <= ytime)
+			return (xvelocity < 0.0) ? Wall.LEFT : Wall.RIGHT;
+		return (yvelocity < 0.0) ? Wall.BOTTOM : Wall.TOP;
+	}
+
+	/**
+	 * Return the wall the given ship touches first, or null if it moves
+	 * toward no wall.
+	 *
+	 * @return	| result == getWallCollision(ship.getPositionX(), ship.getPositionY(),
+	 * 			|	ship.getVelocityX(), ship.getVelocityY(), ship.getRadius())
+	 * @throws	NullPointerException
+	 * 			| ship == null
+	 */
+	public Wall getWallCollision(Ship ship) throws NullPointerException {
+		return getWallCollision(ship.getPositionX(), ship.getPositionY(),
+				ship.getVelocityX(), ship.getVelocityY(), ship.getRadius());
+	}
+
+	/**
+	 * Return the time until a disc with the given coordinate, velocity along
+	 * the same axis and radius reaches the wall at zero or at the given extent.
+	 * A disc that reaches beyond both walls at once never reaches either.
+	 */
+	private static double getTimeToWall(double position, double velocity, double radius, double extent) {
+		// Bouncing such a disc off one wall would send it into the other wall at the same time, forever.
+		if ((position - radius <= 0.0) && (position + radius >= extent))
+			return Double.POSITIVE_INFINITY;
+		double time;
+		if (velocity > 0.0)
+			time = (extent - radius - position) / velocity;
+		else if (velocity < 0.0)
+			time = (radius - position) / velocity;
+		else
+			return Double.POSITIVE_INFINITY;
+		// A disc beyond the wall it moves toward touches it now; NaN stems from infinite positions.
+		if (time < 0.0)
+			return 0.0;
+		return (time >= 0.0) ? time : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Return the given velocity bounced off the given wall.
+	 *
+	 * @param	velocity
+	 * 			The X-coordinate of the velocity for a vertical wall, or the
+	 * 			Y-coordinate of the velocity otherwise.
+	 * @param	wall
+	 * 			The wall to bounce off.
+	 * @return	The velocity pointing away from the given wall, with the
+	 * 			same magnitude.
+	 * 			| if (wall == Wall.LEFT || wall == Wall.BOTTOM)
+	 * 			|	then result == Math.abs(velocity)
+	 * 			|	else result == -Math.abs(velocity)
+	 */
+	public static double bounce(double velocity, Wall wall) {
+		return ((wall == Wall.LEFT) || (wall == Wall.BOTTOM)) ? Math.abs(velocity) : -Math.abs(velocity);
+	}
+
+	/**
+	 * Bounce the given ship off the given wall.
+	 *
+	 * @param	ship
+	 * 			The ship to bounce.
+	 * @param	wall
+	 * 			The wall to bounce off.
+	 * @effect	| if (wall.isVertical())
+	 * 			|	then ship.setVelocity(bounce(ship.getVelocityX(), wall), ship.getVelocityY())
+	 * 			|	else ship.setVelocity(ship.getVelocityX(), bounce(ship.getVelocityY(), wall))
+	 * @throws	NullPointerException
+	 * 			| ship == null || wall == null
+	 */
+	public static void bounce(Ship ship, Wall wall) throws NullPointerException {
+		if (wall.isVertical())
+			ship.setVelocity(bounce(ship.getVelocityX(), wall), ship.getVelocityY());
+		else
+			ship.setVelocity(ship.getVelocityX(), bounce(ship.getVelocityY(), wall));
+	}
+
+	/**
+	 * Check whether this world is equal to the given object.
+	 *
+	 * @return	True if and only if the given object is a world with the same
+	 * 			width and height.
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if (! (other instanceof World))
+			return false;
+		World world = (World) other;
+		return (Double.compare(this.width, world.width) == 0) && (Double.compare(this.height, world.height) == 0);
+	}
+
+	/**
+	 * Return the hash code for this world.
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * Double.hashCode(this.width) + Double.hashCode(this.height);
+	}
+
+	/**
+	 * Return a textual representation of this world.
+	 */
+	@Override
+	public String toString() {
+		return "World[" + this.width + " x " + this.height + "]";
+	}
+
+}